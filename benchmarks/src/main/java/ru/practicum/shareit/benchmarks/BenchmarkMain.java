@@ -0,0 +1,25 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs JMH with the usual command line, but writes the results as JSON to {@code jmh-result.json} unless
+ * {@code -rf}/{@code -rff} say otherwise, so runs on two commits can be diffed.
+ */
+public class BenchmarkMain {
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        Options options = new OptionsBuilder()
+                .parent(commandLine)
+                .resultFormat(commandLine.getResultFormat().orElse(ResultFormatType.JSON))
+                .result(commandLine.getResult().orElse("jmh-result.json"))
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,76 @@
+package ru.practicum.shareit.benchmarks;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.item.Comment;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.user.User;
+
+/**
+ * Detached entities for the mapper benchmarks, built deterministically so runs on different commits see the same
+ * input.
+ */
+public class Fixtures {
+    private static final LocalDateTime NOW = LocalDateTime.of(2023, 1, 1, 12, 0);
+
+    private Fixtures() {
+    }
+
+    public static List<Item> items(int count) {
+        User owner = User.builder().id(1L).name("owner").email("owner@mail.ru").build();
+        ItemRequest request = ItemRequest.builder().id(1L).build();
+        List<Item> items = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            items.add(Item.builder()
+                    .id(id)
+                    .name("item " + id)
+                    .description("description of item " + id)
+                    .available(true)
+                    .owner(owner)
+                    .request(id % 2 == 0 ? request : null)
+                    .build());
+        }
+        return items;
+    }
+
+    /**
+     * Bookings ordered by start descending, as the repository returns them: past ones end before the fixed now,
+     * future ones start after it.
+     */
+    public static List<Booking> bookings(List<Item> items, int perItem, boolean past) {
+        User booker = User.builder().id(2L).name("booker").email("booker@mail.ru").build();
+        List<Booking> bookings = new ArrayList<>(items.size() * perItem);
+        long id = 1;
+        for (int i = 1; i <= perItem; i++) {
+            LocalDateTime start = past ? NOW.minusDays(2L * i) : NOW.plusDays(2L * (perItem - i + 1));
+            for (Item item : items) {
+                bookings.add(Booking.builder()
+                        .id(id++)
+                        .start(start)
+                        .end(start.plusDays(1))
+                        .item(item)
+                        .booker(booker)
+                        .status(BookingStatus.APPROVED)
+                        .build());
+            }
+        }
+        return bookings;
+    }
+
+    public static List<Comment> comments(List<Item> items, int perItem) {
+        User author = User.builder().id(2L).name("booker").email("booker@mail.ru").build();
+        List<Comment> comments = new ArrayList<>(items.size() * perItem);
+        long id = 1;
+        for (Item item : items) {
+            for (int i = 0; i < perItem; i++) {
+                comments.add(new Comment(id++, "comment " + i, item, author, NOW.minusHours(i)));
+            }
+        }
+        return comments;
+    }
+}
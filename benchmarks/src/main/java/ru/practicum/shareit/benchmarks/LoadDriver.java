@@ -0,0 +1,212 @@
+package ru.practicum.shareit.benchmarks;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Replays a mix of booking, item and request calls against the gateway from a fixed number of concurrent virtual
+ * users, each sending its next request as soon as the previous one completes, and prints p50/p99/p999 latencies
+ * per operation. The id ranges default to what the server's {@code dataset} profile generates with its defaults.
+ * <p>
+ * {@code java -cp benchmarks/target/benchmarks.jar ru.practicum.shareit.benchmarks.LoadDriver
+ * --url=http://localhost:8080 --concurrency=64 --duration=60 --warmup=10 --users=10000 --owners=2000
+ * --items=10000 --requests=1000}
+ */
+public class LoadDriver {
+    private static final String[] STATES = {"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"};
+    private static final String[] WORDS = {"drill", "saw", "ladder", "tent", "bike", "camera", "cordless", "kids"};
+
+    enum Operation {
+        GET_ITEM(30),
+        GET_OWNER_ITEMS(10),
+        SEARCH_ITEMS(10),
+        GET_BOOKINGS(20),
+        GET_OWNER_BOOKINGS(10),
+        GET_REQUESTS(10),
+        GET_REQUEST(5),
+        CREATE_BOOKING(5);
+
+        private final int weight;
+
+        Operation(int weight) {
+            this.weight = weight;
+        }
+    }
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final String url;
+    private final int users;
+    private final int owners;
+    private final int items;
+    private final int requests;
+    private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+    private final Operation[] mix;
+    private volatile boolean recording;
+    private volatile long deadline;
+
+    LoadDriver(Map<String, String> args) {
+        url = args.getOrDefault("url", "http://localhost:8080");
+        users = Integer.parseInt(args.getOrDefault("users", "10000"));
+        owners = Integer.parseInt(args.getOrDefault("owners", "2000"));
+        items = Integer.parseInt(args.getOrDefault("items", "10000"));
+        requests = Integer.parseInt(args.getOrDefault("requests", "1000"));
+        mix = Arrays.stream(Operation.values())
+                .flatMap(operation -> Collections.nCopies(operation.weight, operation).stream())
+                .toArray(Operation[]::new);
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new Recorder());
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (arg.startsWith("--") && separator > 0) {
+                options.put(arg.substring(2, separator), arg.substring(separator + 1));
+            }
+        }
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "64"));
+        long warmup = Long.parseLong(options.getOrDefault("warmup", "10"));
+        long duration = Long.parseLong(options.getOrDefault("duration", "60"));
+
+        LoadDriver driver = new LoadDriver(options);
+        driver.deadline = System.nanoTime() + Duration.ofSeconds(warmup + duration).toNanos();
+        CompletableFuture<?>[] virtualUsers = new CompletableFuture<?>[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            virtualUsers[i] = driver.loop();
+        }
+        Thread.sleep(Duration.ofSeconds(warmup).toMillis());
+        driver.recording = true;
+        CompletableFuture.allOf(virtualUsers).join();
+        driver.report(duration);
+    }
+
+    private CompletableFuture<Void> loop() {
+        if (System.nanoTime() >= deadline) {
+            return CompletableFuture.completedFuture(null);
+        }
+        Operation operation = mix[ThreadLocalRandom.current().nextInt(mix.length)];
+        HttpRequest request = request(operation, ThreadLocalRandom.current());
+        long started = System.nanoTime();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .handle((response, error) -> {
+                    if (recording) {
+                        recorders.get(operation).record(System.nanoTime() - started,
+                                error == null && response.statusCode() < 300);
+                    }
+                    return null;
+                })
+                .thenCompose(ignored -> loop());
+    }
+
+    private HttpRequest request(Operation operation, ThreadLocalRandom random) {
+        long user = 1 + random.nextInt(users);
+        long owner = 1 + random.nextInt(owners);
+        String state = STATES[random.nextInt(STATES.length)];
+        switch (operation) {
+            case GET_ITEM:
+                return get("/items/" + (1 + random.nextInt(items)), user);
+            case GET_OWNER_ITEMS:
+                return get("/items?from=0&size=10", owner);
+            case SEARCH_ITEMS:
+                return get("/items/search?from=0&size=10&text=" + WORDS[random.nextInt(WORDS.length)], user);
+            case GET_BOOKINGS:
+                return get("/bookings?from=0&size=20&state=" + state, user);
+            case GET_OWNER_BOOKINGS:
+                return get("/bookings/owner?from=0&size=20&state=" + state, owner);
+            case GET_REQUESTS:
+                return get("/requests/all?from=0&size=10", user);
+            case GET_REQUEST:
+                return get("/requests/" + (1 + random.nextInt(requests)), user);
+            case CREATE_BOOKING:
+                LocalDateTime start = LocalDateTime.now().plusYears(2).plusMinutes(random.nextInt(1_000_000));
+                String body = String.format("{\"itemId\":%d,\"start\":\"%s\",\"end\":\"%s\"}",
+                        1 + random.nextInt(items), start.withNano(0), start.plusHours(2).withNano(0));
+                return builder("/bookings", user)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build();
+            default:
+                throw new IllegalArgumentException("Unknown operation " + operation);
+        }
+    }
+
+    private HttpRequest get(String path, long user) {
+        return builder(path, user).GET().build();
+    }
+
+    private HttpRequest.Builder builder(String path, long user) {
+        return HttpRequest.newBuilder(URI.create(url + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("X-Sharer-User-Id", String.valueOf(user));
+    }
+
+    private void report(long seconds) {
+        System.out.printf("%-20s %10s %8s %10s %10s %10s %10s%n", "operation", "requests", "errors", "rps",
+                "p50 ms", "p99 ms", "p999 ms");
+        Recorder all = new Recorder();
+        for (Map.Entry<Operation, Recorder> entry : recorders.entrySet()) {
+            print(entry.getKey().name(), entry.getValue(), seconds);
+            all.addAll(entry.getValue());
+        }
+        print("TOTAL", all, seconds);
+    }
+
+    private static void print(String name, Recorder recorder, long seconds) {
+        long[] latencies = recorder.sorted();
+        System.out.printf("%-20s %10d %8d %10.1f %10.2f %10.2f %10.2f%n", name, latencies.length,
+                recorder.errors.get(), (double) latencies.length / seconds, percentile(latencies, 0.5),
+                percentile(latencies, 0.99), percentile(latencies, 0.999));
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    private static class Recorder {
+        private long[] latencies = new long[1024];
+        private int size;
+        private final AtomicLong errors = new AtomicLong();
+
+        synchronized void record(long nanos, boolean success) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = nanos;
+            if (!success) {
+                errors.incrementAndGet();
+            }
+        }
+
+        synchronized void addAll(Recorder other) {
+            long[] added = other.sorted();
+            for (long nanos : added) {
+                record(nanos, true);
+            }
+            errors.addAndGet(other.errors.get());
+        }
+
+        synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(latencies, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+}
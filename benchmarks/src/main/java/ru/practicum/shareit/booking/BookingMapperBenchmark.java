@@ -0,0 +1,50 @@
+package ru.practicum.shareit.booking;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import ru.practicum.shareit.benchmarks.Fixtures;
+import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingMapperBenchmark {
+    @Param({"20", "1000"})
+    private int size;
+
+    private List<Booking> bookings;
+
+    @Setup
+    public void setUp() {
+        bookings = Fixtures.bookings(Fixtures.items(size), 1, false);
+    }
+
+    @Benchmark
+    public List<BookingDtoResponse> mapToBookingDtoResponse() {
+        return BookingMapper.mapToBookingDtoResponse(bookings);
+    }
+
+    @Benchmark
+    public void toBookingDtoForItem(Blackhole blackhole) {
+        for (Booking booking : bookings) {
+            blackhole.consume(BookingMapper.toBookingDtoForItem(booking));
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package ru.practicum.shareit.booking;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+
+/**
+ * Boots the server without its web layer and times {@link BookingService#getBookings} for each state against a
+ * bookings table of the given size. The in-memory H2 of the {@code ci} profile is used by default; pass
+ * {@code -jvmArgs "-Dbenchmark.profile=default -Dspring.datasource.url=..."} to run against a local Postgres.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class GetBookingsBenchmark {
+    private static final int BOOKERS = 1000;
+    private static final int OWNERS = 100;
+    private static final int ITEMS = 1000;
+    private static final int BATCH = 10_000;
+    private static final int PAGE = 20;
+    private static final BookingStatus[] STATUSES = {
+            BookingStatus.WAITING, BookingStatus.APPROVED, BookingStatus.REJECTED, BookingStatus.APPROVED};
+
+    @Param({"10000", "100000", "1000000"})
+    private int bookings;
+
+    @Param({"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"})
+    private BookingStatusPresentation state;
+
+    private ConfigurableApplicationContext context;
+    private BookingService bookingService;
+    private long booker;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItApp.class)
+                .web(WebApplicationType.NONE)
+                .profiles(System.getProperty("benchmark.profile", "ci"))
+                .properties("logging.level.root=WARN",
+                        "logging.level.org.hibernate.SQL=WARN",
+                        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                        "logging.level.org.springframework.transaction.interceptor=WARN",
+                        "logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN")
+                .run();
+        bookingService = context.getBean(BookingService.class);
+        seed(context.getBean(JdbcTemplate.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<BookingDtoResponse> getBookings() {
+        booker = booker % BOOKERS + 1;
+        return bookingService.getBookings(booker, state.name(), 0, PAGE, null);
+    }
+
+    /**
+     * Users 1..{@value #BOOKERS} book, the next {@value #OWNERS} own the items. Bookings are spread evenly over
+     * bookers and items and over two years around now, a day long each, so every state matches some rows.
+     */
+    private void seed(JdbcTemplate jdbc) {
+        List<Object[]> users = new ArrayList<>();
+        for (long id = 1; id <= BOOKERS + OWNERS; id++) {
+            users.add(new Object[]{id, "user " + id, "user" + id + "@mail.ru"});
+        }
+        jdbc.batchUpdate("insert into users (id, name, email) values (?, ?, ?)", users);
+
+        List<Object[]> items = new ArrayList<>();
+        for (long id = 1; id <= ITEMS; id++) {
+            items.add(new Object[]{id, "item " + id, "description " + id, true, BOOKERS + 1 + id % OWNERS});
+        }
+        jdbc.batchUpdate("insert into items (id, name, description, available, owner) values (?, ?, ?, ?, ?)", items);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> batch = new ArrayList<>(BATCH);
+        for (long id = 1; id <= bookings; id++) {
+            LocalDateTime start = now.minusDays(365).plusHours(id * 7 % (2 * 365 * 24));
+            batch.add(new Object[]{id, Timestamp.valueOf(start), Timestamp.valueOf(start.plusDays(1)),
+                    1 + id * 31 % ITEMS, 1 + id % BOOKERS, STATUSES[(int) (id % STATUSES.length)].name()});
+            if (batch.size() == BATCH) {
+                insertBookings(jdbc, batch);
+                batch.clear();
+            }
+        }
+        insertBookings(jdbc, batch);
+    }
+
+    private static void insertBookings(JdbcTemplate jdbc, List<Object[]> batch) {
+        jdbc.batchUpdate("insert into bookings (id, start_date, end_date, item, booker, status) "
+                + "values (?, ?, ?, ?, ?, ?)", batch);
+    }
+}
@@ -0,0 +1,78 @@
+package ru.practicum.shareit.booking;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Measures {@link StripedItemLockManager} throughput when every thread writes its own item and when all threads
+ * write one item, with a short critical section standing in for the overlap check and insert. Run with
+ * {@code -t 1,2,4,8}: the distinct-item score should grow with the thread count, the same-item one should not.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemLockBenchmark {
+    private static final long SHARED_ITEM = 0L;
+    private static final int WORK_TOKENS = 200;
+
+    private final AtomicLong nextItem = new AtomicLong(1);
+    private StripedItemLockManager lockManager;
+
+    @Setup
+    public void setUp() {
+        lockManager = new StripedItemLockManager(1024, Duration.ofSeconds(10), new SimpleMeterRegistry());
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadItem {
+        List<Long> own;
+
+        @Setup
+        public void setUp(ItemLockBenchmark benchmark) {
+            own = List.of(benchmark.nextItem.getAndIncrement());
+        }
+    }
+
+    @Benchmark
+    public void distinctItems(ThreadItem item) {
+        write(item.own);
+    }
+
+    @Benchmark
+    public void sameItem() {
+        write(List.of(SHARED_ITEM));
+    }
+
+    private void write(List<Long> itemIds) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            lockManager.lock(itemIds);
+            Blackhole.consumeCPU(WORK_TOKENS);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package ru.practicum.shareit.item;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ru.practicum.shareit.benchmarks.Fixtures;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.item.dto.ItemDtoBooking;
+
+/**
+ * The in-memory part of {@code ItemServiceImpl.getItemsByUser}: the {@code toMap}/{@code groupingBy} join of a page
+ * of items with the last and next bookings and the comments the repositories returned for it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemAssemblyBenchmark {
+    @Param({"10", "100", "1000"})
+    private int items;
+
+    @Param({"1", "5"})
+    private int perItem;
+
+    private List<Item> page;
+    private List<Booking> last;
+    private List<Booking> next;
+    private List<Comment> comments;
+
+    @Setup
+    public void setUp() {
+        page = Fixtures.items(items);
+        last = Fixtures.bookings(page, perItem, true);
+        next = Fixtures.bookings(page, perItem, false);
+        comments = Fixtures.comments(page, perItem);
+    }
+
+    @Benchmark
+    public List<ItemDtoBooking> assemble() {
+        return ItemMapper.toItemDtoBookings(page, last, next, comments);
+    }
+}
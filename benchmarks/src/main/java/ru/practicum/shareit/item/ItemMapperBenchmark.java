@@ -0,0 +1,59 @@
+package ru.practicum.shareit.item;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import ru.practicum.shareit.benchmarks.Fixtures;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemMapperBenchmark {
+    @Param({"20", "1000"})
+    private int size;
+
+    private List<Item> items;
+    private List<Comment> comments;
+
+    @Setup
+    public void setUp() {
+        items = Fixtures.items(size);
+        comments = Fixtures.comments(items, 1);
+    }
+
+    @Benchmark
+    public List<ItemDto> mapToItemDto() {
+        return ItemMapper.mapToItemDto(items);
+    }
+
+    @Benchmark
+    public void toItemDtoBooking(Blackhole blackhole) {
+        for (Item item : items) {
+            blackhole.consume(ItemMapper.toItemDtoBooking(item));
+        }
+    }
+
+    @Benchmark
+    public void toCommentDto(Blackhole blackhole) {
+        for (Comment comment : comments) {
+            blackhole.consume(CommentMapper.toCommentDto(comment));
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+/**
+ * Answers {@code If-None-Match} with 304 against the ETag forwarded from the server, so polling clients skip the body.
+ */
+@Configuration
+public class EtagConfig {
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> etagFilter() {
+        return new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+    }
+}
@@ -1,48 +1,99 @@
 package ru.practicum.shareit.booking;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
+    private final Map<Long, Flux<ServerSentEvent<String>>> eventStreams = new ConcurrentHashMap<>();
+
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(builder.uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new).build());
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, WebClient serverWebClient,
+            ResponseCache responseCache) {
+        super(serverWebClient, serverUrl + API_PREFIX, responseCache);
     }
 
-    public ResponseEntity<Object> createBooking(long userId, BookingDtoRequest bookingDtoRequest) {
+    public Mono<ResponseEntity<Object>> createBooking(long userId, BookingDtoRequest bookingDtoRequest) {
         return post("", userId, bookingDtoRequest);
     }
 
-    public ResponseEntity<Object> getBookings(long userId, String state, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> createBookings(long userId, List<BookingDtoRequest> bookingDtoRequests) {
+        return post("/batch", userId, bookingDtoRequests);
+    }
+
+    public Mono<ResponseEntity<Object>> updateBookings(long ownerId, List<Long> bookingIds, boolean approved) {
+        Map<String, Object> parameters = Map.of("approved", approved);
+        return patch("/batch?approved={approved}", ownerId, parameters, bookingIds);
+    }
+
+    public Mono<ResponseEntity<Object>> getBookings(long userId, String state, Integer from, Integer size,
+            String cursor) {
         Map<String, Object> parameters = Map.of("state", state, "from", from, "size", size);
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+        return getPage("?state={state}&from={from}&size={size}", userId, parameters, cursor);
     }
 
-    public ResponseEntity<Object> getBooking(long userId, Long bookingId) {
+    public Mono<ResponseEntity<Object>> getBooking(long userId, Long bookingId) {
         return get("/" + userId, bookingId);
     }
 
-    public ResponseEntity<Object> updateBooking(long bookingId, long userId, Boolean approved) {
+    public Mono<ResponseEntity<Object>> updateBooking(long bookingId, long userId, Boolean approved) {
         Map<String, Object> parameters = Map.of("approved", approved);
         return patch("/" + userId + "?approved={approved}", bookingId, parameters, null);
     }
 
-    public ResponseEntity<Object> getBookingFromOwner(long userId, String state, int from, int size) {
+    public Mono<ResponseEntity<Object>> getBookingFromOwner(long userId, String state, int from, int size,
+            String cursor) {
         Map<String, Object> parameters = Map.of("state", state, "from", from, "size", size);
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+        return getPage("/owner?state={state}&from={from}&size={size}", userId, parameters, cursor);
+    }
+
+    public Mono<ResponseEntity<ResponseBodyEmitter>> exportBookingFromOwner(long userId, String state,
+            Duration timeout) {
+        return getStream("/owner/export?state={state}", userId, Map.of("state", state), timeout);
+    }
+
+    /**
+     * Subscribes a client to the user's booking events. All clients of one user share a single server stream,
+     * opened by the first and closed after the last one leaves.
+     */
+    public SseEmitter streamEvents(long userId, Duration timeout) {
+        return relayEvents(eventStream(userId), timeout);
+    }
+
+    Flux<ServerSentEvent<String>> eventStream(long userId) {
+        return eventStreams.computeIfAbsent(userId, this::openEventStream);
+    }
+
+    int eventStreamCount() {
+        return eventStreams.size();
+    }
+
+    private Flux<ServerSentEvent<String>> openEventStream(long userId) {
+        AtomicReference<Flux<ServerSentEvent<String>>> shared = new AtomicReference<>();
+        shared.set(getEvents("/events", userId)
+                .doFinally(signal -> eventStreams.remove(userId, shared.get()))
+                .publish()
+                .refCount());
+        return shared.get();
     }
-}
\ No newline at end of file
+}
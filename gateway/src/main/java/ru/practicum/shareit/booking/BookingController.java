@@ -1,8 +1,17 @@
 package ru.practicum.shareit.booking;
 
+import java.time.Duration;
+import java.util.List;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
@@ -14,9 +23,13 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
 import ru.practicum.shareit.validation.Create;
 
@@ -26,50 +39,106 @@ import ru.practicum.shareit.validation.Create;
 @RequiredArgsConstructor
 @RequestMapping("/bookings")
 public class BookingController {
+    private static final int MAX_BATCH_SIZE = 1000;
+
     private final BookingClient bookingClient;
+    @Value("${shareit-gateway.export-timeout}")
+    private Duration exportTimeout;
+    @Value("${shareit-gateway.events-timeout}")
+    private Duration eventsTimeout;
 
     @PostMapping
-    public ResponseEntity<Object> createBooking(
+    public Mono<ResponseEntity<Object>> createBooking(
             @RequestHeader(name = "X-Sharer-User-Id") long userId,
             @Validated({ Create.class }) @RequestBody BookingDtoRequest bookingDtoRequest) {
-        log.info("createBooking request userId = {}, bookingDtoRequest = {}", userId, bookingDtoRequest);
+        log.debug("createBooking request userId = {}, bookingDtoRequest = {}", userId, bookingDtoRequest);
         return bookingClient.createBooking(userId, bookingDtoRequest);
     }
 
+    @PostMapping("/batch")
+    @Validated({ Create.class })
+    public Mono<ResponseEntity<Object>> createBookings(
+            @RequestHeader(name = "X-Sharer-User-Id") long userId,
+            @NotEmpty(groups = Create.class) @Size(max = MAX_BATCH_SIZE, groups = Create.class)
+            @RequestBody List<@Valid BookingDtoRequest> bookingDtoRequests) {
+        log.debug("createBookings request userId = {}, size = {}", userId, bookingDtoRequests.size());
+        return bookingClient.createBookings(userId, bookingDtoRequests);
+    }
+
+    @PatchMapping("/batch")
+    public Mono<ResponseEntity<Object>> updateBookings(
+            @RequestParam boolean approved,
+            @RequestHeader(name = "X-Sharer-User-Id") long ownerId,
+            @NotEmpty @Size(max = MAX_BATCH_SIZE) @RequestBody List<Long> bookingIds) {
+        log.debug("updateBookings request approved = {}, ownerId = {}, size = {}", approved, ownerId,
+                bookingIds.size());
+        return bookingClient.updateBookings(ownerId, bookingIds, approved);
+    }
+
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> updateBooking(
+    public Mono<ResponseEntity<Object>> updateBooking(
             @PathVariable long bookingId,
             @RequestParam boolean approved,
             @RequestHeader(name = "X-Sharer-User-Id") long ownerId) {
-        log.info("updateBooking request bookingId = {}, approved = {}, ownerId = {}", bookingId, approved, ownerId);
+        log.debug("updateBooking request bookingId = {}, approved = {}, ownerId = {}", bookingId, approved, ownerId);
         return bookingClient.updateBooking(ownerId, bookingId, approved);
     }
 
+    /**
+     * Streams changes of the user's bookings as Server-Sent Events, in place of polling the booking listings.
+     */
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(
+            @RequestHeader(name = "X-Sharer-User-Id") long userId,
+            HttpServletRequest request) {
+        log.debug("streamEvents request userId = {}", userId);
+        ShallowEtagHeaderFilter.disableContentCaching(request);
+        return bookingClient.streamEvents(userId, eventsTimeout);
+    }
+
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBooking(
+    public Mono<ResponseEntity<Object>> getBooking(
             @PathVariable long bookingId,
             @RequestHeader(name = "X-Sharer-User-Id") long ownerId) {
-        log.info("updateBooking request bookingId = {}, ownerId = {}", bookingId, ownerId);
+        log.debug("updateBooking request bookingId = {}, ownerId = {}", bookingId, ownerId);
         return bookingClient.getBooking(bookingId, ownerId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getBookings(
+    public Mono<ResponseEntity<Object>> getBookings(
             @RequestParam(defaultValue = "ALL") String state,
             @RequestHeader(name = "X-Sharer-User-Id") long ownerId,
             @PositiveOrZero @RequestParam(defaultValue = "0") int from,
-            @Positive @RequestParam(defaultValue = "20") int size) {
-        log.info("updateBooking request state = {}, ownerId = {}, from = {}, size = {}", state, ownerId, from, size);
-        return bookingClient.getBookings(ownerId, state, from, size);
+            @Positive @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor) {
+        log.debug("updateBooking request state = {}, ownerId = {}, from = {}, size = {}, cursor = {}", state, ownerId,
+                from, size, cursor);
+        return bookingClient.getBookings(ownerId, state, from, size, cursor);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getBookingFromOwner(
+    public Mono<ResponseEntity<Object>> getBookingFromOwner(
             @RequestParam(defaultValue = "ALL") String state,
             @RequestHeader(name = "X-Sharer-User-Id") long ownerId,
             @PositiveOrZero @RequestParam(defaultValue = "0") int from,
-            @Positive @RequestParam(defaultValue = "20") int size) {
-        log.info("updateBooking request state = {}, ownerId = {}, from = {}, size = {}", state, ownerId, from, size);
-        return bookingClient.getBookingFromOwner(ownerId, state, from, size);
+            @Positive @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor) {
+        log.debug("updateBooking request state = {}, ownerId = {}, from = {}, size = {}, cursor = {}", state, ownerId,
+                from, size, cursor);
+        return bookingClient.getBookingFromOwner(ownerId, state, from, size, cursor);
+    }
+
+    /**
+     * Relays the server's NDJSON export of all bookings of the owner's items as it arrives, bypassing the ETag
+     * filter's buffer.
+     */
+    @GetMapping(path = "/owner/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Mono<ResponseEntity<ResponseBodyEmitter>> exportBookingFromOwner(
+            @RequestParam(defaultValue = "ALL") String state,
+            @RequestHeader(name = "X-Sharer-User-Id") long ownerId,
+            HttpServletRequest request) {
+        log.debug("exportBookingFromOwner request state = {}, ownerId = {}", state, ownerId);
+        ShallowEtagHeaderFilter.disableContentCaching(request);
+        return bookingClient.exportBookingFromOwner(ownerId, state, exportTimeout);
     }
 }
@@ -1,98 +1,303 @@
 package ru.practicum.shareit.client;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import org.springframework.http.HttpEntity;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.util.UriBuilderFactory;
 
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import ru.practicum.shareit.exception.BadRequestException;
+
+/**
+ * Proxies calls to the server without holding a servlet thread: every method returns a {@link Mono} that Spring MVC
+ * completes asynchronously once the response arrives on the shared connection pool.
+ */
 public class BaseClient {
-    protected final RestTemplate rest;
+    private static final int RELAY_PREFETCH = 16;
+    private static final int EVENT_BUFFER_SIZE = 256;
+    private static final ParameterizedTypeReference<ServerSentEvent<String>> SERVER_SENT_EVENTS =
+            new ParameterizedTypeReference<>() {
+            };
+
+    protected final WebClient web;
+    private final UriBuilderFactory uriBuilderFactory;
+    private final ResponseCache responseCache;
 
-    public BaseClient(RestTemplate rest) {
-        this.rest = rest;
+    public BaseClient(WebClient web, String baseUrl, ResponseCache responseCache) {
+        this.web = web;
+        this.uriBuilderFactory = new DefaultUriBuilderFactory(baseUrl);
+        this.responseCache = responseCache;
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected Mono<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected Mono<ResponseEntity<Object>> getPage(String path, long userId, Map<String, Object> parameters,
+            @Nullable String cursor) {
+        if (cursor == null) {
+            return get(path, userId, parameters);
+        }
+        Map<String, Object> withCursor = new HashMap<>(parameters);
+        withCursor.put("cursor", cursor);
+        return get(path + "&cursor={cursor}", userId, withCursor);
+    }
+
+    protected <T> Mono<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    /**
+     * Sends the elements as NDJSON while they are produced, so the request body is never held in memory. A failure
+     * of the publisher itself, such as an invalid record, is passed on unwrapped.
+     */
+    protected <T> Mono<ResponseEntity<Object>> postStream(String path, long userId, Flux<T> body,
+            Class<T> elementClass) {
+        HttpHeaders headers = defaultHeaders(userId);
+        headers.setContentType(MediaType.APPLICATION_NDJSON);
+        return web.post()
+                .uri(uriBuilderFactory.expand(path))
+                .headers(h -> h.addAll(headers))
+                .body(body, elementClass)
+                .exchangeToMono(BaseClient::prepareGatewayResponse)
+                .onErrorMap(e -> e instanceof WebClientRequestException && e.getCause() instanceof BadRequestException,
+                        Throwable::getCause);
+    }
+
+    /**
+     * Relays a streamed response without reading it whole. The emitter carries the server's status and content type
+     * and is fed from a small prefetch on a blocking-friendly scheduler, so a slow client slows the read from the
+     * server instead of filling the heap.
+     */
+    protected Mono<ResponseEntity<ResponseBodyEmitter>> getStream(String path, long userId,
+            Map<String, Object> parameters, Duration timeout) {
+        HttpHeaders headers = defaultHeaders(userId);
+        headers.setAccept(List.of(MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_JSON));
+        return web.get()
+                .uri(uriBuilderFactory.expand(path, parameters))
+                .headers(h -> h.addAll(headers))
+                .retrieve()
+                .onStatus(HttpStatus::isError, response -> Mono.empty())
+                .toEntityFlux(DataBuffer.class)
+                .map(entity -> ResponseEntity.status(entity.getStatusCode())
+                        .contentType(entity.getHeaders().getContentType())
+                        .body(relay(entity.getBody(), timeout)));
+    }
+
+    private static ResponseBodyEmitter relay(Flux<DataBuffer> body, Duration timeout) {
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(timeout.toMillis());
+        Disposable subscription = body
+                .publishOn(Schedulers.boundedElastic(), RELAY_PREFETCH)
+                .subscribe(buffer -> {
+                    try {
+                        byte[] bytes = new byte[buffer.readableByteCount()];
+                        buffer.read(bytes);
+                        emitter.send(bytes, MediaType.APPLICATION_OCTET_STREAM);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    } finally {
+                        DataBufferUtils.release(buffer);
+                    }
+                }, emitter::completeWithError, emitter::complete);
+        emitter.onTimeout(subscription::dispose);
+        emitter.onError(e -> subscription.dispose());
+        return emitter;
+    }
+
+    /**
+     * Opens a Server-Sent Events stream from the server, passing every event on with its data still serialized. An
+     * error status fails the stream with a {@link WebClientResponseException} carrying the server's body.
+     */
+    protected Flux<ServerSentEvent<String>> getEvents(String path, long userId) {
+        HttpHeaders headers = defaultHeaders(userId);
+        headers.setAccept(List.of(MediaType.TEXT_EVENT_STREAM));
+        return web.get()
+                .uri(uriBuilderFactory.expand(path))
+                .headers(h -> h.addAll(headers))
+                .retrieve()
+                .bodyToFlux(SERVER_SENT_EVENTS);
+    }
+
+    /**
+     * Relays events to a client through a bounded buffer of its own: a client that falls {@value #EVENT_BUFFER_SIZE}
+     * events behind is disconnected, so it cannot slow down other subscribers of a shared stream. A failure status
+     * of the server is sent as an {@code error} event with the server's body before the stream ends.
+     */
+    protected static SseEmitter relayEvents(Flux<ServerSentEvent<String>> events, Duration timeout) {
+        return relayEvents(events, new SseEmitter(timeout.toMillis()));
+    }
+
+    static SseEmitter relayEvents(Flux<ServerSentEvent<String>> events, SseEmitter emitter) {
+        Disposable subscription = events
+                .onBackpressureBuffer(EVENT_BUFFER_SIZE, BufferOverflowStrategy.ERROR)
+                .publishOn(Schedulers.boundedElastic(), RELAY_PREFETCH)
+                .subscribe(event -> {
+                    try {
+                        emitter.send(toSseEvent(event));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, e -> {
+                    if (e instanceof WebClientResponseException) {
+                        sendError(emitter, (WebClientResponseException) e);
+                    } else if (Exceptions.isOverflow(e)) {
+                        emitter.complete();
+                    } else {
+                        emitter.completeWithError(e);
+                    }
+                }, emitter::complete);
+        emitter.onCompletion(subscription::dispose);
+        emitter.onTimeout(subscription::dispose);
+        emitter.onError(e -> subscription.dispose());
+        return emitter;
+    }
+
+    private static SseEmitter.SseEventBuilder toSseEvent(ServerSentEvent<String> event) {
+        SseEmitter.SseEventBuilder builder = SseEmitter.event();
+        if (event.comment() != null) {
+            builder.comment(event.comment());
+        }
+        if (event.event() != null) {
+            builder.name(event.event());
+        }
+        if (event.data() != null) {
+            builder.data(event.data(), MediaType.APPLICATION_JSON);
+        }
+        return builder;
+    }
+
+    private static void sendError(SseEmitter emitter, WebClientResponseException e) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .name("error")
+                    .data(e.getResponseBodyAsString(), MediaType.APPLICATION_JSON));
+            emitter.complete();
+        } catch (IOException sendFailure) {
+            emitter.completeWithError(sendFailure);
+        }
+    }
+
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected Mono<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+    private <T> Mono<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        URI uri = parameters != null ? uriBuilderFactory.expand(path, parameters) : uriBuilderFactory.expand(path);
+        if (method == HttpMethod.GET) {
+            return sendRevalidatedGet(uri, userId);
+        }
 
-        ResponseEntity<Object> shareitServerResponse;
-        try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
-            }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+        WebClient.RequestBodySpec request = web.method(method)
+                .uri(uri)
+                .headers(headers -> headers.addAll(defaultHeaders(userId)));
+        WebClient.RequestHeadersSpec<?> shareitServerRequest = body != null ? request.bodyValue(body) : request;
+        return shareitServerRequest.exchangeToMono(BaseClient::prepareGatewayResponse);
+    }
+
+    /**
+     * Sends the ETag of the cached body, if any, so an unchanged resource comes back as a bodiless 304 and is served
+     * from the cache.
+     */
+    private Mono<ResponseEntity<Object>> sendRevalidatedGet(URI uri, Long userId) {
+        ResponseCache.Entry cached = responseCache.get(userId, uri);
+        HttpHeaders headers = defaultHeaders(userId);
+        if (cached != null && cached.getETag() != null) {
+            headers.setIfNoneMatch(cached.getETag());
         }
-        return prepareGatewayResponse(shareitServerResponse);
+
+        return web.get()
+                .uri(uri)
+                .headers(h -> h.addAll(headers))
+                .exchangeToMono(response -> {
+                    if (cached != null && response.statusCode() == HttpStatus.NOT_MODIFIED) {
+                        return response.releaseBody()
+                                .thenReturn(new ResponseEntity<>(cached.getBody(), cached.getHeaders(), HttpStatus.OK));
+                    }
+                    return prepareGatewayResponse(response);
+                })
+                .doOnNext(response -> {
+                    if (response.getStatusCode() == HttpStatus.OK && response.getHeaders().getETag() != null
+                            && response.hasBody()) {
+                        responseCache.put(userId, uri, response.getHeaders(), response.getBody());
+                    } else {
+                        responseCache.evict(userId, uri);
+                    }
+                });
     }
 
     private HttpHeaders defaultHeaders(Long userId) {
@@ -105,17 +310,19 @@ public class BaseClient {
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
+    private static Mono<ResponseEntity<Object>> prepareGatewayResponse(ClientResponse response) {
+        if (response.statusCode().is2xxSuccessful()) {
+            return response.toEntity(Object.class);
         }
 
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
-
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+        if (response.statusCode().isError()) {
+            return response.bodyToMono(byte[].class)
+                    .defaultIfEmpty(new byte[0])
+                    .map(body -> ResponseEntity.status(response.rawStatusCode()).<Object>body(body));
         }
 
-        return responseBuilder.build();
+        return response.bodyToMono(Object.class)
+                .map(body -> ResponseEntity.status(response.rawStatusCode()).body(body))
+                .defaultIfEmpty(ResponseEntity.status(response.rawStatusCode()).build());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.client;
+
+import java.net.URI;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Last successful GET bodies from the server, keyed by requesting user and expanded URI, as the server renders items
+ * and bookings differently for their owners. Entries are never served blind: each hit is revalidated with
+ * {@code If-None-Match}, so a stale entry only costs memory until the size bound evicts it.
+ */
+@Component
+public class ResponseCache {
+    private final Cache<Key, Entry> entries;
+
+    public ResponseCache(@Value("${shareit-gateway.response-cache.spec}") String spec) {
+        this.entries = Caffeine.from(spec).build();
+    }
+
+    @Nullable
+    public Entry get(@Nullable Long userId, URI uri) {
+        return entries.getIfPresent(new Key(userId, uri));
+    }
+
+    public void put(@Nullable Long userId, URI uri, HttpHeaders headers, Object body) {
+        entries.put(new Key(userId, uri), new Entry(headers, body));
+    }
+
+    public void evict(@Nullable Long userId, URI uri) {
+        entries.invalidate(new Key(userId, uri));
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Entry {
+        private final HttpHeaders headers;
+        private final Object body;
+
+        public String getETag() {
+            return headers.getETag();
+        }
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static class Key {
+        private final Long userId;
+        private final URI uri;
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.client;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import io.netty.channel.ChannelOption;
+import lombok.Getter;
+import lombok.Setter;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * One non-blocking connection pool to the server, shared by every client. All clients call the same host, so
+ * {@code maxConnections} is the per-route limit; requests beyond it wait up to {@code pendingAcquireTimeout} in a
+ * queue of at most {@code pendingAcquireMaxCount}.
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "shareit-server.client")
+public class ServerClientConfig {
+    private int maxConnections = 500;
+    private int pendingAcquireMaxCount = 10_000;
+    private Duration pendingAcquireTimeout = Duration.ofSeconds(5);
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration responseTimeout = Duration.ofSeconds(10);
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider serverConnectionProvider() {
+        return ConnectionProvider.builder("shareit-server")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(maxIdleTime)
+                .build();
+    }
+
+    @Bean
+    public WebClient serverWebClient(WebClient.Builder builder, ConnectionProvider serverConnectionProvider) {
+        HttpClient httpClient = HttpClient.create(serverConnectionProvider)
+                .keepAlive(true)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(responseTimeout);
+        return builder.clientConnector(new ReactorClientHttpConnector(httpClient)).build();
+    }
+}
@@ -1,17 +1,20 @@
 package ru.practicum.shareit.item;
 
+import java.time.Duration;
 import java.util.Collections;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
@@ -20,48 +23,52 @@ public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, WebClient serverWebClient,
+            ResponseCache responseCache) {
+        super(serverWebClient, serverUrl + API_PREFIX, responseCache);
     }
 
-    public ResponseEntity<Object> getItemsByUser(long userId, int from, int size) {
+    public Mono<ResponseEntity<Object>> getItemsByUser(long userId, int from, int size, String cursor) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
         );
-        return get("?from={from}&size={size}", userId, parameters);
+        return getPage("?from={from}&size={size}", userId, parameters, cursor);
     }
 
-    public ResponseEntity<Object> getItem(long userId, long itemId) {
+    public Mono<ResponseEntity<Object>> getItem(long userId, long itemId) {
         return get("/" + userId, itemId);
     }
 
-    public ResponseEntity<Object> createItem(long userId, ItemDto itemDto) {
+    public Mono<ResponseEntity<ResponseBodyEmitter>> exportItemsByUser(long userId, Duration timeout) {
+        return getStream("/export", userId, Map.of(), timeout);
+    }
+
+    public Mono<ResponseEntity<Object>> createItem(long userId, ItemDto itemDto) {
         return post("", userId, itemDto);
     }
 
-    public ResponseEntity<Object> updateItem(long userId, long itemId, ItemDto itemDto) {
+    public Mono<ResponseEntity<Object>> importItems(long userId, Flux<ItemDto> items) {
+        return postStream("/import", userId, items, ItemDto.class);
+    }
+
+    public Mono<ResponseEntity<Object>> updateItem(long userId, long itemId, ItemDto itemDto) {
         return patch("/" + itemId, userId, itemDto);
     }
 
-    public ResponseEntity<Object> searchItems(String text, long userId, int from, int size) {
+    public Mono<ResponseEntity<Object>> searchItems(String text, long userId, int from, int size, String cursor) {
         if (text.isBlank()) {
-            return ResponseEntity.status(200).body(Collections.emptyList());
+            return Mono.just(ResponseEntity.status(200).body(Collections.emptyList()));
         }
         Map<String, Object> parameters = Map.of(
                 "text", text,
                 "from", from,
                 "size", size
         );
-        return get("/search?text={text}&from={from}&size={size}", userId, parameters);
+        return getPage("/search?text={text}&from={from}&size={size}", userId, parameters, cursor);
     }
 
-    public ResponseEntity<Object> createComment(long userId, long itemId, CommentDto commentDto) {
+    public Mono<ResponseEntity<Object>> createComment(long userId, long itemId, CommentDto commentDto) {
         return post("/" + itemId + "/comment", userId, commentDto);
     }
 }
@@ -1,8 +1,15 @@
 package ru.practicum.shareit.item;
 
+import java.io.IOException;
+import java.time.Duration;
+
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
@@ -14,9 +21,13 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.validation.Create;
@@ -28,52 +39,86 @@ import ru.practicum.shareit.validation.Create;
 @RequestMapping("/items")
 public class ItemController {
     private final ItemClient itemClient;
+    private final ItemImportReader itemImportReader;
+    @Value("${shareit-gateway.import-timeout}")
+    private Duration importTimeout;
+    @Value("${shareit-gateway.export-timeout}")
+    private Duration exportTimeout;
 
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getItem(@RequestHeader(name = "X-Sharer-User-Id") long ownerId,
+    public Mono<ResponseEntity<Object>> getItem(@RequestHeader(name = "X-Sharer-User-Id") long ownerId,
             @PathVariable long id) {
-        log.info("getItem request ownerId = {}, id = {}", ownerId, id);
+        log.debug("getItem request ownerId = {}, id = {}", ownerId, id);
         return itemClient.getItem(id, ownerId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getItemsByUser(@RequestHeader("X-Sharer-User-Id") long userId,
+    public Mono<ResponseEntity<Object>> getItemsByUser(@RequestHeader("X-Sharer-User-Id") long userId,
             @RequestParam(defaultValue = "0") @PositiveOrZero int from,
-            @RequestParam(defaultValue = "10") @Positive int size) {
-        log.info("getItemsByUser request userId = {}, from = {}, size = {}", userId, from, size);
-        return itemClient.getItemsByUser(userId, from, size);
+            @RequestParam(defaultValue = "10") @Positive int size,
+            @RequestParam(required = false) String cursor) {
+        log.debug("getItemsByUser request userId = {}, from = {}, size = {}, cursor = {}", userId, from, size, cursor);
+        return itemClient.getItemsByUser(userId, from, size, cursor);
+    }
+
+    /**
+     * Relays the server's NDJSON export of all the user's items as it arrives, bypassing the ETag filter's buffer.
+     */
+    @GetMapping(path = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Mono<ResponseEntity<ResponseBodyEmitter>> exportItemsByUser(@RequestHeader("X-Sharer-User-Id") long userId,
+            HttpServletRequest request) {
+        log.debug("exportItemsByUser request userId = {}", userId);
+        ShallowEtagHeaderFilter.disableContentCaching(request);
+        return itemClient.exportItemsByUser(userId, exportTimeout);
     }
 
     @PostMapping
-    public ResponseEntity<Object> createItem(@RequestHeader("X-Sharer-User-Id") long userId,
+    public Mono<ResponseEntity<Object>> createItem(@RequestHeader("X-Sharer-User-Id") long userId,
             @Validated(Create.class) @RequestBody ItemDto itemDto) {
-        log.info("createItem request userId = {}, itemDto = {}", userId, itemDto);
+        log.debug("createItem request userId = {}, itemDto = {}", userId, itemDto);
         return itemClient.createItem(userId, itemDto);
     }
 
+    /**
+     * Imports items from an NDJSON or CSV body, streaming each validated record to the server as it is read. The
+     * upload may outlast the default async timeout, so it gets its own.
+     */
+    @PostMapping(path = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, ItemImportReader.TEXT_CSV_VALUE})
+    public DeferredResult<ResponseEntity<Object>> importItems(@RequestHeader("X-Sharer-User-Id") long userId,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            HttpServletRequest request) throws IOException {
+        log.debug("importItems request userId = {}, contentType = {}", userId, contentType);
+        DeferredResult<ResponseEntity<Object>> result = new DeferredResult<>(importTimeout.toMillis());
+        itemClient.importItems(userId, itemImportReader.read(request.getInputStream(), contentType))
+                .subscribe(result::setResult, result::setErrorResult);
+        return result;
+    }
+
     @PatchMapping("/{id}")
-    public ResponseEntity<Object> updateItem(@RequestHeader("X-Sharer-User-Id") long userId,
+    public Mono<ResponseEntity<Object>> updateItem(@RequestHeader("X-Sharer-User-Id") long userId,
             @RequestBody ItemDto itemDto,
             @PathVariable long id) {
-        log.info("updateItem request id = {}, userId = {}, itemDto = {}", id, userId, itemDto);
+        log.debug("updateItem request id = {}, userId = {}, itemDto = {}", id, userId, itemDto);
         return itemClient.updateItem(userId, id, itemDto);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItems(@RequestHeader(name = "X-Sharer-User-Id") long ownerId,
+    public Mono<ResponseEntity<Object>> searchItems(@RequestHeader(name = "X-Sharer-User-Id") long ownerId,
             @RequestParam String text,
             @RequestParam(defaultValue = "0") @PositiveOrZero int from,
-            @RequestParam(defaultValue = "10") @Positive int size) {
-        log.info("searchItems request ownerId = {}, text = {}, from = {}, size = {}", ownerId, text, from, size);
-        return itemClient.searchItems(text, ownerId, from, size);
+            @RequestParam(defaultValue = "10") @Positive int size,
+            @RequestParam(required = false) String cursor) {
+        log.debug("searchItems request ownerId = {}, text = {}, from = {}, size = {}, cursor = {}", ownerId, text, from,
+                size, cursor);
+        return itemClient.searchItems(text, ownerId, from, size, cursor);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> createComment(
+    public Mono<ResponseEntity<Object>> createComment(
             @PathVariable long itemId,
             @RequestBody @Validated(Create.class) CommentDto commentDto,
             @RequestHeader(name = "X-Sharer-User-Id") long authorId) {
-        log.info("searchItems request itemId = {}, commentDto = {}, authorId = {}", itemId, commentDto, authorId);
+        log.debug("searchItems request itemId = {}, commentDto = {}, authorId = {}", itemId, commentDto, authorId);
         return itemClient.createComment(authorId, itemId, commentDto);
     }
 }
@@ -0,0 +1,209 @@
+package ru.practicum.shareit.item;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.SynchronousSink;
+import reactor.core.scheduler.Schedulers;
+import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.validation.Create;
+
+/**
+ * Reads an item import line by line as NDJSON or as CSV with a header row naming the {@link ItemDto} fields, and
+ * validates every record with the {@link Create} group. Records are produced on demand, so only the current line is
+ * held in memory whatever the size of the upload; the first bad line ends the stream with its line number.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemImportReader {
+    public static final String TEXT_CSV_VALUE = "text/csv";
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    public Flux<ItemDto> read(InputStream body, MediaType contentType) {
+        boolean csv = MediaType.parseMediaType(TEXT_CSV_VALUE).includes(contentType);
+        ObjectReader json = objectMapper.readerFor(ItemDto.class);
+        return Flux.using(
+                        () -> new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8)),
+                        reader -> Flux.generate(() -> new Cursor(reader),
+                                (Cursor cursor, SynchronousSink<ItemDto> sink) -> {
+                                    ItemDto item = csv ? cursor.nextCsv() : cursor.nextJson(json);
+                                    if (item == null) {
+                                        sink.complete();
+                                    } else {
+                                        sink.next(validate(item, cursor.lineNumber));
+                                    }
+                                    return cursor;
+                                }),
+                        this::close)
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private ItemDto validate(ItemDto item, int lineNumber) {
+        Set<ConstraintViolation<ItemDto>> violations = validator.validate(item, Create.class);
+        if (!violations.isEmpty()) {
+            throw new BadRequestException("Line " + lineNumber + ": " + violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+        }
+        return item;
+    }
+
+    private void close(BufferedReader reader) {
+        try {
+            reader.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static final class Cursor {
+        private final BufferedReader reader;
+        private int lineNumber;
+        private List<String> header;
+
+        private Cursor(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        ItemDto nextJson(ObjectReader json) {
+            String line = nextLine();
+            if (line == null) {
+                return null;
+            }
+            try {
+                return json.readValue(line);
+            } catch (JsonProcessingException e) {
+                throw new BadRequestException("Line " + lineNumber + ": " + e.getOriginalMessage());
+            }
+        }
+
+        ItemDto nextCsv() {
+            if (header == null) {
+                String line = nextLine();
+                if (line == null) {
+                    return null;
+                }
+                header = splitCsv(line);
+            }
+            String line = nextLine();
+            if (line == null) {
+                return null;
+            }
+            List<String> values = splitCsv(line);
+            if (values.size() != header.size()) {
+                throw new BadRequestException("Line " + lineNumber + ": expected " + header.size() + " columns");
+            }
+            ItemDto item = new ItemDto();
+            for (int i = 0; i < header.size(); i++) {
+                set(item, header.get(i), values.get(i));
+            }
+            return item;
+        }
+
+        private void set(ItemDto item, String column, String value) {
+            String trimmed = value.isBlank() ? null : value.trim();
+            switch (column.trim()) {
+                case "name":
+                    item.setName(trimmed);
+                    break;
+                case "description":
+                    item.setDescription(trimmed);
+                    break;
+                case "available":
+                    item.setAvailable(trimmed == null ? null : parseBoolean(column, trimmed));
+                    break;
+                case "requestId":
+                    try {
+                        item.setRequestId(trimmed == null ? null : Long.valueOf(trimmed));
+                    } catch (NumberFormatException e) {
+                        throw new BadRequestException("Line " + lineNumber + ": requestId is not a number");
+                    }
+                    break;
+                default:
+                    throw new BadRequestException("Line " + lineNumber + ": unknown column " + column.trim());
+            }
+        }
+
+        private Boolean parseBoolean(String column, String value) {
+            if (value.equalsIgnoreCase("true")) {
+                return true;
+            }
+            if (value.equalsIgnoreCase("false")) {
+                return false;
+            }
+            throw new BadRequestException("Line " + lineNumber + ": " + column.trim() + " is not true or false");
+        }
+
+        private String nextLine() {
+            try {
+                String line;
+                do {
+                    line = reader.readLine();
+                    lineNumber++;
+                } while (line != null && line.isBlank());
+                return line;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Splits one CSV record; fields may be quoted, with a doubled quote standing for a quote character. A record
+         * is one line, so a quote left open at the end of it is an error.
+         */
+        private List<String> splitCsv(String line) {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        field.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            if (quoted) {
+                throw new BadRequestException("Line " + lineNumber + ": unterminated quote");
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+}
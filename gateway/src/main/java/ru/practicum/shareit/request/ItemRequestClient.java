@@ -4,13 +4,13 @@ import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
 
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.request.dto.ItemRequestDtoReq;
 
 @Service
@@ -18,32 +18,28 @@ public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, WebClient serverWebClient,
+            ResponseCache responseCache) {
+        super(serverWebClient, serverUrl + API_PREFIX, responseCache);
     }
 
-    public ResponseEntity<Object> create(long userId, ItemRequestDtoReq itemRequestDtoReq) {
+    public Mono<ResponseEntity<Object>> create(long userId, ItemRequestDtoReq itemRequestDtoReq) {
         return post("", userId, itemRequestDtoReq);
     }
 
-    public ResponseEntity<Object> getInfo(long userId) {
+    public Mono<ResponseEntity<Object>> getInfo(long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getInfo(long userId, long requestId) {
+    public Mono<ResponseEntity<Object>> getInfo(long userId, long requestId) {
         return get("/" + requestId, userId);
     }
 
-    public ResponseEntity<Object> getRequestsList(long userId, int from, int size) {
+    public Mono<ResponseEntity<Object>> getRequestsList(long userId, int from, int size, String cursor) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
         );
-        return get("/all?from={from}&size={size}", userId, parameters);
+        return getPage("/all?from={from}&size={size}", userId, parameters, cursor);
     }
 }
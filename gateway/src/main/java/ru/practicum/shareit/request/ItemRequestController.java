@@ -16,6 +16,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.request.dto.ItemRequestDtoReq;
 import ru.practicum.shareit.validation.Create;
 
@@ -28,34 +29,35 @@ public class ItemRequestController {
     private final ItemRequestClient itemRequestClient;
 
     @PostMapping
-    public ResponseEntity<Object> create(
+    public Mono<ResponseEntity<Object>> create(
             @RequestHeader("X-Sharer-User-Id") long userId,
             @Validated(Create.class) @RequestBody ItemRequestDtoReq itemRequestDtoReq) {
-        log.info("create request userId = {}, itemRequestDtoReq = {}", userId, itemRequestDtoReq);
+        log.debug("create request userId = {}, itemRequestDtoReq = {}", userId, itemRequestDtoReq);
         return itemRequestClient.create(userId, itemRequestDtoReq);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getRequestsInfo(
+    public Mono<ResponseEntity<Object>> getRequestsInfo(
             @RequestHeader("X-Sharer-User-Id") long userId) {
-        log.info("getRequestsInfo request userId = {}", userId);
+        log.debug("getRequestsInfo request userId = {}", userId);
         return itemRequestClient.getInfo(userId);
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getRequestInfo(
+    public Mono<ResponseEntity<Object>> getRequestInfo(
             @RequestHeader("X-Sharer-User-Id") long userId,
             @PathVariable long requestId) {
-        log.info("getRequestInfo request userId = {}, requestId = {}", userId, requestId);
+        log.debug("getRequestInfo request userId = {}, requestId = {}", userId, requestId);
         return itemRequestClient.getInfo(userId, requestId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getRequestsList(
+    public Mono<ResponseEntity<Object>> getRequestsList(
             @RequestHeader("X-Sharer-User-Id") long userId,
             @PositiveOrZero @RequestParam(defaultValue = "0") int from,
-            @Positive @RequestParam(defaultValue = "10") int size) {
-        log.info("getRequestsList request userId = {}, from = {}, size = {}", userId, from, size);
-        return itemRequestClient.getRequestsList(userId, from, size);
+            @Positive @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor) {
+        log.debug("getRequestsList request userId = {}, from = {}, size = {}, cursor = {}", userId, from, size, cursor);
+        return itemRequestClient.getRequestsList(userId, from, size, cursor);
     }
 }
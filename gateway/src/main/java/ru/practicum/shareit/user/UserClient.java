@@ -2,12 +2,12 @@ package ru.practicum.shareit.user;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.user.dto.UserDto;
 
 @Service
@@ -15,32 +15,28 @@ public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public UserClient(@Value("${shareit-server.url}") String serverUrl, WebClient serverWebClient,
+            ResponseCache responseCache) {
+        super(serverWebClient, serverUrl + API_PREFIX, responseCache);
     }
 
-    public ResponseEntity<Object> getAllUsers() {
+    public Mono<ResponseEntity<Object>> getAllUsers() {
         return get("");
     }
 
-    public ResponseEntity<Object> getUser(long id) {
+    public Mono<ResponseEntity<Object>> getUser(long id) {
         return get("/" + id);
     }
 
-    public ResponseEntity<Object> createUser(UserDto userDto) {
+    public Mono<ResponseEntity<Object>> createUser(UserDto userDto) {
         return post("", userDto);
     }
 
-    public ResponseEntity<Object> updateUser(long id, UserDto userDto) {
+    public Mono<ResponseEntity<Object>> updateUser(long id, UserDto userDto) {
         return patch("/" + id, userDto);
     }
 
-    public ResponseEntity<Object> deleteUser(long id) {
+    public Mono<ResponseEntity<Object>> deleteUser(long id) {
         return delete("/" + id);
     }
 }
@@ -13,6 +13,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.validation.Create;
 import ru.practicum.shareit.validation.Update;
@@ -25,33 +26,33 @@ public class UserController {
     private final UserClient userClient;
 
     @GetMapping
-    public ResponseEntity<Object> getAllUsers() {
-        log.info("getAllUsers request");
+    public Mono<ResponseEntity<Object>> getAllUsers() {
+        log.debug("getAllUsers request");
         return userClient.getAllUsers();
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getUser(@PathVariable long id) {
-        log.info("getUser request id = {}", id);
+    public Mono<ResponseEntity<Object>> getUser(@PathVariable long id) {
+        log.debug("getUser request id = {}", id);
         return userClient.getUser(id);
     }
 
     @PostMapping
-    public ResponseEntity<Object> createUser(@Validated(Create.class) @RequestBody UserDto userDto) {
-        log.info("createUser request userDto = {}", userDto);
+    public Mono<ResponseEntity<Object>> createUser(@Validated(Create.class) @RequestBody UserDto userDto) {
+        log.debug("createUser request userDto = {}", userDto);
         return userClient.createUser(userDto);
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<Object> updateUser(@PathVariable long id,
+    public Mono<ResponseEntity<Object>> updateUser(@PathVariable long id,
             @Validated(Update.class) @RequestBody UserDto userDto) {
-        log.info("updateUser request userDto = {}", userDto);
+        log.debug("updateUser request userDto = {}", userDto);
         return userClient.updateUser(id, userDto);
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Object> deleteUser(@PathVariable long id) {
-        log.info("deleteUser request id = {}", id);
+    public Mono<ResponseEntity<Object>> deleteUser(@PathVariable long id) {
+        log.debug("deleteUser request id = {}", id);
         return userClient.deleteUser(id);
     }
 }
\ No newline at end of file
@@ -0,0 +1,66 @@
+package ru.practicum.shareit.booking;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ResponseCache;
+
+class BookingClientTest {
+    AtomicInteger opened = new AtomicInteger();
+    // an open event stream that never sends anything
+    WebClient web = WebClient.builder()
+            .exchangeFunction(request -> {
+                opened.incrementAndGet();
+                return Mono.just(ClientResponse.create(HttpStatus.OK)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.TEXT_EVENT_STREAM_VALUE)
+                        .body(Flux.never())
+                        .build());
+            })
+            .build();
+    BookingClient bookingClient = new BookingClient("http://localhost:9090", web,
+            new ResponseCache("maximumSize=10"));
+
+    @Test
+    void eventStream_whenLastSubscriberLeaves_thenServerStreamClosedAndRemoved() {
+        Disposable first = bookingClient.eventStream(1L).subscribe();
+        Disposable second = bookingClient.eventStream(1L).subscribe();
+
+        assertEquals(1, opened.get());
+        assertEquals(1, bookingClient.eventStreamCount());
+
+        first.dispose();
+        assertEquals(1, bookingClient.eventStreamCount());
+
+        second.dispose();
+        assertEquals(0, bookingClient.eventStreamCount());
+
+        Disposable reconnected = bookingClient.eventStream(1L).subscribe();
+        assertEquals(2, opened.get());
+        assertEquals(1, bookingClient.eventStreamCount());
+        reconnected.dispose();
+    }
+
+    @Test
+    void eventStream_whenOtherUser_thenOwnServerStream() {
+        Disposable owner = bookingClient.eventStream(1L).subscribe();
+        Disposable booker = bookingClient.eventStream(2L).subscribe();
+
+        assertEquals(2, opened.get());
+        assertEquals(2, bookingClient.eventStreamCount());
+
+        owner.dispose();
+        booker.dispose();
+        assertEquals(0, bookingClient.eventStreamCount());
+    }
+}
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.client;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+class BaseClientTest {
+    private static final int EVENTS = 1000;
+
+    @Test
+    void relayEvents_whenClientFallsBehind_thenDisconnected() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        StalledEmitter emitter = new StalledEmitter(release);
+        // a server stream pays no attention to demand
+        Flux<ServerSentEvent<String>> events = Flux.create(sink -> {
+            for (int i = 0; i < EVENTS; i++) {
+                sink.next(ServerSentEvent.builder("{}").event("booking").build());
+            }
+            sink.complete();
+        }, FluxSink.OverflowStrategy.IGNORE);
+
+        BaseClient.relayEvents(events, emitter);
+        release.countDown();
+
+        assertTrue(emitter.completed.await(5, TimeUnit.SECONDS));
+        assertTrue(emitter.sent.get() < EVENTS);
+        assertNull(emitter.failure);
+    }
+
+    private static class StalledEmitter extends SseEmitter {
+        final CountDownLatch release;
+        final CountDownLatch completed = new CountDownLatch(1);
+        final AtomicInteger sent = new AtomicInteger();
+        volatile Throwable failure;
+
+        StalledEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            sent.incrementAndGet();
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed.countDown();
+        }
+
+        @Override
+        public synchronized void completeWithError(Throwable ex) {
+            failure = ex;
+            completed.countDown();
+        }
+    }
+}
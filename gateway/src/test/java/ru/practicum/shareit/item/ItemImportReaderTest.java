@@ -0,0 +1,96 @@
+package ru.practicum.shareit.item;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import javax.validation.Validation;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+class ItemImportReaderTest {
+    ItemImportReader reader = new ItemImportReader(new ObjectMapper(),
+            Validation.buildDefaultValidatorFactory().getValidator());
+
+    @Test
+    void read_whenCsv_thenItemsParsed() {
+        List<ItemDto> items = readCsv("name,description,available,requestId\n"
+                + "drill,\"cordless, 18V\",TRUE,7\n"
+                + "\n"
+                + "\"saw \"\"hand\"\"\",sharp,false,\n");
+
+        assertEquals(List.of(
+                ItemDto.builder().name("drill").description("cordless, 18V").available(true).requestId(7L).build(),
+                ItemDto.builder().name("saw \"hand\"").description("sharp").available(false).build()), items);
+    }
+
+    @Test
+    void read_whenJson_thenItemsParsed() {
+        String ndjson = "{\"name\":\"drill\",\"description\":\"cordless\",\"available\":true}\n";
+
+        List<ItemDto> items = reader.read(body(ndjson), MediaType.parseMediaType("application/x-ndjson"))
+                .collectList()
+                .block();
+
+        assertEquals(List.of(ItemDto.builder().name("drill").description("cordless").available(true).build()), items);
+    }
+
+    @Test
+    void read_whenAvailableNotBoolean_thenBadRequestWithLine() {
+        assertError("Line 3: available is not true or false", "name,description,available\n"
+                + "drill,cordless,true\n"
+                + "saw,sharp,yes\n");
+    }
+
+    @Test
+    void read_whenUnknownColumn_thenBadRequestWithLine() {
+        assertError("Line 2: unknown column price", "name,description,available,price\n"
+                + "drill,cordless,true,10\n");
+    }
+
+    @Test
+    void read_whenQuoteNotClosed_thenBadRequestWithLine() {
+        assertError("Line 2: unterminated quote", "name,description,available\n"
+                + "drill,\"cordless,true\n");
+    }
+
+    @Test
+    void read_whenColumnsMissing_thenBadRequestWithLine() {
+        assertError("Line 2: expected 3 columns", "name,description,available\n"
+                + "drill,cordless\n");
+    }
+
+    @Test
+    void read_whenRequestIdNotNumber_thenBadRequestWithLine() {
+        assertError("Line 2: requestId is not a number", "name,description,available,requestId\n"
+                + "drill,cordless,true,seven\n");
+    }
+
+    @Test
+    void read_whenInvalid_thenBadRequestWithLine() {
+        assertError("Line 2: Item name can't be blank", "name,description,available\n"
+                + ",cordless,true\n");
+    }
+
+    private List<ItemDto> readCsv(String csv) {
+        return reader.read(body(csv), MediaType.parseMediaType(ItemImportReader.TEXT_CSV_VALUE)).collectList().block();
+    }
+
+    private void assertError(String message, String csv) {
+        BadRequestException e = assertThrows(BadRequestException.class, () -> readCsv(csv));
+        assertEquals(message, e.getMessage());
+    }
+
+    private static ByteArrayInputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
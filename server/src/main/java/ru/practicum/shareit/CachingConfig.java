@@ -0,0 +1,15 @@
+package ru.practicum.shareit;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * The caching advisor wraps the transactional one, so evictions run after the writing transaction commits.
+ */
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CachingConfig {
+    public static final String USERS = "users";
+    public static final String ITEMS = "items";
+}
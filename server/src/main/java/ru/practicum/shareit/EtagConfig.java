@@ -0,0 +1,19 @@
+package ru.practicum.shareit;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+/**
+ * Strong ETags on successful GETs, hashed from the rendered body, and 304 for a matching {@code If-None-Match}. This
+ * is the fallback for lists and the other resources: {@code /items/{id}} and {@code /bookings/{id}} opt out and
+ * answer from their versions before anything is loaded.
+ */
+@Configuration
+public class EtagConfig {
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> etagFilter() {
+        return new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Background jobs are switched off where they would race with tests; those call the jobs directly.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "shareit.scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {
+}
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.booking;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import ru.practicum.shareit.booking.exception.ItemLockTimeoutException;
+
+/**
+ * Locks items with PostgreSQL transaction-level advisory locks keyed by item id, for deployments where several
+ * servers write bookings. The database releases the locks when the transaction ends; the wait is bounded by a
+ * {@code lock_timeout} set for the acquisition only. Items are locked in id order, so transactions locking several
+ * items cannot deadlock. A lock only helps if the check made under it sees the other servers' writes, so with these
+ * locks {@link BookingAvailabilityIndex} stays off and bookings are checked against the database.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.item-locks.type", havingValue = "advisory")
+public class AdvisoryItemLockManager implements ItemLockManager {
+    private final JdbcTemplate jdbcTemplate;
+    private final long waitMillis;
+    private final Timer acquiredWaits;
+    private final Timer timedOutWaits;
+
+    public AdvisoryItemLockManager(JdbcTemplate jdbcTemplate,
+                                   @Value("${shareit.item-locks.wait}") Duration wait,
+                                   MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        waitMillis = Math.max(1, wait.toMillis());
+        acquiredWaits = waitTimer(meterRegistry, "acquired");
+        timedOutWaits = waitTimer(meterRegistry, "timeout");
+    }
+
+    @Override
+    public void lock(Collection<Long> itemIds) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Item locks are held until the transaction completes and need one");
+        }
+        long started = System.nanoTime();
+        jdbcTemplate.execute("set local lock_timeout = " + waitMillis);
+        try {
+            for (long itemId : new TreeSet<>(itemIds)) {
+                jdbcTemplate.query("select pg_advisory_xact_lock(?)", (RowCallbackHandler) rs -> {
+                }, itemId);
+            }
+        } catch (PessimisticLockingFailureException e) {
+            timedOutWaits.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            throw new ItemLockTimeoutException("Item is busy, try again later");
+        }
+        jdbcTemplate.execute("set local lock_timeout to default");
+        acquiredWaits.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+    }
+
+    private static Timer waitTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder(StripedItemLockManager.WAIT_METRIC)
+                .description("Time spent acquiring item locks")
+                .tag("type", "advisory")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
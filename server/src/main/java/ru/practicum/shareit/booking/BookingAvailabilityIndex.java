@@ -0,0 +1,278 @@
+package ru.practicum.shareit.booking;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory index of WAITING and APPROVED booking intervals per item.
+ * Covers every blocking booking that ends after {@code coveredFrom}; requests starting earlier, or arriving
+ * before the index is warmed, are answered by the database. Intervals that have ended are evicted periodically,
+ * moving {@code coveredFrom} up with them.
+ * <p>
+ * The index only sees bookings written through this JVM, so it is correct only while a single server writes
+ * bookings, which is what the striped item locks assume too. With any other lock type it stays off and every check
+ * goes to the database.
+ */
+@Slf4j
+@Component
+public class BookingAvailabilityIndex {
+    static final List<BookingStatus> BLOCKING_STATUSES = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    private final BookingRepository bookingRepository;
+    private final boolean enabled;
+    private final Map<Long, ItemIntervals> intervals = new ConcurrentHashMap<>();
+    private volatile LocalDateTime coveredFrom;
+
+    public BookingAvailabilityIndex(BookingRepository bookingRepository,
+                                    @Value("${shareit.item-locks.type:striped}") String itemLockType) {
+        this.bookingRepository = bookingRepository;
+        // bookings written by other servers never reach this index, so with several servers it stays cold and every
+        // check goes to the database, under the item's advisory lock
+        this.enabled = "striped".equals(itemLockType);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) {
+            log.info("Booking availability index disabled, availability is checked in the database");
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<BookingInterval> loaded = bookingRepository.findIntervals(BLOCKING_STATUSES, now);
+        for (BookingInterval interval : loaded) {
+            insert(interval.getItemId(), interval.getId(), interval.getStart(), interval.getEnd());
+        }
+        coveredFrom = now;
+        log.info("Booking availability index warmed with {} intervals for {} items", loaded.size(), intervals.size());
+    }
+
+    boolean isWarm() {
+        return coveredFrom != null;
+    }
+
+    /**
+     * Whether no blocking booking of the item overlaps the dates, as far as bookings written through this JVM go.
+     * Callers hold the item's lock, so no booking of the item is written between the check and their own write.
+     */
+    public boolean isAvailable(long itemId, LocalDateTime start, LocalDateTime end) {
+        LocalDateTime from = coveredFrom;
+        if (from == null || start.isBefore(from)) {
+            return !bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(itemId, BLOCKING_STATUSES,
+                    end, start);
+        }
+        ItemIntervals itemIntervals = intervals.get(itemId);
+        return itemIntervals == null || !itemIntervals.overlaps(toMicros(start), toMicros(end));
+    }
+
+    public void add(Booking booking) {
+        if (!enabled) {
+            return;
+        }
+        long itemId = booking.getItem().getId();
+        long bookingId = booking.getId();
+        insert(itemId, bookingId, booking.getStart(), booking.getEnd());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        delete(itemId, bookingId);
+                    }
+                }
+            });
+        }
+    }
+
+    public void remove(Booking booking) {
+        if (!enabled) {
+            return;
+        }
+        long itemId = booking.getItem().getId();
+        long bookingId = booking.getId();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    delete(itemId, bookingId);
+                }
+            });
+        } else {
+            delete(itemId, bookingId);
+        }
+    }
+
+    /**
+     * Drops the intervals that have ended. Bookings start in the future, so no request can overlap them; coverage
+     * moves up first, so a request starting earlier goes to the database rather than to a pruned list. Runs on its
+     * own schedule, so the index stays bounded whatever else is switched off.
+     */
+    @Scheduled(fixedDelayString = "${shareit.booking-availability.eviction-interval}")
+    public void evictEnded() {
+        evictEnded(LocalDateTime.now());
+    }
+
+    void evictEnded(LocalDateTime cutoff) {
+        LocalDateTime from = coveredFrom;
+        if (from == null || !cutoff.isAfter(from)) {
+            return;
+        }
+        coveredFrom = cutoff;
+        long cutoffMicros = toMicros(cutoff);
+        for (Long itemId : intervals.keySet()) {
+            intervals.computeIfPresent(itemId, (id, current) -> {
+                ItemIntervals remaining = current.withoutEndedBy(cutoffMicros);
+                return remaining.size() == 0 ? null : remaining;
+            });
+        }
+    }
+
+    int itemCount() {
+        return intervals.size();
+    }
+
+    private void insert(long itemId, long bookingId, LocalDateTime start, LocalDateTime end) {
+        intervals.compute(itemId, (id, current) -> (current == null ? ItemIntervals.EMPTY : current)
+                .with(bookingId, toMicros(start), toMicros(end)));
+    }
+
+    private void delete(long itemId, long bookingId) {
+        intervals.computeIfPresent(itemId, (id, current) -> {
+            ItemIntervals remaining = current.without(bookingId);
+            return remaining.size() == 0 ? null : remaining;
+        });
+    }
+
+    private static long toMicros(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + dateTime.getNano() / 1_000;
+    }
+
+    /**
+     * Immutable intervals of one item sorted by start, with a running maximum of ends so that an overlap
+     * query is a single binary search.
+     */
+    static final class ItemIntervals {
+        static final ItemIntervals EMPTY = new ItemIntervals(new long[0], new long[0], new long[0], new long[0]);
+
+        private final long[] ids;
+        private final long[] starts;
+        private final long[] ends;
+        private final long[] maxEnds;
+
+        private ItemIntervals(long[] ids, long[] starts, long[] ends, long[] maxEnds) {
+            this.ids = ids;
+            this.starts = starts;
+            this.ends = ends;
+            this.maxEnds = maxEnds;
+        }
+
+        int size() {
+            return ids.length;
+        }
+
+        boolean overlaps(long start, long end) {
+            int last = firstStartNotBefore(end) - 1;
+            return last >= 0 && maxEnds[last] > start;
+        }
+
+        ItemIntervals with(long id, long start, long end) {
+            ItemIntervals base = without(id);
+            int n = base.size();
+            int pos = base.firstStartNotBefore(start);
+            long[] newIds = new long[n + 1];
+            long[] newStarts = new long[n + 1];
+            long[] newEnds = new long[n + 1];
+            copyWithGap(base.ids, newIds, pos, id);
+            copyWithGap(base.starts, newStarts, pos, start);
+            copyWithGap(base.ends, newEnds, pos, end);
+            return new ItemIntervals(newIds, newStarts, newEnds, runningMax(newEnds));
+        }
+
+        ItemIntervals without(long id) {
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] == id) {
+                    long[] newEnds = removeAt(ends, i);
+                    return new ItemIntervals(removeAt(ids, i), removeAt(starts, i), newEnds, runningMax(newEnds));
+                }
+            }
+            return this;
+        }
+
+        ItemIntervals withoutEndedBy(long cutoff) {
+            int n = ids.length;
+            if (n == 0 || maxEnds[n - 1] <= cutoff) {
+                return EMPTY;
+            }
+            int kept = 0;
+            for (long end : ends) {
+                if (end > cutoff) {
+                    kept++;
+                }
+            }
+            if (kept == n) {
+                return this;
+            }
+            long[] newIds = new long[kept];
+            long[] newStarts = new long[kept];
+            long[] newEnds = new long[kept];
+            for (int i = 0, j = 0; i < n; i++) {
+                if (ends[i] > cutoff) {
+                    newIds[j] = ids[i];
+                    newStarts[j] = starts[i];
+                    newEnds[j] = ends[i];
+                    j++;
+                }
+            }
+            return new ItemIntervals(newIds, newStarts, newEnds, runningMax(newEnds));
+        }
+
+        private int firstStartNotBefore(long value) {
+            int low = 0;
+            int high = starts.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (starts[mid] < value) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private static void copyWithGap(long[] source, long[] target, int pos, long value) {
+            System.arraycopy(source, 0, target, 0, pos);
+            target[pos] = value;
+            System.arraycopy(source, pos, target, pos + 1, source.length - pos);
+        }
+
+        private static long[] removeAt(long[] source, int index) {
+            long[] result = Arrays.copyOf(source, source.length - 1);
+            System.arraycopy(source, index + 1, result, index, source.length - index - 1);
+            return result;
+        }
+
+        private static long[] runningMax(long[] values) {
+            long[] result = new long[values.length];
+            long max = Long.MIN_VALUE;
+            for (int i = 0; i < values.length; i++) {
+                max = Math.max(max, values[i]);
+                result[i] = max;
+            }
+            return result;
+        }
+    }
+}
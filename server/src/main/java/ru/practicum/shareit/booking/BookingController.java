@@ -1,7 +1,13 @@
 package ru.practicum.shareit.booking;
 
+import java.time.Duration;
 import java.util.List;
 
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -11,16 +17,29 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
 import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.pagination.NdjsonExport;
+import ru.practicum.shareit.pagination.PageCursor;
 
 @RestController
 @RequestMapping(path = "/bookings")
 @RequiredArgsConstructor
 public class BookingController {
     private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
+    private final BookingEventBus bookingEventBus;
+    @Value("${shareit.booking-events.timeout}")
+    private Duration eventsTimeout;
 
     @PostMapping
     public BookingDtoResponse createBooking(
@@ -29,6 +48,21 @@ public class BookingController {
         return bookingService.createBooking(userId, bookingDtoRequest);
     }
 
+    @PostMapping("/batch")
+    public List<BookingBatchResult> createBookings(
+            @RequestHeader(name = "X-Sharer-User-Id") long userId,
+            @RequestBody List<BookingDtoRequest> bookingDtoRequests) {
+        return bookingService.createBookings(userId, bookingDtoRequests);
+    }
+
+    @PatchMapping("/batch")
+    public List<BookingBatchResult> updateBookings(
+            @RequestParam boolean approved,
+            @RequestHeader(name = "X-Sharer-User-Id") long ownerId,
+            @RequestBody List<Long> bookingIds) {
+        return bookingService.updateBookings(bookingIds, ownerId, approved);
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingDtoResponse updateBooking(
             @PathVariable long bookingId,
@@ -37,28 +71,60 @@ public class BookingController {
         return bookingService.updateBooking(bookingId, ownerId, approved);
     }
 
+    /**
+     * Streams changes of the user's bookings, as booker or as owner, as Server-Sent Events until the timeout.
+     */
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(
+            @RequestHeader(name = "X-Sharer-User-Id") long userId,
+            HttpServletRequest request) {
+        ShallowEtagHeaderFilter.disableContentCaching(request);
+        SseEmitter emitter = new SseEmitter(eventsTimeout.toMillis());
+        bookingEventBus.subscribe(userId, emitter);
+        return emitter;
+    }
+
     @GetMapping("/{bookingId}")
     public BookingDtoResponse getBooking(
             @PathVariable long bookingId,
-            @RequestHeader(name = "X-Sharer-User-Id") long userId) {
+            @RequestHeader(name = "X-Sharer-User-Id") long userId,
+            ServletWebRequest request) {
+        ShallowEtagHeaderFilter.disableContentCaching(request.getRequest());
+        String etag = bookingService.getBookingEtag(bookingId, userId);
+        if (etag != null && request.checkNotModified(etag)) {
+            return null;
+        }
         return bookingService.getBooking(bookingId, userId);
     }
 
     @GetMapping
-    public List<BookingDtoResponse> getBookings(
+    public ResponseEntity<List<BookingDtoResponse>> getBookings(
             @RequestParam(defaultValue = "ALL") String state,
             @RequestHeader(name = "X-Sharer-User-Id") long ownerId,
             @RequestParam(defaultValue = "0") int from,
-            @RequestParam(defaultValue = "10") int size) {
-        return bookingService.getBookings(ownerId, state, from, size);
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor) {
+        return PageCursor.toResponse(bookingService.getBookings(ownerId, state, from, size, cursor), size,
+                booking -> PageCursor.of(booking.getStart(), booking.getId()));
     }
 
     @GetMapping("/owner")
-    public List<BookingDtoResponse> getBookingFromOwner(
+    public ResponseEntity<List<BookingDtoResponse>> getBookingFromOwner(
             @RequestParam(defaultValue = "ALL") String state,
             @RequestHeader(name = "X-Sharer-User-Id") long ownerId,
             @RequestParam(defaultValue = "0") int from,
-            @RequestParam(defaultValue = "10") int size) {
-        return bookingService.getBookingFromOwner(ownerId, state, from, size);
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor) {
+        return PageCursor.toResponse(bookingService.getBookingFromOwner(ownerId, state, from, size, cursor), size,
+                booking -> PageCursor.of(booking.getStart(), booking.getId()));
+    }
+
+    @GetMapping(path = "/owner/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody exportBookingFromOwner(
+            @RequestParam(defaultValue = "ALL") String state,
+            @RequestHeader(name = "X-Sharer-User-Id") long ownerId,
+            HttpServletRequest request) {
+        return NdjsonExport.body(request, objectMapper,
+                sink -> bookingService.exportBookingFromOwner(ownerId, state, sink));
     }
 }
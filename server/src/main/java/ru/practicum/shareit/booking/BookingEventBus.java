@@ -0,0 +1,170 @@
+package ru.practicum.shareit.booking;
+
+import java.io.IOException;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import lombok.extern.slf4j.Slf4j;
+import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+
+/**
+ * Fans booking changes out to Server-Sent Event streams, multiplexed per user: the booker and the item owner get
+ * every change of the booking on each stream they have open. A stream has a bounded buffer drained by a writer of its
+ * own, so a slow client never holds up the publisher or the other streams; a client that lets its buffer fill is
+ * dropped and reconnects. The writers come from a fixed pool with a bounded queue of streams waiting to be drained;
+ * a stream that finds the queue full is dropped too. Changes are published once the writing transaction has
+ * committed.
+ */
+@Slf4j
+@Component
+public class BookingEventBus {
+    static final String EVENT_NAME = "booking";
+    static final int BUFFER_SIZE = 256;
+    private static final Object HEARTBEAT = new Object();
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor writers;
+
+    public BookingEventBus(@Value("${shareit.booking-events.writer-threads}") int writerThreads,
+                           @Value("${shareit.booking-events.writer-queue}") int writerQueue) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("booking-events-");
+        threadFactory.setDaemon(true);
+        writers = new ThreadPoolExecutor(writerThreads, writerThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(writerQueue), threadFactory);
+        writers.allowCoreThreadTimeOut(true);
+    }
+
+    public void subscribe(long userId, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(userId, emitter);
+        subscribers.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+    }
+
+    public void publish(BookingDtoResponse booking, long ownerId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch(booking, ownerId);
+                }
+            });
+        } else {
+            dispatch(booking, ownerId);
+        }
+    }
+
+    /**
+     * Keeps idle streams open through proxies and read timeouts, and finds the ones whose client has gone.
+     */
+    @Scheduled(fixedRateString = "${shareit.booking-events.heartbeat-interval}")
+    public void heartbeat() {
+        subscribers.values().forEach(users -> users.forEach(subscriber -> subscriber.offer(HEARTBEAT)));
+    }
+
+    int subscriberCount(long userId) {
+        Set<Subscriber> users = subscribers.get(userId);
+        return users == null ? 0 : users.size();
+    }
+
+    @PreDestroy
+    void close() {
+        subscribers.values().forEach(users -> users.forEach(subscriber -> subscriber.emitter.complete()));
+        writers.shutdownNow();
+    }
+
+    private void dispatch(BookingDtoResponse booking, long ownerId) {
+        Set<Long> recipients = new LinkedHashSet<>();
+        recipients.add(ownerId);
+        recipients.add(booking.getBooker().getId());
+        for (Long userId : recipients) {
+            subscribers.getOrDefault(userId, Set.of()).forEach(subscriber -> subscriber.offer(booking));
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.userId, (id, users) -> {
+            users.remove(subscriber);
+            return users.isEmpty() ? null : users;
+        });
+    }
+
+    private final class Subscriber {
+        private final long userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Object> buffer = new ArrayBlockingQueue<>(BUFFER_SIZE);
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        void offer(Object event) {
+            if (!buffer.offer(event)) {
+                log.info("Dropping a booking event stream of user {} that is {} events behind", userId, BUFFER_SIZE);
+                unsubscribe(this);
+                // completing waits for a send in progress, which is what made the client slow; with no writer to
+                // spare the stream is left to fail or time out on its own
+                execute(emitter::complete);
+                return;
+            }
+            if (draining.compareAndSet(false, true) && !execute(this::drain)) {
+                log.info("Dropping a booking event stream of user {}, all event writers are busy", userId);
+                unsubscribe(this);
+                buffer.clear();
+                // nothing is being sent, so completing does not wait
+                emitter.complete();
+            }
+        }
+
+        private boolean execute(Runnable task) {
+            try {
+                writers.execute(task);
+                return true;
+            } catch (RejectedExecutionException e) {
+                return false;
+            }
+        }
+
+        private void drain() {
+            do {
+                Object event;
+                while ((event = buffer.poll()) != null) {
+                    try {
+                        emitter.send(event == HEARTBEAT
+                                ? SseEmitter.event().comment("")
+                                : SseEmitter.event().name(EVENT_NAME).data(event, MediaType.APPLICATION_JSON));
+                    } catch (IOException | IllegalStateException e) {
+                        // the client has gone or the stream has been completed
+                        unsubscribe(this);
+                        buffer.clear();
+                        return;
+                    }
+                }
+                draining.set(false);
+            } while (!buffer.isEmpty() && draining.compareAndSet(false, true));
+        }
+    }
+}
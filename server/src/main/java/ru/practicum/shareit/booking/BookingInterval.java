@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class BookingInterval {
+    private long id;
+    private long itemId;
+    private LocalDateTime start;
+    private LocalDateTime end;
+}
@@ -0,0 +1,130 @@
+package ru.practicum.shareit.booking;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.outbox.Outbox;
+import ru.practicum.shareit.outbox.OutboxEvent;
+
+/**
+ * Expires WAITING bookings that were not answered before they started. Their starts are kept in a
+ * {@link TimingWheel} loaded from the database when the application is ready and fed by every new booking; each
+ * tick the due bookings still WAITING are locked and moved to EXPIRED in batched updates, which also frees their
+ * dates and records and publishes the change like any other decision. Bookings decided in the meantime stay in the
+ * wheel until their start and are skipped then; a batch that fails goes back into the wheel and is retried on the
+ * next tick.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingLifecycleScheduler {
+    private static final Duration TICK = Duration.ofSeconds(1);
+    private static final int WHEEL_SIZE = 4096;
+    private static final int EXPIRE_BATCH_SIZE = 500;
+
+    private final BookingRepository bookingRepository;
+    private final BookingAvailabilityIndex availabilityIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final Outbox outbox;
+    private final BookingEventBus eventBus;
+    private final TimingWheel wheel = new TimingWheel(TICK, WHEEL_SIZE, System.currentTimeMillis());
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<BookingInterval> waiting = bookingRepository.findIntervalsByStatus(BookingStatus.WAITING);
+        for (BookingInterval interval : waiting) {
+            wheel.schedule(interval.getId(), toMillis(interval.getStart()));
+        }
+        log.info("Booking lifecycle wheel loaded with {} waiting bookings", waiting.size());
+    }
+
+    /**
+     * Adds the booking to the wheel once the transaction writing it has committed, so a tick never looks for a booking
+     * that is not visible yet or was rolled back.
+     */
+    public void scheduleExpiry(Booking booking) {
+        long bookingId = booking.getId();
+        long deadlineMillis = toMillis(booking.getStart());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    wheel.schedule(bookingId, deadlineMillis);
+                }
+            });
+        } else {
+            wheel.schedule(bookingId, deadlineMillis);
+        }
+    }
+
+    @Scheduled(fixedRateString = "${shareit.booking-lifecycle.tick-interval}")
+    public void tick() {
+        expireDue(System.currentTimeMillis());
+    }
+
+    int expireDue(long nowMillis) {
+        List<Long> due = wheel.advance(nowMillis);
+        int expired = 0;
+        for (int from = 0; from < due.size(); from += EXPIRE_BATCH_SIZE) {
+            List<Long> batch = due.subList(from, Math.min(from + EXPIRE_BATCH_SIZE, due.size()));
+            try {
+                expired += transactionTemplate.execute(status -> expire(batch, LocalDateTime.now()));
+            } catch (RuntimeException e) {
+                // the wheel has already let go of the batch, so it goes back in for the next tick
+                log.warn("Failed to expire {} waiting bookings, retrying on the next tick", batch.size(), e);
+                batch.forEach(bookingId -> wheel.schedule(bookingId, nowMillis));
+            }
+        }
+        if (expired > 0) {
+            log.debug("Expired {} waiting bookings", expired);
+        }
+        return expired;
+    }
+
+    private int expire(List<Long> bookingIds, LocalDateTime now) {
+        List<Booking> waiting = bookingRepository.findForUpdateByIdInAndStatus(bookingIds, BookingStatus.WAITING);
+        if (waiting.isEmpty()) {
+            return 0;
+        }
+        // the events carry the item and the booker of each locked booking
+        bookingRepository.findAllWithItemAndBookerByIdIn(waiting.stream()
+                .map(Booking::getId)
+                .collect(Collectors.toList()));
+        List<OutboxEvent> events = new ArrayList<>();
+        for (Booking booking : waiting) {
+            if (booking.getStart().isAfter(now)) {
+                // local times repeat when clocks go back, so a deadline can come due early
+                scheduleExpiry(booking);
+                continue;
+            }
+            booking.setStatus(BookingStatus.EXPIRED);
+            availabilityIndex.remove(booking);
+            BookingDtoResponse response = BookingMapper.toBookingDtoResponse(booking);
+            events.add(outbox.event(Outbox.BOOKING, response.getId(), response.getStatus().name(), response));
+            eventBus.publish(response, booking.getItem().getOwner().getId());
+        }
+        if (!events.isEmpty()) {
+            outbox.append(events);
+        }
+        return events.size();
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -7,7 +7,9 @@ import ru.practicum.shareit.booking.dto.BookingDtoForItem;
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
 import ru.practicum.shareit.booking.dto.BookingDtoResponse;
 import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemSummary;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserSummary;
 
 public class BookingMapper {
     public static Booking toBooking(BookingDtoRequest bookingDtoRequest, Item item, User user) {
@@ -31,6 +33,17 @@ public class BookingMapper {
                 .build();
     }
 
+    public static BookingDtoResponse toBookingDtoResponse(Booking booking, ItemSummary item, UserSummary booker) {
+        return BookingDtoResponse.builder()
+                .id(booking.getId())
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .status(booking.getStatus())
+                .item(new BookingDtoResponse.Item(item.getId(), item.getName()))
+                .booker(new BookingDtoResponse.Booker(booker.getId(), booker.getName()))
+                .build();
+    }
+
     public static BookingDtoForItem toBookingDtoForItem(Booking booking) {
         return BookingDtoForItem.builder()
                 .id(booking.getId())
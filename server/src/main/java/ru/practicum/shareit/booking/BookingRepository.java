@@ -1,70 +1,93 @@
 package ru.practicum.shareit.booking;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+
+import javax.persistence.LockModeType;
 
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-    List<Booking> findAllByBookerIdOrderByStartDesc(long userId, PageRequest pageRequest);
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRepositoryCustom {
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<Booking> findWithItemAndBookerById(long id);
 
-    List<Booking> findByItemOwnerId(long ownerId, Sort sort, PageRequest pageRequest);
+    @Query("select new ru.practicum.shareit.booking.BookingRevision(b.id, b.version, b.item.version, " +
+            "b.item.owner.id, b.booker.id, b.booker.version) " +
+            "from Booking b " +
+            "where b.id = ?1")
+    Optional<BookingRevision> findRevisionById(long id);
 
-    List<Booking> findByBookerIdAndItemIdAndEndBefore(long bookerId, long itemId, LocalDateTime end, Sort sort);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findAllWithItemAndBookerByIdIn(Collection<Long> ids);
 
     @Query("select b from " +
             "Booking b " +
-            "where ?2 between b.start and b.end " +
-            "and b.booker.id = ?1 ")
-    List<Booking> findByBookerCurrent(long userId, LocalDateTime now, Sort sort, PageRequest pageRequest);
+            "where b.booker.id = ?1 " +
+            "and b.item.id = ?2 " +
+            "and b.end < ?3 ")
+    List<Booking> findByBookerIdAndItemIdAndEndBefore(long bookerId, long itemId, LocalDateTime end, Sort sort);
 
-    @Query("select b from " +
-            "Booking b " +
-            "where b.end < ?2 " +
-            "and b.booker.id = ?1 ")
-    List<Booking> findByBookerPast(long userId, LocalDateTime end, Sort sort, PageRequest pageRequest);
+    boolean existsByItemIdAndStatusInAndStartBeforeAndEndAfter(long itemId, Collection<BookingStatus> statuses,
+            LocalDateTime end, LocalDateTime start);
 
-    @Query("select b " +
+    Optional<Booking> findFirstByItemIdAndStatusAndStartLessThanEqualOrderByStartDescIdDesc(long itemId,
+            BookingStatus status, LocalDateTime now);
+
+    Optional<Booking> findFirstByItemIdAndStatusAndStartAfterOrderByStartAscIdAsc(long itemId, BookingStatus status,
+            LocalDateTime now);
+
+    @Query("select new ru.practicum.shareit.booking.BookingInterval(b.id, b.item.id, b.start, b.end) " +
             "from Booking b " +
-            "where b.start > ?2 " +
-            "and b.booker.id = ?1 ")
-    List<Booking> findByBookerFuture(long userId, LocalDateTime start, Sort sort, PageRequest pageRequest);
+            "where b.status in ?1 " +
+            "and b.end > ?2")
+    List<BookingInterval> findIntervals(Collection<BookingStatus> statuses, LocalDateTime after);
 
-    @Query("select b from " +
-            "Booking b " +
-            "where b.status = ?2 " +
-            "and b.booker.id = ?1 ")
-    List<Booking> findByBookerAndStatus(long userId, BookingStatus status, Sort sort, PageRequest pageRequest);
+    @Query("select new ru.practicum.shareit.booking.BookingInterval(b.id, b.item.id, b.start, b.end) " +
+            "from Booking b " +
+            "where b.status = ?1")
+    List<BookingInterval> findIntervalsByStatus(BookingStatus status);
 
-    @Query("select b from " +
-            "Booking b " +
-            "where ?2 between b.start and b.end " +
-            "and b.item.owner.id = ?1 ")
-    List<Booking> findByItemOwnerCurrent(long userId, LocalDateTime now, Sort sort, PageRequest pageRequest);
+    @Query("select new ru.practicum.shareit.booking.BookingInterval(b.id, b.item.id, b.start, b.end) " +
+            "from Booking b " +
+            "where b.item.id in ?1 " +
+            "and b.status = ?2 " +
+            "and b.start < ?3 " +
+            "and b.end > ?4")
+    List<BookingInterval> findIntervalsOverlapping(Collection<Long> itemIds, BookingStatus status, LocalDateTime end,
+            LocalDateTime start);
 
-    @Query("select b from " +
-            "Booking b " +
-            "where b.end < ?2 " +
-            "and b.item.owner.id = ?1 ")
-    List<Booking> findByItemOwnerPast(long userId, LocalDateTime end, Sort sort, PageRequest pageRequest);
+    /**
+     * Moves a booking from {@code expected} to {@code status} without reading it first; returns 0 when the booking
+     * is no longer in {@code expected}. Clears the persistence context, whose copy of the booking is now stale.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("update Booking b " +
+            "set b.status = ?3, b.version = b.version + 1 " +
+            "where b.id = ?1 " +
+            "and b.status = ?2")
+    int updateStatus(long id, BookingStatus expected, BookingStatus status);
 
+    /**
+     * Locks the bookings in id order, so transactions locking overlapping sets wait for each other instead of
+     * deadlocking.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("select b " +
             "from Booking b " +
-            "where b.start > ?2 " +
-            "and b.item.owner.id = ?1 ")
-    List<Booking> findByItemOwnerFuture(long userId, LocalDateTime start, Sort sort, PageRequest pageRequest);
-
-    @Query("select b from " +
-            "Booking b " +
-            "where b.status = ?2 " +
-            "and b.item.owner.id = ?1 ")
-    List<Booking> findByItemOwnerAndStatus(long userId, BookingStatus status, Sort sort, PageRequest pageRequest);
+            "where b.id in ?1 " +
+            "and b.status = ?2 " +
+            "order by b.id")
+    List<Booking> findForUpdateByIdInAndStatus(Collection<Long> ids, BookingStatus status);
 
     @Query("select distinct b " +
             "from Booking b " +
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.pagination.PageCursor;
+
+public interface BookingRepositoryCustom {
+    List<BookingDtoResponse> findBookings(long userId, BookingRole role, BookingStatusPresentation state,
+            LocalDateTime now, PageCursor cursor, int from, int size);
+
+    /**
+     * All bookings matching role and state in page order, read from a database cursor {@code fetchSize} rows at a
+     * time. The stream must be closed and consumed inside a transaction.
+     */
+    Stream<BookingDtoResponse> streamBookings(long userId, BookingRole role, BookingStatusPresentation state,
+            LocalDateTime now, int fetchSize);
+}
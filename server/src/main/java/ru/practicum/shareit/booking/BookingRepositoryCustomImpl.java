@@ -0,0 +1,121 @@
+package ru.practicum.shareit.booking;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+
+import org.hibernate.jpa.QueryHints;
+
+import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.pagination.PageCursor;
+import ru.practicum.shareit.user.User;
+
+/**
+ * Builds the booking list query from role, state and page, and reads only the columns of
+ * {@link BookingDtoResponse}. With a cursor the page is located by {@code (start, id)} instead of an offset. Exports
+ * run the same query unpaged and scroll through it.
+ */
+public class BookingRepositoryCustomImpl implements BookingRepositoryCustom {
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public List<BookingDtoResponse> findBookings(long userId, BookingRole role, BookingStatusPresentation state,
+            LocalDateTime now, PageCursor cursor, int from, int size) {
+        return createQuery(userId, role, state, now, cursor)
+                .setFirstResult(cursor == null ? from / size * size : 0)
+                .setMaxResults(size)
+                .getResultList().stream()
+                .map(BookingRepositoryCustomImpl::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Stream<BookingDtoResponse> streamBookings(long userId, BookingRole role, BookingStatusPresentation state,
+            LocalDateTime now, int fetchSize) {
+        return createQuery(userId, role, state, now, null)
+                .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(QueryHints.HINT_READONLY, true)
+                .getResultStream()
+                .map(BookingRepositoryCustomImpl::toResponse);
+    }
+
+    private TypedQuery<Tuple> createQuery(long userId, BookingRole role, BookingStatusPresentation state,
+            LocalDateTime now, PageCursor cursor) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Booking> booking = query.from(Booking.class);
+        Join<Booking, Item> item = booking.join("item");
+        Join<Booking, User> booker = booking.join("booker");
+        Path<Long> id = booking.get("id");
+        Path<LocalDateTime> start = booking.get("start");
+        Path<LocalDateTime> end = booking.get("end");
+        Path<BookingStatus> status = booking.get("status");
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (role == BookingRole.OWNER) {
+            predicates.add(cb.equal(item.get("owner").get("id"), userId));
+        } else {
+            predicates.add(cb.equal(booking.get("booker").get("id"), userId));
+        }
+        switch (state) {
+            case CURRENT:
+                predicates.add(cb.lessThanOrEqualTo(start, now));
+                predicates.add(cb.greaterThanOrEqualTo(end, now));
+                break;
+            case PAST:
+                predicates.add(cb.lessThan(end, now));
+                break;
+            case FUTURE:
+                predicates.add(cb.greaterThan(start, now));
+                break;
+            case WAITING:
+                predicates.add(cb.equal(status, BookingStatus.WAITING));
+                break;
+            case REJECTED:
+                predicates.add(cb.equal(status, BookingStatus.REJECTED));
+                break;
+            case EXPIRED:
+                predicates.add(cb.equal(status, BookingStatus.EXPIRED));
+                break;
+            default:
+                break;
+        }
+        if (cursor != null) {
+            predicates.add(cb.or(
+                    cb.lessThan(start, cursor.getStart()),
+                    cb.and(cb.equal(start, cursor.getStart()), cb.lessThan(id, cursor.getId()))));
+        }
+
+        query.multiselect(id, start, end, status, item.get("id"), item.get("name"), booker.get("id"),
+                        booker.get("name"))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(start), cb.desc(id));
+        return em.createQuery(query);
+    }
+
+    private static BookingDtoResponse toResponse(Tuple row) {
+        return BookingDtoResponse.builder()
+                .id(row.get(0, Long.class))
+                .start(row.get(1, LocalDateTime.class))
+                .end(row.get(2, LocalDateTime.class))
+                .status(row.get(3, BookingStatus.class))
+                .item(new BookingDtoResponse.Item(row.get(4, Long.class), row.get(5, String.class)))
+                .booker(new BookingDtoResponse.Booker(row.get(6, Long.class), row.get(7, String.class)))
+                .build();
+    }
+}
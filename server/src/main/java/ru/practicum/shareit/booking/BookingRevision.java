@@ -0,0 +1,27 @@
+package ru.practicum.shareit.booking;
+
+import lombok.Value;
+
+/**
+ * The versions a rendered booking depends on, its own and those of the item and booker whose names it shows, with
+ * the ids deciding who may see it.
+ */
+@Value
+public class BookingRevision {
+    long id;
+    long version;
+    long itemVersion;
+    long ownerId;
+    long bookerId;
+    long bookerVersion;
+
+    /**
+     * Returns the strong ETag of the booking, or null when the user may not see it.
+     */
+    String etag(long userId) {
+        if (userId != ownerId && userId != bookerId) {
+            return null;
+        }
+        return "\"booking-" + id + "-" + version + "-" + itemVersion + "-" + bookerVersion + "\"";
+    }
+}
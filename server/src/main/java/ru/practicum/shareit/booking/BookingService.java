@@ -1,7 +1,9 @@
 package ru.practicum.shareit.booking;
 
 import java.util.List;
+import java.util.function.Consumer;
 
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
 import ru.practicum.shareit.booking.dto.BookingDtoResponse;
 
@@ -10,9 +12,32 @@ public interface BookingService {
 
     BookingDtoResponse updateBooking(long bookingId, long ownerId, boolean approved);
 
+    /**
+     * Creates several bookings for one booker. Entries are validated independently; the result list holds one
+     * outcome per entry in request order.
+     */
+    List<BookingBatchResult> createBookings(long userId, List<BookingDtoRequest> bookingDtoRequests);
+
+    /**
+     * Approves or rejects several bookings of one owner, returning one outcome per id in request order.
+     */
+    List<BookingBatchResult> updateBookings(List<Long> bookingIds, long ownerId, boolean approved);
+
     BookingDtoResponse getBooking(long bookingId, long userId);
 
-    List<BookingDtoResponse> getBookings(long ownerId, String state, int from, int size);
+    /**
+     * Returns the strong ETag of the booking as {@link #getBooking} renders it, read from versions alone, or null
+     * when the booking does not exist or the user may not see it.
+     */
+    String getBookingEtag(long bookingId, long userId);
+
+    List<BookingDtoResponse> getBookings(long ownerId, String state, int from, int size, String cursor);
+
+    List<BookingDtoResponse> getBookingFromOwner(long ownerId, String state, int from, int size, String cursor);
 
-    List<BookingDtoResponse> getBookingFromOwner(long ownerId, String state, int from, int size);
+    /**
+     * Passes every booking of the owner's items in the given state to {@code sink}, in the order of
+     * {@link #getBookingFromOwner}, while reading them from a database cursor.
+     */
+    void exportBookingFromOwner(long ownerId, String state, Consumer<? super BookingDtoResponse> sink);
 }
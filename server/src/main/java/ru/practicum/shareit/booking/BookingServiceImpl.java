@@ -3,25 +3,35 @@ package ru.practicum.shareit.booking;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
 import ru.practicum.shareit.booking.dto.BookingDtoResponse;
 import ru.practicum.shareit.booking.exception.BookingNotAvailableException;
 import ru.practicum.shareit.booking.exception.BookingNotFoundException;
 import ru.practicum.shareit.exception.BadRequestException;
-import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemSummary;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.exceptions.ItemNotFoundException;
-import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.outbox.Outbox;
+import ru.practicum.shareit.outbox.OutboxEvent;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserSummary;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 
 @Service
@@ -29,70 +39,216 @@ import ru.practicum.shareit.user.exception.UserNotFoundException;
 @Transactional(readOnly = true)
 @Slf4j
 public class BookingServiceImpl implements BookingService {
+    private static final int EXPORT_FETCH_SIZE = 500;
+    private static final String CREATED_EVENT = "CREATED";
+
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final BookingAvailabilityIndex availabilityIndex;
+    private final ItemBookingProjector itemBookingProjector;
+    private final BookingLifecycleScheduler lifecycleScheduler;
+    private final BookingEventBus eventBus;
+    private final Outbox outbox;
+    private final ItemLockManager itemLockManager;
 
     @Override
     @Transactional
     public BookingDtoResponse createBooking(long userId, BookingDtoRequest bookingDtoRequest) {
-        log.info("Creating booking userId = {}, bookingDto = {}", userId, bookingDtoRequest);
+        log.debug("Creating booking userId = {}, bookingDto = {}", userId, bookingDtoRequest);
 
-        if (bookingDtoRequest.getStart().isEqual(bookingDtoRequest.getEnd())
-                || bookingDtoRequest.getEnd().isBefore(bookingDtoRequest.getStart())) {
-            throw new BadRequestException("Start and End not valid");
-        }
+        checkDates(bookingDtoRequest);
 
-        Item item = itemRepository.findById(bookingDtoRequest.getItemId())
+        ItemSummary item = itemRepository.findSummaryById(bookingDtoRequest.getItemId())
                 .orElseThrow(() -> new ItemNotFoundException("Item not found"));
-        User user = userRepository.findById(userId)
+        UserSummary user = userRepository.findSummaryById(userId)
                 .orElseThrow(() -> new UserNotFoundException("User not found"));
-        Booking booking = BookingMapper.toBooking(bookingDtoRequest, item, user);
-
-        if (Boolean.FALSE.equals(booking.getItem().getAvailable())) {
-            throw new BookingNotAvailableException("Item is not available");
-        }
 
-        if (booking.getItem().getOwner().getId() == userId) {
-            throw new UserNotFoundException("Can't book your own item");
-        }
+        // held until commit, so concurrent bookings of the item are checked and inserted one after another
+        itemLockManager.lock(List.of(item.getId()));
+        checkBookable(userId, bookingDtoRequest, item);
 
+        Booking booking = BookingMapper.toBooking(bookingDtoRequest, itemRepository.getReferenceById(item.getId()),
+                userRepository.getReferenceById(userId));
+        // a client-supplied id would turn the save into a merge with an extra select
+        booking.setId(null);
         booking.setStatus(BookingStatus.WAITING);
-        return BookingMapper.toBookingDtoResponse(bookingRepository.save(booking));
+        Booking saved = bookingRepository.save(booking);
+        availabilityIndex.add(saved);
+        lifecycleScheduler.scheduleExpiry(saved);
+        BookingDtoResponse response = BookingMapper.toBookingDtoResponse(saved, item, user);
+        outbox.append(outboxEvent(response, CREATED_EVENT));
+        eventBus.publish(response, item.getOwnerId());
+        return response;
     }
 
     @Override
     @Transactional
     public BookingDtoResponse updateBooking(long bookingId, long ownerId, boolean approved) {
-        log.info("Updating booking state bookingId = {}, ownerId = {}, approved = {}", bookingId, ownerId, approved);
+        log.debug("Updating booking state bookingId = {}, ownerId = {}, approved = {}", bookingId, ownerId, approved);
 
-        userRepository.findById(ownerId)
+        userRepository.findSummaryById(ownerId)
                 .orElseThrow(() -> new UserNotFoundException("User not found"));
-        Booking booking = bookingRepository.findById(bookingId)
+        Booking booking = bookingRepository.findWithItemAndBookerById(bookingId)
                 .orElseThrow(() -> new BookingNotFoundException("Booking not found"));
 
-        if (booking.getStatus().equals(BookingStatus.APPROVED)
-                || booking.getStatus().equals(BookingStatus.REJECTED)) {
+        checkDecidable(booking, ownerId);
+        // a conditional update rather than a save of what was read, so a concurrent decision is never overwritten
+        BookingStatus status = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        if (bookingRepository.updateStatus(bookingId, BookingStatus.WAITING, status) == 0) {
             throw new BadRequestException("This booking can't changed status");
         }
-
-        if (ownerId == booking.getItem().getOwner().getId()) {
-            if (approved) {
-                booking.setStatus(BookingStatus.APPROVED);
-            } else {
-                booking.setStatus(BookingStatus.REJECTED);
+        booking.setStatus(status);
+        if (approved) {
+            if (!findOverlappingApprovals(List.of(booking)).isEmpty()) {
+                // rolls the update back
+                throw new BookingNotAvailableException("Item is already booked for these dates");
             }
-            return BookingMapper.toBookingDtoResponse(bookingRepository.save(booking));
+            itemBookingProjector.approved(List.of(booking), LocalDateTime.now());
         } else {
-            throw new UserNotFoundException("Owner id in request and item owner don't match");
+            availabilityIndex.remove(booking);
         }
+        BookingDtoResponse response = BookingMapper.toBookingDtoResponse(booking);
+        outbox.append(outboxEvent(response, response.getStatus().name()));
+        eventBus.publish(response, ownerId);
+        return response;
+    }
+
+    @Override
+    @Transactional
+    public List<BookingBatchResult> createBookings(long userId, List<BookingDtoRequest> bookingDtoRequests) {
+        log.debug("Creating {} bookings userId = {}", bookingDtoRequests.size(), userId);
+        if (bookingDtoRequests.isEmpty()) {
+            return List.of();
+        }
+
+        UserSummary user = userRepository.findSummaryById(userId)
+                .orElseThrow(() -> new UserNotFoundException("User not found"));
+        Set<Long> itemIds = bookingDtoRequests.stream()
+                .map(BookingDtoRequest::getItemId)
+                .collect(Collectors.toSet());
+        Map<Long, ItemSummary> items = itemRepository.findSummariesByIdIn(itemIds).stream()
+                .collect(Collectors.toMap(ItemSummary::getId, Function.identity()));
+        itemLockManager.lock(items.keySet());
+
+        BookingBatchResult[] results = new BookingBatchResult[bookingDtoRequests.size()];
+        Map<Long, List<BookingDtoRequest>> acceptedByItem = new HashMap<>();
+        List<Integer> positions = new ArrayList<>();
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < bookingDtoRequests.size(); i++) {
+            BookingDtoRequest request = bookingDtoRequests.get(i);
+            try {
+                checkDates(request);
+                ItemSummary item = items.get(request.getItemId());
+                if (item == null) {
+                    throw new ItemNotFoundException("Item not found");
+                }
+                checkBookable(userId, request, item);
+                List<BookingDtoRequest> accepted = acceptedByItem.computeIfAbsent(item.getId(),
+                        id -> new ArrayList<>());
+                if (overlapsAny(request, accepted)) {
+                    throw new BookingNotAvailableException("Item is already booked for these dates");
+                }
+                accepted.add(request);
+            } catch (BadRequestException | BookingNotAvailableException | ItemNotFoundException
+                     | UserNotFoundException e) {
+                results[i] = BookingBatchResult.failed(e);
+                continue;
+            }
+            Booking booking = BookingMapper.toBooking(request, itemRepository.getReferenceById(request.getItemId()),
+                    userRepository.getReferenceById(userId));
+            booking.setId(null);
+            booking.setStatus(BookingStatus.WAITING);
+            positions.add(i);
+            bookings.add(booking);
+        }
+
+        List<Booking> saved = bookingRepository.saveAll(bookings);
+        List<OutboxEvent> events = new ArrayList<>(saved.size());
+        for (int i = 0; i < saved.size(); i++) {
+            Booking booking = saved.get(i);
+            int position = positions.get(i);
+            availabilityIndex.add(booking);
+            lifecycleScheduler.scheduleExpiry(booking);
+            ItemSummary item = items.get(bookingDtoRequests.get(position).getItemId());
+            BookingDtoResponse response = BookingMapper.toBookingDtoResponse(booking, item, user);
+            events.add(outboxEvent(response, CREATED_EVENT));
+            eventBus.publish(response, item.getOwnerId());
+            results[position] = BookingBatchResult.ok(response);
+        }
+        if (!events.isEmpty()) {
+            outbox.append(events);
+        }
+        return Arrays.asList(results);
+    }
+
+    @Override
+    @Transactional
+    public List<BookingBatchResult> updateBookings(List<Long> bookingIds, long ownerId, boolean approved) {
+        log.debug("Updating {} bookings ownerId = {}, approved = {}", bookingIds.size(), ownerId, approved);
+        if (bookingIds.isEmpty()) {
+            return List.of();
+        }
+
+        userRepository.findSummaryById(ownerId)
+                .orElseThrow(() -> new UserNotFoundException("User not found"));
+        // the WAITING bookings are locked before they are read, so a booking decided concurrently is reported rather
+        // than overwritten
+        bookingRepository.findForUpdateByIdInAndStatus(bookingIds, BookingStatus.WAITING);
+        Map<Long, Booking> bookings = bookingRepository.findAllWithItemAndBookerByIdIn(bookingIds).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+
+        BookingBatchResult[] results = new BookingBatchResult[bookingIds.size()];
+        List<Integer> positions = new ArrayList<>();
+        List<Booking> decidable = new ArrayList<>();
+        for (int i = 0; i < bookingIds.size(); i++) {
+            Booking booking = bookings.get(bookingIds.get(i));
+            try {
+                if (booking == null) {
+                    throw new BookingNotFoundException("Booking not found");
+                }
+                checkDecidable(booking, ownerId);
+            } catch (BadRequestException | BookingNotFoundException | UserNotFoundException e) {
+                results[i] = BookingBatchResult.failed(e);
+                continue;
+            }
+            positions.add(i);
+            decidable.add(booking);
+        }
+
+        Set<Long> overlapping = approved ? findOverlappingApprovals(decidable) : Set.of();
+        List<Booking> decided = new ArrayList<>();
+        List<OutboxEvent> events = new ArrayList<>();
+        for (int i = 0; i < decidable.size(); i++) {
+            Booking booking = decidable.get(i);
+            int position = positions.get(i);
+            if (overlapping.contains(booking.getId())) {
+                results[position] = BookingBatchResult.failed(
+                        new BookingNotAvailableException("Item is already booked for these dates"));
+                continue;
+            }
+            decide(booking, approved);
+            decided.add(booking);
+            BookingDtoResponse response = BookingMapper.toBookingDtoResponse(booking);
+            events.add(outboxEvent(response, response.getStatus().name()));
+            eventBus.publish(response, ownerId);
+            results[position] = BookingBatchResult.ok(response);
+        }
+        bookingRepository.saveAll(decided);
+        if (approved) {
+            itemBookingProjector.approved(decided, LocalDateTime.now());
+        }
+        if (!events.isEmpty()) {
+            outbox.append(events);
+        }
+        return Arrays.asList(results);
     }
 
     @Override
     public BookingDtoResponse getBooking(long bookingId, long userId) {
-        log.info("Get booking request bookingId = {}, userId = {}");
+        log.debug("Get booking request bookingId = {}, userId = {}", bookingId, userId);
 
-        Booking booking = bookingRepository.findById(bookingId)
+        Booking booking = bookingRepository.findWithItemAndBookerById(bookingId)
                 .orElseThrow(() -> new BookingNotFoundException("Booking not found"));
 
         if (booking.getItem().getOwner().getId() == userId || booking.getBooker().getId() == userId) {
@@ -103,111 +259,46 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public List<BookingDtoResponse> getBookings(long ownerId, String state, int from, int size) {
-        log.info("Get user bookings by state: ownerId = {}, state = {}", ownerId, state);
-
-        checkUserAndState(ownerId, state);
+    public String getBookingEtag(long bookingId, long userId) {
+        return bookingRepository.findRevisionById(bookingId)
+                .map(revision -> revision.etag(userId))
+                .orElse(null);
+    }
 
-        List<Booking> bookings = new ArrayList<>();
+    @Override
+    public List<BookingDtoResponse> getBookings(long ownerId, String state, int from, int size, String cursor) {
+        log.debug("Get user bookings by state: ownerId = {}, state = {}", ownerId, state);
 
-        switch (BookingStatusPresentation.valueOf(state)) {
-            case ALL:
-                bookings = bookingRepository.findAllByBookerIdOrderByStartDesc(ownerId,
-                        PageRequest.of(from / size, size));
-                break;
-            case CURRENT:
-                bookings = bookingRepository.findByBookerCurrent(
-                        ownerId,
-                        LocalDateTime.now(),
-                        Sort.by(Sort.Direction.DESC, "start"),
-                        PageRequest.of(from / size, size));
-                break;
-            case PAST:
-                bookings = bookingRepository.findByBookerPast(
-                        ownerId,
-                        LocalDateTime.now(),
-                        Sort.by(Sort.Direction.DESC, "start"),
-                        PageRequest.of(from / size, size));
-                break;
-            case FUTURE:
-                bookings = bookingRepository.findByBookerFuture(
-                        ownerId,
-                        LocalDateTime.now(),
-                        Sort.by(Sort.Direction.DESC, "start"),
-                        PageRequest.of(from / size, size));
-                break;
-            case WAITING:
-                bookings = bookingRepository.findByBookerAndStatus(
-                        ownerId,
-                        BookingStatus.WAITING,
-                        Sort.by(Sort.Direction.DESC, "start"),
-                        PageRequest.of(from / size, size));
-                break;
-            case REJECTED:
-                bookings = bookingRepository.findByBookerAndStatus(
-                        ownerId,
-                        BookingStatus.REJECTED,
-                        Sort.by(Sort.Direction.DESC, "start"),
-                        PageRequest.of(from / size, size));
-                break;
-        }
-
-        return BookingMapper.mapToBookingDtoResponse(bookings);
+        checkUserAndState(ownerId, state);
+        return findBookings(ownerId, BookingRole.BOOKER, state, from, size, cursor);
     }
 
     @Override
-    public List<BookingDtoResponse> getBookingFromOwner(long ownerId, String state, int from, int size) {
-        log.info("Get user's item bookings by state: ownerId = {}, state = {}", ownerId, state);
+    public List<BookingDtoResponse> getBookingFromOwner(long ownerId, String state, int from, int size, String cursor) {
+        log.debug("Get user's item bookings by state: ownerId = {}, state = {}", ownerId, state);
 
         checkUserAndState(ownerId, state);
+        return findBookings(ownerId, BookingRole.OWNER, state, from, size, cursor);
+    }
 
-        List<Booking> bookings = new ArrayList<>();
+    @Override
+    public void exportBookingFromOwner(long ownerId, String state, Consumer<? super BookingDtoResponse> sink) {
+        log.debug("Export bookings of owner ownerId = {}, state = {}", ownerId, state);
+        checkUserAndState(ownerId, state);
+        try (Stream<BookingDtoResponse> bookings = bookingRepository.streamBookings(ownerId, BookingRole.OWNER,
+                BookingStatusPresentation.valueOf(state), LocalDateTime.now(), EXPORT_FETCH_SIZE)) {
+            bookings.forEach(sink);
+        }
+    }
 
-        switch (BookingStatusPresentation.valueOf(state)) {
-            case ALL:
-                bookings = bookingRepository.findByItemOwnerId(
-                        ownerId,
-                        Sort.by(Sort.Direction.DESC, "start"),
-                        PageRequest.of(from / size, size));
-                break;
-            case CURRENT:
-                bookings = bookingRepository.findByItemOwnerCurrent(
-                        ownerId,
-                        LocalDateTime.now(),
-                        Sort.by(Sort.Direction.DESC, "start"),
-                        PageRequest.of(from / size, size));
-                break;
-            case PAST:
-                bookings = bookingRepository.findByItemOwnerPast(
-                        ownerId,
-                        LocalDateTime.now(),
-                        Sort.by(Sort.Direction.DESC, "start"),
-                        PageRequest.of(from / size, size));
-                break;
-            case FUTURE:
-                bookings = bookingRepository.findByItemOwnerFuture(
-                        ownerId,
-                        LocalDateTime.now(),
-                        Sort.by(Sort.Direction.DESC, "start"),
-                        PageRequest.of(from / size, size));
-                break;
-            case WAITING:
-                bookings = bookingRepository.findByItemOwnerAndStatus(
-                        ownerId,
-                        BookingStatus.WAITING,
-                        Sort.by(Sort.Direction.DESC, "start"),
-                        PageRequest.of(from / size, size));
-                break;
-            case REJECTED:
-                bookings = bookingRepository.findByItemOwnerAndStatus(
-                        ownerId,
-                        BookingStatus.REJECTED,
-                        Sort.by(Sort.Direction.DESC, "start"),
-                        PageRequest.of(from / size, size));
-                break;
-        }
-
-        return BookingMapper.mapToBookingDtoResponse(bookings);
+    private List<BookingDtoResponse> findBookings(long userId, BookingRole role, String state, int from, int size,
+            String cursor) {
+        PageCursor pageCursor = PageCursor.decode(cursor);
+        if (pageCursor != null && pageCursor.getStart() == null) {
+            throw new BadRequestException("Invalid cursor for bookings");
+        }
+        return bookingRepository.findBookings(userId, role, BookingStatusPresentation.valueOf(state),
+                LocalDateTime.now(), pageCursor, from, size);
     }
 
     private void checkUserAndState(long userId, String state) {
@@ -215,7 +306,94 @@ public class BookingServiceImpl implements BookingService {
         if (Arrays.stream(states).noneMatch(s -> s.name().equals(state))) {
             throw new BadRequestException("Unknown state: " + state);
         }
-        userRepository.findById(userId)
+        userRepository.findSummaryById(userId)
                 .orElseThrow(() -> new UserNotFoundException("User not found"));
     }
+
+    private static void checkDates(BookingDtoRequest bookingDtoRequest) {
+        if (bookingDtoRequest.getStart().isEqual(bookingDtoRequest.getEnd())
+                || bookingDtoRequest.getEnd().isBefore(bookingDtoRequest.getStart())) {
+            throw new BadRequestException("Start and End not valid");
+        }
+    }
+
+    private void checkBookable(long userId, BookingDtoRequest bookingDtoRequest, ItemSummary item) {
+        if (Boolean.FALSE.equals(item.getAvailable())) {
+            throw new BookingNotAvailableException("Item is not available");
+        }
+
+        if (item.getOwnerId() == userId) {
+            throw new UserNotFoundException("Can't book your own item");
+        }
+
+        if (!availabilityIndex.isAvailable(item.getId(), bookingDtoRequest.getStart(), bookingDtoRequest.getEnd())) {
+            throw new BookingNotAvailableException("Item is already booked for these dates");
+        }
+    }
+
+    private static boolean overlapsAny(BookingDtoRequest request, List<BookingDtoRequest> accepted) {
+        for (BookingDtoRequest other : accepted) {
+            if (request.getStart().isBefore(other.getEnd()) && other.getStart().isBefore(request.getEnd())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void checkDecidable(Booking booking, long ownerId) {
+        if (booking.getStatus() != BookingStatus.WAITING) {
+            throw new BadRequestException("This booking can't changed status");
+        }
+
+        if (ownerId != booking.getItem().getOwner().getId()) {
+            throw new UserNotFoundException("Owner id in request and item owner don't match");
+        }
+    }
+
+    private void decide(Booking booking, boolean approved) {
+        if (approved) {
+            booking.setStatus(BookingStatus.APPROVED);
+        } else {
+            booking.setStatus(BookingStatus.REJECTED);
+            availabilityIndex.remove(booking);
+        }
+    }
+
+    /**
+     * Returns the ids of the bookings that may not be approved because they overlap an approved booking of their
+     * item, or one earlier in the list. The items are locked first, which serializes approvals per item until the
+     * approving transaction ends, so the check sees every approval committed before it.
+     */
+    private Set<Long> findOverlappingApprovals(List<Booking> bookings) {
+        if (bookings.isEmpty()) {
+            return Set.of();
+        }
+        Set<Long> itemIds = bookings.stream()
+                .map(booking -> booking.getItem().getId())
+                .collect(Collectors.toSet());
+        itemLockManager.lock(itemIds);
+        LocalDateTime from = bookings.stream().map(Booking::getStart).min(LocalDateTime::compareTo).orElseThrow();
+        LocalDateTime to = bookings.stream().map(Booking::getEnd).max(LocalDateTime::compareTo).orElseThrow();
+        Map<Long, List<BookingInterval>> approved = bookingRepository.findIntervalsOverlapping(itemIds,
+                        BookingStatus.APPROVED, to, from).stream()
+                .collect(Collectors.groupingBy(BookingInterval::getItemId, Collectors.toCollection(ArrayList::new)));
+
+        Set<Long> overlapping = new HashSet<>();
+        for (Booking booking : bookings) {
+            List<BookingInterval> taken = approved.computeIfAbsent(booking.getItem().getId(), id -> new ArrayList<>());
+            if (taken.stream().anyMatch(interval -> interval.getId() != booking.getId()
+                    && interval.getStart().isBefore(booking.getEnd())
+                    && interval.getEnd().isAfter(booking.getStart()))) {
+                overlapping.add(booking.getId());
+            } else {
+                taken.add(new BookingInterval(booking.getId(), booking.getItem().getId(), booking.getStart(),
+                        booking.getEnd()));
+            }
+        }
+        return overlapping;
+    }
+
+    private OutboxEvent outboxEvent(BookingDtoResponse response, String eventType) {
+        return outbox.event(Outbox.BOOKING, response.getId(), eventType, response);
+    }
 }
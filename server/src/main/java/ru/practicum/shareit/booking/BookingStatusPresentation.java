@@ -6,5 +6,6 @@ public enum BookingStatusPresentation {
     PAST,
     FUTURE,
     WAITING,
-    REJECTED
+    REJECTED,
+    EXPIRED
 }
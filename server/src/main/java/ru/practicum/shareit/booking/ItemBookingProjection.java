@@ -0,0 +1,60 @@
+package ru.practicum.shareit.booking;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+
+import org.hibernate.annotations.DynamicUpdate;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * The last started and the next upcoming APPROVED booking of an item, with their starts copied so that both can be
+ * advanced without loading the bookings. An item without approved bookings has no row.
+ */
+@Data
+@Builder
+@Entity
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@Table(name = "item_booking_projection")
+@AllArgsConstructor
+@NoArgsConstructor
+@DynamicUpdate
+public class ItemBookingProjection {
+
+    @Id
+    @EqualsAndHashCode.Include
+    @Column(name = "item_id")
+    private Long itemId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
+    @JoinColumn(name = "last_booking_id")
+    private Booking lastBooking;
+
+    @Column(name = "last_start")
+    private LocalDateTime lastStart;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
+    @JoinColumn(name = "next_booking_id")
+    private Booking nextBooking;
+
+    @Column(name = "next_start")
+    private LocalDateTime nextStart;
+
+    boolean isStale(LocalDateTime now) {
+        return nextStart != null && !nextStart.isAfter(now);
+    }
+}
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.booking;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ItemBookingProjectionRepository extends JpaRepository<ItemBookingProjection, Long> {
+    @Query("select p " +
+            "from ItemBookingProjection p " +
+            "left join fetch p.lastBooking " +
+            "left join fetch p.nextBooking " +
+            "where p.itemId in ?1")
+    List<ItemBookingProjection> findWithBookingsByItemIdIn(Collection<Long> itemIds);
+
+    @Query("select p.itemId " +
+            "from ItemBookingProjection p " +
+            "where p.nextStart <= ?1 " +
+            "order by p.nextStart")
+    List<Long> findItemIdsByNextStartLessThanEqual(LocalDateTime now, Pageable pageable);
+
+    @Modifying
+    @Query(value = "insert into item_booking_projection " +
+            "(item_id, last_booking_id, last_start, next_booking_id, next_start) " +
+            "select p.item_id, p.last_booking_id, l.start_date, p.next_booking_id, n.start_date " +
+            "from (select i.id as item_id, " +
+            "(select b.id from bookings b " +
+            "where b.item = i.id and b.status = 'APPROVED' and b.start_date <= :now " +
+            "order by b.start_date desc, b.id desc limit 1) as last_booking_id, " +
+            "(select b.id from bookings b " +
+            "where b.item = i.id and b.status = 'APPROVED' and b.start_date > :now " +
+            "order by b.start_date, b.id limit 1) as next_booking_id " +
+            "from items i " +
+            "where exists (select 1 from bookings b where b.item = i.id and b.status = 'APPROVED')) p " +
+            "left join bookings l on l.id = p.last_booking_id " +
+            "left join bookings n on n.id = p.next_booking_id",
+            nativeQuery = true)
+    int insertFromBookings(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,158 @@
+package ru.practicum.shareit.booking;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManager;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Maintains {@link ItemBookingProjection} rows so that an item page reads one row per item instead of every
+ * approved booking of its items. Approvals advance the row in place; as time passes the next booking of an item
+ * starts and the row goes stale, which {@link #rollForward()} repairs in the background and reads repair in memory
+ * until it has.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemBookingProjector {
+    private static final int ROLL_FORWARD_PAGE_SIZE = 500;
+    private static final int ROLL_FORWARD_LOCK_BATCH_SIZE = 50;
+
+    private final ItemBookingProjectionRepository projectionRepository;
+    private final BookingRepository bookingRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ItemLockManager itemLockManager;
+
+    /**
+     * Takes bookings that have just been approved into the projections of their items; must run inside the
+     * approving transaction, with the items locked through {@link ItemLockManager}.
+     */
+    public void approved(Collection<Booking> bookings, LocalDateTime now) {
+        if (bookings.isEmpty()) {
+            return;
+        }
+        Set<Long> itemIds = bookings.stream()
+                .map(booking -> booking.getItem().getId())
+                .collect(Collectors.toSet());
+        Map<Long, ItemBookingProjection> projections = projectionRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(ItemBookingProjection::getItemId, Function.identity()));
+        for (Booking booking : bookings) {
+            long itemId = booking.getItem().getId();
+            ItemBookingProjection projection = projections.get(itemId);
+            if (projection == null) {
+                projection = ItemBookingProjection.builder().itemId(itemId).build();
+                entityManager.persist(projection);
+                projections.put(itemId, projection);
+            }
+            advance(projection, booking, now);
+        }
+    }
+
+    /**
+     * Returns the projections of the given items that have approved bookings, recomputing the ones whose next
+     * booking has started since they were last rolled forward.
+     */
+    public Map<Long, ItemBookingProjection> find(Collection<Long> itemIds, LocalDateTime now) {
+        if (itemIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, ItemBookingProjection> projections = new HashMap<>();
+        for (ItemBookingProjection projection : projectionRepository.findWithBookingsByItemIdIn(itemIds)) {
+            projections.put(projection.getItemId(),
+                    projection.isStale(now) ? compute(projection.getItemId(), now) : projection);
+        }
+        return projections;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-projection.roll-forward-interval}")
+    public void rollForward() {
+        LocalDateTime now = LocalDateTime.now();
+        long total = 0;
+        List<Long> due;
+        do {
+            due = projectionRepository.findItemIdsByNextStartLessThanEqual(now,
+                    PageRequest.of(0, ROLL_FORWARD_PAGE_SIZE));
+            for (int from = 0; from < due.size(); from += ROLL_FORWARD_LOCK_BATCH_SIZE) {
+                List<Long> itemIds = due.subList(from, Math.min(from + ROLL_FORWARD_LOCK_BATCH_SIZE, due.size()));
+                total += transactionTemplate.execute(status -> rollForward(itemIds, now));
+            }
+        } while (due.size() == ROLL_FORWARD_PAGE_SIZE);
+        if (total > 0) {
+            log.debug("Rolled forward booking projections of {} items", total);
+        }
+    }
+
+    /**
+     * Recomputes every projection from the bookings table, for data written around the services.
+     */
+    @Transactional
+    public int rebuild() {
+        projectionRepository.deleteAllInBatch();
+        return projectionRepository.insertFromBookings(LocalDateTime.now());
+    }
+
+    /**
+     * Approvals advance projections under the same item locks, so a row is never written back with a value computed
+     * before an approval that committed in the meantime. The rows are read only once the locks are held.
+     */
+    private int rollForward(List<Long> itemIds, LocalDateTime now) {
+        itemLockManager.lock(itemIds);
+        int rolled = 0;
+        for (ItemBookingProjection projection : projectionRepository.findAllById(itemIds)) {
+            if (!projection.isStale(now)) {
+                continue;
+            }
+            ItemBookingProjection current = compute(projection.getItemId(), now);
+            projection.setLastBooking(current.getLastBooking());
+            projection.setLastStart(current.getLastStart());
+            projection.setNextBooking(current.getNextBooking());
+            projection.setNextStart(current.getNextStart());
+            rolled++;
+        }
+        return rolled;
+    }
+
+    private ItemBookingProjection compute(long itemId, LocalDateTime now) {
+        ItemBookingProjection projection = ItemBookingProjection.builder().itemId(itemId).build();
+        bookingRepository.findFirstByItemIdAndStatusAndStartLessThanEqualOrderByStartDescIdDesc(itemId,
+                BookingStatus.APPROVED, now).ifPresent(last -> {
+            projection.setLastBooking(last);
+            projection.setLastStart(last.getStart());
+        });
+        bookingRepository.findFirstByItemIdAndStatusAndStartAfterOrderByStartAscIdAsc(itemId,
+                BookingStatus.APPROVED, now).ifPresent(next -> {
+            projection.setNextBooking(next);
+            projection.setNextStart(next.getStart());
+        });
+        return projection;
+    }
+
+    private static void advance(ItemBookingProjection projection, Booking booking, LocalDateTime now) {
+        LocalDateTime start = booking.getStart();
+        if (!start.isAfter(now)) {
+            if (projection.getLastStart() == null || start.isAfter(projection.getLastStart())) {
+                projection.setLastBooking(booking);
+                projection.setLastStart(start);
+            }
+        } else if (projection.getNextStart() == null || start.isBefore(projection.getNextStart())) {
+            projection.setNextBooking(booking);
+            projection.setNextStart(start);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking;
+
+import java.util.Collection;
+
+/**
+ * Serializes booking writes per item: the check that a booking does not overlap another and the write that relies
+ * on it run under the item's lock, so concurrent writers to one item take turns while writers to different items
+ * do not wait for each other.
+ */
+public interface ItemLockManager {
+    /**
+     * Locks the given items until the current transaction completes, waiting a bounded time for each.
+     *
+     * @throws ru.practicum.shareit.booking.exception.ItemLockTimeoutException when an item stays locked by another
+     *                                                                         transaction for longer than the wait
+     */
+    void lock(Collection<Long> itemIds);
+}
@@ -0,0 +1,129 @@
+package ru.practicum.shareit.booking;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import ru.practicum.shareit.booking.exception.ItemLockTimeoutException;
+
+/**
+ * Locks items within this JVM: item ids map onto a fixed array of locks, so writes to different items rarely share
+ * a stripe and run in parallel, while writes to one item queue on the same lock without touching the database.
+ * Stripes are taken in index order, which keeps transactions locking several items from deadlocking, and released
+ * when the transaction completes. Only correct while a single server writes bookings; several servers use
+ * {@link AdvisoryItemLockManager}.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.item-locks.type", havingValue = "striped", matchIfMissing = true)
+public class StripedItemLockManager implements ItemLockManager {
+    static final String WAIT_METRIC = "shareit.item-locks.wait";
+    static final String CONTENDED_METRIC = "shareit.item-locks.contended";
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+    private final long waitNanos;
+    private final MeterRegistry meterRegistry;
+    private final Timer acquiredWaits;
+    private final Timer timedOutWaits;
+
+    public StripedItemLockManager(@Value("${shareit.item-locks.stripes}") int stripes,
+                                  @Value("${shareit.item-locks.wait}") Duration wait,
+                                  MeterRegistry meterRegistry) {
+        if (Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("Stripe count must be a power of two: " + stripes);
+        }
+        this.stripes = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        mask = stripes - 1;
+        waitNanos = wait.toNanos();
+        this.meterRegistry = meterRegistry;
+        acquiredWaits = waitTimer(meterRegistry, "acquired");
+        timedOutWaits = waitTimer(meterRegistry, "timeout");
+    }
+
+    @Override
+    public void lock(Collection<Long> itemIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Item locks are held until the transaction completes and need one");
+        }
+        int[] indexes = itemIds.stream()
+                .mapToInt(this::stripe)
+                .distinct()
+                .sorted()
+                .toArray();
+        List<ReentrantLock> held = new ArrayList<>(indexes.length);
+        try {
+            long deadline = System.nanoTime() + waitNanos;
+            for (int index : indexes) {
+                acquire(index, deadline);
+                held.add(stripes[index]);
+            }
+        } catch (RuntimeException e) {
+            release(held);
+            throw e;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                release(held);
+            }
+        });
+    }
+
+    int stripe(long itemId) {
+        return Long.hashCode(itemId) & mask;
+    }
+
+    private void acquire(int index, long deadline) {
+        ReentrantLock lock = stripes[index];
+        if (lock.tryLock()) {
+            return;
+        }
+        Counter.builder(CONTENDED_METRIC)
+                .description("Lock requests that found their item stripe held")
+                .tag("stripe", String.valueOf(index))
+                .register(meterRegistry)
+                .increment();
+        long started = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = lock.tryLock(deadline - started, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        (acquired ? acquiredWaits : timedOutWaits).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        if (!acquired) {
+            throw new ItemLockTimeoutException("Item is busy, try again later");
+        }
+    }
+
+    private static void release(List<ReentrantLock> held) {
+        for (int i = held.size() - 1; i >= 0; i--) {
+            held.get(i).unlock();
+        }
+    }
+
+    private static Timer waitTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder(WAIT_METRIC)
+                .description("Time spent waiting for a held item lock")
+                .tag("type", "striped")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,82 @@
+package ru.practicum.shareit.booking;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Hashed timing wheel of booking deadlines. A deadline is rounded up to a whole tick and kept in the bucket of that
+ * tick modulo the wheel size, so scheduling is O(1) and advancing by one tick only looks at one bucket; deadlines
+ * further away than one turn wait in their bucket for later turns. Deadlines never fire early, and ones already
+ * due when scheduled fire on the next advance.
+ */
+final class TimingWheel {
+    private final long tickMillis;
+    private final List<Deadline>[] buckets;
+    private final int mask;
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    TimingWheel(Duration tick, int wheelSize, long startMillis) {
+        if (Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Wheel size must be a power of two");
+        }
+        this.tickMillis = tick.toMillis();
+        this.buckets = new List[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new ArrayList<>();
+        }
+        this.mask = wheelSize - 1;
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    synchronized void schedule(long bookingId, long deadlineMillis) {
+        long tick = Math.max(-Math.floorDiv(-deadlineMillis, tickMillis), currentTick + 1);
+        buckets[(int) (tick & mask)].add(new Deadline(bookingId, tick));
+        size++;
+    }
+
+    /**
+     * Moves the wheel up to {@code nowMillis} and returns the bookings whose deadlines have passed.
+     */
+    synchronized List<Long> advance(long nowMillis) {
+        long nowTick = nowMillis / tickMillis;
+        List<Long> due = new ArrayList<>();
+        // after a long pause one turn visits every bucket
+        long lastTick = Math.min(nowTick, currentTick + buckets.length);
+        while (currentTick < lastTick) {
+            currentTick++;
+            collect(buckets[(int) (currentTick & mask)], nowTick, due);
+        }
+        currentTick = Math.max(currentTick, nowTick);
+        size -= due.size();
+        return due;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    private static void collect(List<Deadline> bucket, long nowTick, List<Long> due) {
+        Iterator<Deadline> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            Deadline deadline = iterator.next();
+            if (deadline.tick <= nowTick) {
+                due.add(deadline.bookingId);
+                iterator.remove();
+            }
+        }
+    }
+
+    private static final class Deadline {
+        private final long bookingId;
+        private final long tick;
+
+        private Deadline(long bookingId, long tick) {
+            this.bookingId = bookingId;
+            this.tick = tick;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.booking.dto;
+
+import org.springframework.http.HttpStatus;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.practicum.shareit.booking.exception.BookingNotFoundException;
+import ru.practicum.shareit.exception.ErrorResponse;
+import ru.practicum.shareit.item.exceptions.ItemNotFoundException;
+import ru.practicum.shareit.user.exception.UserNotFoundException;
+
+/**
+ * Outcome of one entry of a batch request, in the position of that entry. Either {@code booking} or {@code error}
+ * is set, and {@code status} is the HTTP status the single-entry endpoint would have answered with.
+ */
+@Data
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class BookingBatchResult {
+    private int status;
+    private BookingDtoResponse booking;
+    private ErrorResponse error;
+
+    public static BookingBatchResult ok(BookingDtoResponse booking) {
+        return new BookingBatchResult(HttpStatus.OK.value(), booking, null);
+    }
+
+    public static BookingBatchResult failed(RuntimeException e) {
+        boolean notFound = e instanceof BookingNotFoundException
+                || e instanceof ItemNotFoundException
+                || e instanceof UserNotFoundException;
+        HttpStatus status = notFound ? HttpStatus.NOT_FOUND : HttpStatus.BAD_REQUEST;
+        String error = e.getClass().getSimpleName().replaceFirst("Exception$", "");
+        return new BookingBatchResult(status.value(), null, new ErrorResponse(error, e.getMessage()));
+    }
+}
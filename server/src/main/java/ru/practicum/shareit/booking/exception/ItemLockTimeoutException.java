@@ -0,0 +1,7 @@
+package ru.practicum.shareit.booking.exception;
+
+public class ItemLockTimeoutException extends RuntimeException {
+    public ItemLockTimeoutException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,223 @@
+package ru.practicum.shareit.dataset;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.ItemBookingProjector;
+
+/**
+ * Bulk-loads a synthetic dataset with batched JDBC inserts when the {@code dataset} profile is active, before the
+ * application reports ready, so the in-memory indexes warm up with the generated rows.
+ * <p>
+ * Ids continue after the largest existing one and the id sequences are restarted past them afterwards, so the
+ * application can keep inserting; the item booking projections are rebuilt from the generated bookings. With
+ * {@code shareit.dataset.exit-after-load} the application exits once loaded, for use as a one-off command. Each
+ * item's bookings take non-overlapping slots of a window from three years ago to one year ahead; popular items get
+ * more and shorter slots.
+ */
+@Slf4j
+@Component
+@Profile("dataset")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class DatasetGenerator implements ApplicationRunner {
+    private static final String[] NAMES = {"drill", "saw", "hammer", "ladder", "tent", "bike", "kayak", "camera",
+            "projector", "guitar", "mixer", "sander", "skis", "scooter", "grill", "telescope"};
+    private static final String[] ADJECTIVES = {"cordless", "old", "new", "heavy", "compact", "electric", "folding",
+            "professional", "kids", "travel"};
+    private static final Duration WINDOW = Duration.ofDays(4 * 365);
+    private static final Duration HOUR = Duration.ofHours(1);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatasetProperties properties;
+    private final ConfigurableApplicationContext context;
+    private final ItemBookingProjector itemBookingProjector;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Random random = new Random(properties.getSeed());
+        LocalDateTime now = LocalDateTime.now();
+        long started = System.nanoTime();
+
+        long firstUser = nextId("users");
+        int owners = (int) Math.max(1, properties.getUsers() * properties.getOwnerRatio());
+        int items = owners * properties.getItemsPerOwner();
+        long firstItem = nextId("items");
+
+        insertUsers(firstUser);
+        insertItems(random, now, firstUser, owners, firstItem, items);
+        long bookings = insertBookingsAndComments(random, now, firstUser, firstItem, items);
+
+        for (String table : List.of("users", "item_requests", "items", "bookings", "comments")) {
+            jdbcTemplate.execute("alter sequence " + table + "_seq restart with " + nextId(table));
+        }
+        itemBookingProjector.rebuild();
+        log.info("Dataset loaded in {} s: {} users, {} items, {} bookings", (System.nanoTime() - started) / 1e9,
+                properties.getUsers(), items, bookings);
+        if (properties.isExitAfterLoad()) {
+            System.exit(SpringApplication.exit(context));
+        }
+    }
+
+    private void insertUsers(long firstUser) {
+        Batch users = new Batch("insert into users (id, name, email) values (?, ?, ?)");
+        for (long id = firstUser; id < firstUser + properties.getUsers(); id++) {
+            users.add(id, "user " + id, "user" + id + "@shareit.dev");
+            users.flushIfFull();
+        }
+        users.flush();
+    }
+
+    private void insertItems(Random random, LocalDateTime now, long firstUser, int owners, long firstItem,
+            int items) {
+        long firstRequest = nextId("item_requests");
+        Batch requests = new Batch("insert into item_requests (id, description, requestor, created) "
+                + "values (?, ?, ?, ?)");
+        Batch rows = new Batch("insert into items (id, name, description, available, owner, request) "
+                + "values (?, ?, ?, ?, ?, ?)");
+        long request = firstRequest;
+        for (int i = 0; i < items; i++) {
+            long owner = ownerOf(firstUser, i);
+            String name = ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " " + NAMES[random.nextInt(NAMES.length)];
+            Long requestId = null;
+            if (random.nextDouble() < properties.getRequestRatio()) {
+                requestId = request++;
+                requests.add(requestId, "Looking for a " + name, otherUser(random, firstUser, owner),
+                        Timestamp.valueOf(now.minus(randomPart(random, WINDOW))));
+            }
+            rows.add(firstItem + i, name, name + " for rent, item #" + (firstItem + i), random.nextInt(10) != 0,
+                    owner, requestId);
+            if (rows.isFull()) {
+                requests.flush();
+                rows.flush();
+            }
+        }
+        requests.flush();
+        rows.flush();
+    }
+
+    private long insertBookingsAndComments(Random random, LocalDateTime now, long firstUser, long firstItem,
+            int items) {
+        int[] counts = new int[items];
+        ZipfSampler popularity = new ZipfSampler(items, properties.getZipfExponent());
+        long total = (long) items * properties.getBookingsPerItem();
+        for (long i = 0; i < total; i++) {
+            counts[popularity.next(random)]++;
+        }
+
+        Batch bookings = new Batch("insert into bookings (id, start_date, end_date, item, booker, status) "
+                + "values (?, ?, ?, ?, ?, ?)");
+        Batch comments = new Batch("insert into comments (id, text, item_id, author_id, created) "
+                + "values (?, ?, ?, ?, ?)");
+        long bookingId = nextId("bookings");
+        long commentId = nextId("comments");
+        LocalDateTime windowStart = now.minusYears(3);
+        for (int i = 0; i < items; i++) {
+            if (counts[i] == 0) {
+                continue;
+            }
+            long item = firstItem + i;
+            long owner = ownerOf(firstUser, i);
+            Duration slot = WINDOW.dividedBy(counts[i]);
+            for (int k = 0; k < counts[i]; k++) {
+                LocalDateTime start = windowStart.plus(slot.multipliedBy(k))
+                        .plus(randomPart(random, slot.dividedBy(2)));
+                LocalDateTime end = start.plus(max(HOUR, randomPart(random, slot.dividedBy(2))));
+                long booker = otherUser(random, firstUser, owner);
+                BookingStatus status = status(random, end.isBefore(now));
+                bookings.add(bookingId++, Timestamp.valueOf(start), Timestamp.valueOf(end), item, booker,
+                        status.name());
+                if (status == BookingStatus.APPROVED && end.isBefore(now)
+                        && random.nextDouble() < properties.getCommentRatio()) {
+                    comments.add(commentId++, "Rented the " + item + ", worked fine", item, booker,
+                            Timestamp.valueOf(end.plusHours(1)));
+                }
+                bookings.flushIfFull();
+                comments.flushIfFull();
+            }
+        }
+        bookings.flush();
+        comments.flush();
+        return total;
+    }
+
+    private long ownerOf(long firstUser, int itemIndex) {
+        return firstUser + itemIndex / properties.getItemsPerOwner();
+    }
+
+    private long otherUser(Random random, long firstUser, long excluded) {
+        long user;
+        do {
+            user = firstUser + random.nextInt(properties.getUsers());
+        } while (user == excluded && properties.getUsers() > 1);
+        return user;
+    }
+
+    private static BookingStatus status(Random random, boolean finished) {
+        int roll = random.nextInt(10);
+        if (finished) {
+            return roll < 8 ? BookingStatus.APPROVED : roll < 9 ? BookingStatus.REJECTED : BookingStatus.CANCELED;
+        }
+        return roll < 3 ? BookingStatus.WAITING : roll < 9 ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+    }
+
+    private static Duration randomPart(Random random, Duration duration) {
+        return Duration.ofSeconds((long) (random.nextDouble() * duration.toSeconds()));
+    }
+
+    private static Duration max(Duration a, Duration b) {
+        return a.compareTo(b) >= 0 ? a : b;
+    }
+
+    private long nextId(String table) {
+        Long max = jdbcTemplate.queryForObject("select max(id) from " + table, Long.class);
+        return max == null ? 1 : max + 1;
+    }
+
+    private class Batch {
+        private final String sql;
+        private final List<Object[]> rows = new ArrayList<>();
+
+        Batch(String sql) {
+            this.sql = sql;
+        }
+
+        void add(Object... row) {
+            rows.add(row);
+        }
+
+        boolean isFull() {
+            return rows.size() >= properties.getBatchSize();
+        }
+
+        void flushIfFull() {
+            if (isFull()) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (!rows.isEmpty()) {
+                jdbcTemplate.batchUpdate(sql, rows);
+                rows.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.dataset;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Component
+@Profile("dataset")
+@ConfigurationProperties(prefix = "shareit.dataset")
+public class DatasetProperties {
+    private int users = 10_000;
+    /**
+     * Share of users that own items; the first users by id are the owners.
+     */
+    private double ownerRatio = 0.2;
+    private int itemsPerOwner = 5;
+    /**
+     * Average; the actual count per item follows a Zipf law over items with exponent {@link #zipfExponent}.
+     */
+    private int bookingsPerItem = 20;
+    private double zipfExponent = 1.0;
+    /**
+     * Share of finished approved bookings whose booker left a comment.
+     */
+    private double commentRatio = 0.3;
+    /**
+     * Share of items that were added in answer to an item request.
+     */
+    private double requestRatio = 0.1;
+    private int batchSize = 1000;
+    private long seed = 42;
+    private boolean exitAfterLoad;
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.dataset;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Draws ranks {@code 0..n-1} with probability proportional to {@code 1 / (rank + 1)^exponent}, by binary search over
+ * the precomputed cumulative distribution.
+ */
+class ZipfSampler {
+    private final double[] cumulative;
+
+    ZipfSampler(int n, double exponent) {
+        cumulative = new double[n];
+        double sum = 0;
+        for (int rank = 0; rank < n; rank++) {
+            sum += 1 / Math.pow(rank + 1, exponent);
+            cumulative[rank] = sum;
+        }
+        for (int rank = 0; rank < n; rank++) {
+            cumulative[rank] /= sum;
+        }
+    }
+
+    int next(Random random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        int rank = index >= 0 ? index : -index - 1;
+        return Math.min(rank, cumulative.length - 1);
+    }
+}
@@ -1,16 +1,21 @@
 package ru.practicum.shareit.exception;
 
+import javax.persistence.OptimisticLockException;
 import javax.validation.ConstraintViolationException;
 
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import ru.practicum.shareit.booking.exception.BookingNotAvailableException;
 import ru.practicum.shareit.booking.exception.BookingNotFoundException;
+import ru.practicum.shareit.booking.exception.ItemLockTimeoutException;
 import ru.practicum.shareit.item.exceptions.ItemNotFoundException;
 import ru.practicum.shareit.request.exception.RequestNotFoundException;
 import ru.practicum.shareit.user.exception.UserAlreadyExistsException;
@@ -18,10 +23,16 @@ import ru.practicum.shareit.user.exception.UserNotFoundException;
 
 @RestControllerAdvice
 @Slf4j
+@RequiredArgsConstructor
 public class ErrorHandler {
+    public static final String METRIC = "shareit.errors";
+
+    private final MeterRegistry meterRegistry;
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public ErrorResponse handleUserNotFound(final ItemNotFoundException e) {
+        count(e);
         log.warn("ItemNotFoundException - {}", e.getMessage());
         return new ErrorResponse("ItemNotFound", e.getMessage());
     }
@@ -29,6 +40,7 @@ public class ErrorHandler {
     @ExceptionHandler
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public ErrorResponse handleUserNotFound(final UserNotFoundException e) {
+        count(e);
         log.warn("UserNotFoundException - {}", e.getMessage());
         return new ErrorResponse("UserNotFound", e.getMessage());
     }
@@ -36,6 +48,7 @@ public class ErrorHandler {
     @ExceptionHandler
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public ErrorResponse handleBookingNotFound(final BookingNotFoundException e) {
+        count(e);
         log.warn("BookingNotFoundException - {}", e.getMessage());
         return new ErrorResponse("BookingNotFound", e.getMessage());
     }
@@ -43,6 +56,7 @@ public class ErrorHandler {
     @ExceptionHandler
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public ErrorResponse handleRequestNotFound(final RequestNotFoundException e) {
+        count(e);
         log.warn("RequestNotFoundException - {}", e.getMessage());
         return new ErrorResponse("RequestNotFound", e.getMessage());
     }
@@ -50,13 +64,34 @@ public class ErrorHandler {
     @ExceptionHandler
     @ResponseStatus(HttpStatus.CONFLICT)
     public ErrorResponse handleUserAlreadyExists(final UserAlreadyExistsException e) {
+        count(e);
         log.warn("UserAlreadyExistsException - {}", e.getMessage());
         return new ErrorResponse("UserAlreadyExists", e.getMessage());
     }
 
+    /**
+     * A versioned row changed between being read and written; the client reads it again and retries.
+     */
+    @ExceptionHandler({OptimisticLockingFailureException.class, OptimisticLockException.class})
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleConcurrentUpdate(final RuntimeException e) {
+        count(e);
+        log.warn("Concurrent update - {}", e.getMessage());
+        return new ErrorResponse("ConcurrentUpdate", e.getMessage());
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleItemLockTimeout(final ItemLockTimeoutException e) {
+        count(e);
+        log.warn("ItemLockTimeoutException - {}", e.getMessage());
+        return new ErrorResponse("ItemLockTimeout", e.getMessage());
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handleBookingNotAvailable(final BookingNotAvailableException e) {
+        count(e);
         log.info("400 {}", e.getMessage(), e);
         return new ErrorResponse("BookingNotAvailable", e.getMessage());
     }
@@ -64,6 +99,7 @@ public class ErrorHandler {
     @ExceptionHandler
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handleBadRequest(final BadRequestException e) {
+        count(e);
         log.info("400 {}", e.getMessage(), e);
         return new ErrorResponse(e.getMessage(), "BadRequest");
     }
@@ -71,6 +107,7 @@ public class ErrorHandler {
     @ExceptionHandler
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handleThrowable(final MethodArgumentNotValidException e) {
+        count(e);
         log.info("400 {}", e.getMessage(), e);
         return new ErrorResponse("MethodArgumentNotValid", e.getMessage());
     }
@@ -78,6 +115,7 @@ public class ErrorHandler {
     @ExceptionHandler
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handleConstraintViolationException(final ConstraintViolationException e) {
+        count(e);
         log.error(e.getMessage());
         return new ErrorResponse("ConstraintViolation", e.getMessage());
     }
@@ -85,7 +123,12 @@ public class ErrorHandler {
     @ExceptionHandler
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ErrorResponse handleThrowable(final Throwable e) {
+        count(e);
         log.info("500 {}", e.getMessage(), e);
         return new ErrorResponse("InternalServerError", e.getMessage());
     }
+
+    private void count(Throwable e) {
+        meterRegistry.counter(METRIC, "exception", e.getClass().getSimpleName()).increment();
+    }
 }
@@ -9,7 +9,10 @@ public class CommentMapper {
     }
 
     public static CommentDto toCommentDto(Comment comment) {
-        return new CommentDto(comment.getId(), comment.getText(), comment.getAuthor().getName(),
-                comment.getCreated());
+        return toCommentDto(comment, comment.getAuthor().getName());
+    }
+
+    public static CommentDto toCommentDto(Comment comment, String authorName) {
+        return new CommentDto(comment.getId(), comment.getText(), authorName, comment.getCreated());
     }
 }
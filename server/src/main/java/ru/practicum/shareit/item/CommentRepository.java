@@ -2,10 +2,12 @@ package ru.practicum.shareit.item;
 
 import java.util.List;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+    @EntityGraph(attributePaths = "author")
     List<Comment> findByItemId_IdIn(List<Long> ids);
 }
@@ -0,0 +1,82 @@
+package ru.practicum.shareit.item;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "memory")
+public class InMemoryItemSearchEngine implements ItemSearchEngine, MeterBinder {
+    private final ItemRepository itemRepository;
+    private final ItemSearchIndex searchIndex = new ItemSearchIndex();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        itemRepository.findAll().forEach(searchIndex::put);
+        log.info("Item search index built with {} items", searchIndex.size());
+    }
+
+    @Override
+    public List<Item> search(String text, int from, int size) {
+        List<Long> ids = searchIndex.search(text);
+        if (from >= ids.size()) {
+            return List.of();
+        }
+        return hydrate(ids.subList(from, Math.min(from + size, ids.size())));
+    }
+
+    private List<Item> hydrate(List<Long> page) {
+        if (page.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Item> items = itemRepository.findAllById(page).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return page.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void index(Item item) {
+        searchIndex.put(item);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("shareit.search.index.items", searchIndex, ItemSearchIndex::size)
+                .description("Available items held by the in-memory search index")
+                .register(registry);
+        Gauge.builder("shareit.search.index.terms", searchIndex, ItemSearchIndex::termCount)
+                .description("Distinct terms in the in-memory search index")
+                .register(registry);
+        Gauge.builder("shareit.search.index.postings", searchIndex, ItemSearchIndex::postingBytes)
+                .description("Size of the compressed posting lists")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("shareit.search.index.memory", searchIndex, ItemSearchIndex::estimatedBytes)
+                .description("Estimated heap used by the in-memory search index")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("shareit.search.index.memory.per.item", searchIndex,
+                        index -> index.size() == 0 ? 0 : (double) index.estimatedBytes() / index.size())
+                .description("Estimated heap used by the in-memory search index per indexed item")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+}
@@ -1,10 +1,15 @@
 package ru.practicum.shareit.item;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
 
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -14,28 +19,54 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
 
 import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoBooking;
+import ru.practicum.shareit.item.dto.ItemImportResult;
+import ru.practicum.shareit.pagination.NdjsonExport;
+import ru.practicum.shareit.pagination.PageCursor;
 
 @RestController
 @RequestMapping("/items")
 @RequiredArgsConstructor
 public class ItemController {
     private final ItemService itemService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping("/{id}")
-    public ItemDtoBooking getItem(@RequestHeader(name = "X-Sharer-User-Id") long ownerId, @PathVariable long id) {
+    public ItemDtoBooking getItem(@RequestHeader(name = "X-Sharer-User-Id") long ownerId, @PathVariable long id,
+            ServletWebRequest request) {
+        ShallowEtagHeaderFilter.disableContentCaching(request.getRequest());
+        String etag = itemService.getItemEtag(id, ownerId);
+        if (etag != null && request.checkNotModified(etag)) {
+            return null;
+        }
         return itemService.getItem(id, ownerId);
     }
 
     @GetMapping
-    public List<ItemDtoBooking> getItemsByUser(@RequestHeader("X-Sharer-User-Id") long userId,
+    public ResponseEntity<List<ItemDtoBooking>> getItemsByUser(@RequestHeader("X-Sharer-User-Id") long userId,
             @RequestParam(defaultValue = "0") @PositiveOrZero int from,
-            @RequestParam(defaultValue = "10") @Positive int size) {
-        return itemService.getItemsByUser(userId, from, size);
+            @RequestParam(defaultValue = "10") @Positive int size,
+            @RequestParam(required = false) String cursor) {
+        return PageCursor.toResponse(itemService.getItemsByUser(userId, from, size, cursor), size,
+                item -> PageCursor.of(item.getId()));
+    }
+
+    @GetMapping(path = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody exportItemsByUser(@RequestHeader("X-Sharer-User-Id") long userId,
+            HttpServletRequest request) {
+        return NdjsonExport.body(request, objectMapper, sink -> itemService.exportItemsByUser(userId, sink));
     }
 
     @PostMapping
@@ -43,16 +74,34 @@ public class ItemController {
         return itemService.createItem(userId, itemDto);
     }
 
+    @PostMapping(path = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ItemImportResult importItems(@RequestHeader("X-Sharer-User-Id") long userId, InputStream body)
+            throws IOException {
+        try (MappingIterator<ItemDto> items = objectMapper.readerFor(ItemDto.class).readValues(body)) {
+            return itemService.importItems(userId, items);
+        } catch (RuntimeJsonMappingException e) {
+            throw new BadRequestException("Invalid import record: " + e.getMessage());
+        }
+    }
+
     @PatchMapping("/{id}")
     public ItemDto updateItem(@RequestHeader("X-Sharer-User-Id") long userId, @RequestBody ItemDto itemDto,
             @PathVariable long id) {
         return itemService.updateItem(id, itemDto, userId);
     }
 
+    /**
+     * Matches are ranked by relevance and paged by offset. There is no cursor mode: a cursor seeks by id, which would
+     * page the matches in an order other than the ranking, so a {@code cursor} is answered with 400.
+     */
     @GetMapping("/search")
     public List<ItemDto> searchItems(@RequestParam String text,
             @RequestParam(defaultValue = "0") @PositiveOrZero int from,
-            @RequestParam(defaultValue = "10") @Positive int size) {
+            @RequestParam(defaultValue = "10") @Positive int size,
+            @RequestParam(required = false) String cursor) {
+        if (cursor != null) {
+            throw new BadRequestException("Search results are ranked and can't be paged by cursor, use from and size");
+        }
         return itemService.searchItems(text, from, size);
     }
 
@@ -2,8 +2,12 @@ package ru.practicum.shareit.item;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingDtoForItem;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoBooking;
 import ru.practicum.shareit.request.ItemRequest;
@@ -47,4 +51,31 @@ public class ItemMapper {
                 .comments(new ArrayList<>())
                 .build();
     }
+
+    /**
+     * Joins items with their bookings and comments in memory. Of several bookings of one item the first of
+     * {@code last} and the last of {@code next} win, both lists being sorted by start descending.
+     */
+    public static List<ItemDtoBooking> toItemDtoBookings(List<Item> items, List<Booking> last, List<Booking> next,
+            List<Comment> comments) {
+        Map<Long, BookingDtoForItem> lastByItem = last.stream()
+                .map(BookingMapper::toBookingDtoForItem)
+                .collect(Collectors.toMap(BookingDtoForItem::getItemId, item -> item, (a, b) -> a));
+        Map<Long, BookingDtoForItem> nextByItem = next.stream()
+                .map(BookingMapper::toBookingDtoForItem)
+                .collect(Collectors.toMap(BookingDtoForItem::getItemId, item -> item, (a, b) -> b));
+        Map<Long, List<Comment>> commentsByItem = comments.stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
+
+        List<ItemDtoBooking> result = items.stream()
+                .map(ItemMapper::toItemDtoBooking)
+                .collect(Collectors.toList());
+        for (ItemDtoBooking item : result) {
+            item.setLastBooking(lastByItem.get(item.getId()));
+            item.setNextBooking(nextByItem.get(item.getId()));
+            item.getComments().addAll(commentsByItem.getOrDefault(item.getId(), List.of()).stream()
+                    .map(CommentMapper::toCommentDto).collect(Collectors.toList()));
+        }
+        return result;
+    }
 }
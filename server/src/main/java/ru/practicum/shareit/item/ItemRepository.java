@@ -1,23 +1,64 @@
 package ru.practicum.shareit.item;
 
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import javax.persistence.QueryHint;
 
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import ru.practicum.shareit.CachingConfig;
+
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
+    @Cacheable(cacheNames = CachingConfig.ITEMS, unless = "#result == null")
+    @Query("select new ru.practicum.shareit.item.ItemSummary(it.id, it.name, it.available, it.owner.id) " +
+            "from Item it " +
+            "where it.id = ?1")
+    Optional<ItemSummary> findSummaryById(long id);
+
+    @Query("select new ru.practicum.shareit.item.ItemSummary(it.id, it.name, it.available, it.owner.id) " +
+            "from Item it " +
+            "where it.id in ?1")
+    List<ItemSummary> findSummariesByIdIn(Collection<Long> ids);
+
+    @Query("select new ru.practicum.shareit.item.ItemRevision(it.id, it.owner.id, it.version, count(c), " +
+            "coalesce(sum(a.version), 0), p.lastBooking.id, p.nextBooking.id, p.nextStart) " +
+            "from Item it " +
+            "left join ItemBookingProjection p on p.itemId = it.id " +
+            "left join Comment c on c.item.id = it.id " +
+            "left join c.author a " +
+            "where it.id = ?1 " +
+            "group by it.id, it.owner.id, it.version, p.lastBooking.id, p.nextBooking.id, p.nextStart")
+    Optional<ItemRevision> findRevisionById(long id);
+
     List<Item> findAllByOwnerIdOrderByIdAsc(long userId, Pageable pageable);
 
-    @Query("select it " +
-            "from Item as it " +
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READONLY, value = "true")})
+    Stream<Item> streamAllByOwnerIdOrderByIdAsc(long userId);
+
+    List<Item> findAllByOwnerIdAndIdGreaterThanOrderByIdAsc(long userId, long afterId, Pageable pageable);
+
+    @Query(value = "select it.* " +
+            "from items it " +
             "where it.available = true " +
-            "and (lower(it.description) like lower(concat('%', ?1,'%'))" +
-            "or lower(it.name) like lower(concat('%', ?1,'%')) )")
-    List<Item> searchItems(String text, Pageable pageable);
+            "and (lower(it.name) like lower(concat('%', :text, '%')) " +
+            "or lower(it.description) like lower(concat('%', :text, '%'))) " +
+            "order by case when lower(it.name) like lower(concat('%', :text, '%')) then 1 else 0 end desc, " +
+            "similarity(lower(it.name), lower(:text)) desc, it.id " +
+            "limit :size offset :from", nativeQuery = true)
+    List<Item> searchItemsRanked(@Param("text") String text, @Param("from") int from, @Param("size") int size);
 
     @Query("select item " +
             "from Item item " +
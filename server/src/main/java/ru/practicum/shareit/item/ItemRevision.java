@@ -0,0 +1,40 @@
+package ru.practicum.shareit.item;
+
+import java.time.LocalDateTime;
+
+import lombok.Value;
+
+/**
+ * What {@link ItemService#getItem} renders an item from, read without loading it: the item's version, its comments
+ * as a count and the sum of their authors' versions, and the ids of the bookings its projection points to.
+ */
+@Value
+public class ItemRevision {
+    long id;
+    long ownerId;
+    long version;
+    long comments;
+    long authorVersions;
+    Long lastBookingId;
+    Long nextBookingId;
+    LocalDateTime nextStart;
+
+    /**
+     * Returns the strong ETag of the item as rendered for the user, or null while the projection is stale, as the
+     * bookings shown then are recomputed on every read.
+     */
+    String etag(long userId, LocalDateTime now) {
+        StringBuilder etag = new StringBuilder("\"item-").append(id)
+                .append('-').append(version)
+                .append('-').append(comments)
+                .append('-').append(authorVersions);
+        // only the owner is shown the bookings of an item
+        if (userId == ownerId) {
+            if (nextStart != null && !nextStart.isAfter(now)) {
+                return null;
+            }
+            etag.append('-').append(lastBookingId).append('-').append(nextBookingId);
+        }
+        return etag.append('"').toString();
+    }
+}
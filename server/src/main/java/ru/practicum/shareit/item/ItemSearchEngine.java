@@ -0,0 +1,10 @@
+package ru.practicum.shareit.item;
+
+import java.util.List;
+
+public interface ItemSearchEngine {
+    List<Item> search(String text, int from, int size);
+
+    default void index(Item item) {
+    }
+}
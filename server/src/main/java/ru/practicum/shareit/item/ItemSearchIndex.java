@@ -0,0 +1,167 @@
+package ru.practicum.shareit.item;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Inverted index over the tokenized names and descriptions of available items. Every token is split into
+ * trigrams, and each trigram maps to a compressed {@link PostingList} of item ids. Trigrams only narrow the
+ * candidate set; every candidate is then checked for a case-insensitive substring match, so results are the
+ * same as those of the {@code like '%text%'} query.
+ */
+class ItemSearchIndex {
+    private static final int GRAM = 3;
+    private static final int REFERENCE_BYTES = 8;
+    private static final int OBJECT_HEADER_BYTES = 16;
+
+    private final Map<Long, Document> documents = new ConcurrentHashMap<>();
+    private final Map<String, PostingList> postings = new ConcurrentHashMap<>();
+
+    synchronized void put(Item item) {
+        remove(item.getId());
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            return;
+        }
+        Document document = new Document(item);
+        documents.put(document.id, document);
+        for (String term : document.terms) {
+            postings.merge(term, PostingList.EMPTY.add(document.id), (current, single) -> current.add(document.id));
+        }
+    }
+
+    synchronized void remove(long id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        for (String term : document.terms) {
+            postings.computeIfPresent(term, (t, current) -> {
+                PostingList remaining = current.remove(id);
+                return remaining.size() == 0 ? null : remaining;
+            });
+        }
+    }
+
+    int size() {
+        return documents.size();
+    }
+
+    int termCount() {
+        return postings.size();
+    }
+
+    long postingBytes() {
+        return postings.values().stream()
+                .mapToLong(list -> list.byteSize() + OBJECT_HEADER_BYTES + REFERENCE_BYTES)
+                .sum();
+    }
+
+    long estimatedBytes() {
+        long terms = postings.keySet().stream()
+                .mapToLong(term -> OBJECT_HEADER_BYTES + 2L * term.length() + REFERENCE_BYTES)
+                .sum();
+        long texts = documents.values().stream()
+                .mapToLong(document -> OBJECT_HEADER_BYTES + 2L * (document.name.length()
+                        + document.description.length()) + REFERENCE_BYTES * document.terms.length)
+                .sum();
+        return terms + texts + postingBytes();
+    }
+
+    List<Long> search(String text) {
+        String query = text.toLowerCase();
+        Set<String> queryTerms = terms(query);
+        return matchingDocuments(query, queryTerms)
+                .map(document -> new Hit(document, query, queryTerms))
+                .sorted(Comparator.comparing((Hit hit) -> hit.nameMatch).reversed()
+                        .thenComparing(Comparator.comparingDouble((Hit hit) -> hit.similarity).reversed())
+                        .thenComparingLong(hit -> hit.id))
+                .map(hit -> hit.id)
+                .collect(Collectors.toList());
+    }
+
+    private Stream<Document> matchingDocuments(String query, Set<String> queryTerms) {
+        return candidates(queryTerms).stream()
+                .map(documents::get)
+                .filter(document -> document != null && document.matches(query));
+    }
+
+    private List<Long> candidates(Set<String> queryTerms) {
+        if (queryTerms.isEmpty()) {
+            return new ArrayList<>(documents.keySet());
+        }
+        List<PostingList> lists = new ArrayList<>();
+        for (String term : queryTerms) {
+            PostingList list = postings.get(term);
+            if (list == null) {
+                return List.of();
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(PostingList::size));
+        long[] result = lists.get(0).toArray();
+        for (int i = 1; i < lists.size() && result.length > 0; i++) {
+            result = PostingList.intersect(result, lists.get(i));
+        }
+        return Arrays.stream(result).boxed().collect(Collectors.toList());
+    }
+
+    private static Set<String> terms(String text) {
+        Set<String> terms = new HashSet<>();
+        for (String token : text.split("[^\\p{L}\\p{N}]+")) {
+            for (int i = 0; i + GRAM <= token.length(); i++) {
+                terms.add(token.substring(i, i + GRAM));
+            }
+        }
+        return terms;
+    }
+
+    private static double similarity(Set<String> first, Set<String> second) {
+        if (first.isEmpty() || second.isEmpty()) {
+            return 0;
+        }
+        long shared = first.stream().filter(second::contains).count();
+        return (double) shared / (first.size() + second.size() - shared);
+    }
+
+    private static final class Document {
+        private final long id;
+        private final String name;
+        private final String description;
+        private final Set<String> nameTerms;
+        private final String[] terms;
+
+        private Document(Item item) {
+            this.id = item.getId();
+            this.name = item.getName() == null ? "" : item.getName().toLowerCase();
+            this.description = item.getDescription() == null ? "" : item.getDescription().toLowerCase();
+            this.nameTerms = terms(name);
+            Set<String> all = new HashSet<>(nameTerms);
+            all.addAll(terms(description));
+            this.terms = all.toArray(new String[0]);
+        }
+
+        private boolean matches(String query) {
+            return name.contains(query) || description.contains(query);
+        }
+    }
+
+    private static final class Hit {
+        private final long id;
+        private final boolean nameMatch;
+        private final double similarity;
+
+        private Hit(Document document, String query, Set<String> queryTerms) {
+            this.id = document.id;
+            this.nameMatch = document.name.contains(query);
+            this.similarity = similarity(document.nameTerms, queryTerms);
+        }
+    }
+}
@@ -1,18 +1,39 @@
 package ru.practicum.shareit.item;
 
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
 
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoBooking;
+import ru.practicum.shareit.item.dto.ItemImportResult;
 
 public interface ItemService {
     public ItemDtoBooking getItem(long itemId, long userId);
 
-    public List<ItemDtoBooking> getItemsByUser(long userId, int from, int size);
+    /**
+     * Returns the strong ETag of the item as {@link #getItem} renders it for the user, read from versions alone, or
+     * null when that can't be told without rendering the item.
+     */
+    String getItemEtag(long itemId, long userId);
+
+    public List<ItemDtoBooking> getItemsByUser(long userId, int from, int size, String cursor);
+
+    /**
+     * Passes every item of the user, with bookings and comments as in {@link #getItemsByUser}, to {@code sink}
+     * while scrolling through them in chunks.
+     */
+    void exportItemsByUser(long userId, Consumer<? super ItemDtoBooking> sink);
 
     public ItemDto createItem(long userId, ItemDto item);
 
+    /**
+     * Saves the items read from the iterator in transactions of a fixed number of rows, so an import of any size
+     * holds one chunk at a time. Chunks committed before a failure stay imported.
+     */
+    ItemImportResult importItems(long userId, Iterator<ItemDto> items);
+
     public ItemDto updateItem(long id, ItemDto item, long userId);
 
     public List<ItemDto> searchItems(String text, int from, int size);
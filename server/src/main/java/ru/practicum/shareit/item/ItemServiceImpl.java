@@ -2,30 +2,49 @@ package ru.practicum.shareit.item;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import javax.persistence.EntityManager;
+
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.CachingConfig;
 import ru.practicum.shareit.booking.BookingRepository;
-import ru.practicum.shareit.booking.dto.BookingDtoForItem;
+import ru.practicum.shareit.booking.ItemBookingProjection;
+import ru.practicum.shareit.booking.ItemBookingProjector;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoBooking;
+import ru.practicum.shareit.item.dto.ItemImportResult;
 import ru.practicum.shareit.item.exceptions.ItemNotFoundException;
+import ru.practicum.shareit.outbox.Outbox;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.request.exception.RequestNotFoundException;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserSummary;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 
 @Service
@@ -33,45 +52,106 @@ import ru.practicum.shareit.user.exception.UserNotFoundException;
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class ItemServiceImpl implements ItemService {
+    private static final int IMPORT_CHUNK_SIZE = 500;
+    private static final int EXPORT_CHUNK_SIZE = 500;
+    private static final String CREATED_EVENT = "CREATED";
+    private static final String UPDATED_EVENT = "UPDATED";
+
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
+    private final ItemBookingProjector itemBookingProjector;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final Outbox outbox;
 
     @Override
     public ItemDtoBooking getItem(long itemId, long userId) {
-        log.info("Requested item with id = {}", itemId);
+        log.debug("Requested item with id = {}", itemId);
         Item item = itemRepository.findById(itemId)
                 .orElseThrow(() -> new ItemNotFoundException("ItemNotFound"));
         return setBookingsAndComments(userId, List.of(item)).get(0);
     }
 
     @Override
-    public List<ItemDtoBooking> getItemsByUser(long userId, int from, int size) {
-        log.info("Requsted items of user id = {}", userId);
-        List<Item> userItems = itemRepository.findAllByOwnerIdOrderByIdAsc(userId, PageRequest.of(from / size, size));
+    public String getItemEtag(long itemId, long userId) {
+        return itemRepository.findRevisionById(itemId)
+                .map(revision -> revision.etag(userId, LocalDateTime.now()))
+                .orElse(null);
+    }
+
+    @Override
+    public List<ItemDtoBooking> getItemsByUser(long userId, int from, int size, String cursor) {
+        log.debug("Requsted items of user id = {}", userId);
+        PageCursor pageCursor = PageCursor.decode(cursor);
+        List<Item> userItems = pageCursor == null
+                ? itemRepository.findAllByOwnerIdOrderByIdAsc(userId, PageRequest.of(from / size, size))
+                : itemRepository.findAllByOwnerIdAndIdGreaterThanOrderByIdAsc(userId, pageCursor.getId(),
+                        PageRequest.of(0, size));
         return setBookingsAndComments(userId, userItems);
     }
 
+    @Override
+    public void exportItemsByUser(long userId, Consumer<? super ItemDtoBooking> sink) {
+        log.debug("Export items of user id = {}", userId);
+        try (Stream<Item> userItems = itemRepository.streamAllByOwnerIdOrderByIdAsc(userId)) {
+            Iterator<Item> iterator = userItems.iterator();
+            List<Item> chunk = new ArrayList<>(EXPORT_CHUNK_SIZE);
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == EXPORT_CHUNK_SIZE || !iterator.hasNext()) {
+                    setBookingsAndComments(userId, chunk).forEach(sink);
+                    chunk.clear();
+                    // drops the exported items, bookings and comments from the persistence context
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
     @Override
     @Transactional
     public ItemDto createItem(long userId, ItemDto itemDto) {
-        log.info("Request to create item = {}", itemDto);
-        User user = userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("User not found"));
+        log.debug("Request to create item = {}", itemDto);
+        userRepository.findSummaryById(userId).orElseThrow(() -> new UserNotFoundException("User not found"));
+        User user = userRepository.getReferenceById(userId);
         ItemRequest itemRequest = null;
         if (itemDto.getRequestId() != null) {
             itemRequest = itemRequestRepository.findById(itemDto.getRequestId())
                     .orElseThrow(() -> new RequestNotFoundException("Request not found"));
         }
-        Item item = ItemMapper.fromItemDto(itemDto, user, itemRequest);
-        return ItemMapper.toItemDto(itemRepository.save(item));
+        Item item = itemRepository.save(ItemMapper.fromItemDto(itemDto, user, itemRequest));
+        indexAfterCommit(List.of(item));
+        ItemDto created = ItemMapper.toItemDto(item);
+        outbox.append(outbox.event(Outbox.ITEM, item.getId(), CREATED_EVENT, created));
+        return created;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ItemImportResult importItems(long userId, Iterator<ItemDto> itemDtos) {
+        log.debug("Request to import items for userId = {}", userId);
+        userRepository.findSummaryById(userId).orElseThrow(() -> new UserNotFoundException("User not found"));
+        long imported = 0;
+        List<ItemDto> chunk = new ArrayList<>(IMPORT_CHUNK_SIZE);
+        while (itemDtos.hasNext()) {
+            chunk.add(itemDtos.next());
+            if (chunk.size() == IMPORT_CHUNK_SIZE || !itemDtos.hasNext()) {
+                imported += transactionTemplate.execute(status -> saveImportChunk(userId, chunk));
+                chunk.clear();
+            }
+        }
+        return new ItemImportResult(imported);
     }
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CachingConfig.ITEMS, key = "#id")
     public ItemDto updateItem(long id, ItemDto itemDto, long userId) {
-        log.info("Request to update item = {} with id = {}", itemDto, id);
+        log.debug("Request to update item = {} with id = {}", itemDto, id);
         return itemRepository.findById(id)
                 .map(i -> {
                     if (i.getOwner().getId() != userId) {
@@ -83,26 +163,33 @@ public class ItemServiceImpl implements ItemService {
                         i.setDescription(itemDto.getDescription());
                     if (itemDto.getAvailable() != null)
                         i.setAvailable(itemDto.getAvailable());
-                    return ItemMapper.toItemDto(itemRepository.save(i));
+                    Item item = itemRepository.save(i);
+                    indexAfterCommit(List.of(item));
+                    ItemDto updated = ItemMapper.toItemDto(item);
+                    outbox.append(outbox.event(Outbox.ITEM, item.getId(), UPDATED_EVENT, updated));
+                    return updated;
                 }).orElseThrow(() -> new ItemNotFoundException("Item not found"));
     }
 
     @Override
     public List<ItemDto> searchItems(String text, int from, int size) {
-        log.info("Search items with keyword = {}", text);
+        log.debug("Search items with keyword = {}", text);
         if (text.isEmpty())
             return new ArrayList<>();
-        return ItemMapper.mapToItemDto(itemRepository.searchItems(text, PageRequest.of(from / size, size)));
+        return ItemMapper.mapToItemDto(itemSearchEngine.search(text, from / size * size, size));
     }
 
     @Override
     @Transactional
     public CommentDto createComment(long itemId, CommentDto commentDto, long authorId) {
-        log.info("Creating comment for itemId = {}, from authorId = {}, commentDto = {}", itemId, authorId, commentDto);
-        Item item = itemRepository.findById(itemId)
+        log.debug("Creating comment for itemId = {}, from authorId = {}, commentDto = {}", itemId, authorId,
+                commentDto);
+        itemRepository.findSummaryById(itemId)
                 .orElseThrow(() -> new ItemNotFoundException("Item with id = " + itemId + " not found"));
-        User user = userRepository.findById(authorId)
+        UserSummary author = userRepository.findSummaryById(authorId)
                 .orElseThrow(() -> new UserNotFoundException("User with id = " + authorId + " not found"));
+        Item item = itemRepository.getReferenceById(itemId);
+        User user = userRepository.getReferenceById(authorId);
 
         Comment comment = CommentMapper.toComment(user, item, commentDto);
 
@@ -116,38 +203,78 @@ public class ItemServiceImpl implements ItemService {
             comment.setAuthor(user);
             comment.setCreated(LocalDateTime.now());
             commentRepository.save(comment);
-            return CommentMapper.toCommentDto(comment);
+            return CommentMapper.toCommentDto(comment, author.getName());
         } else
             throw new BadRequestException("This user can't comment on this");
     }
 
+    private int saveImportChunk(long userId, List<ItemDto> chunk) {
+        Set<Long> requestIds = chunk.stream()
+                .map(ItemDto::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, ItemRequest> requests = itemRequestRepository.findAllById(requestIds).stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+        User user = userRepository.getReferenceById(userId);
+        List<Item> items = new ArrayList<>(chunk.size());
+        for (ItemDto itemDto : chunk) {
+            ItemRequest itemRequest = null;
+            if (itemDto.getRequestId() != null) {
+                itemRequest = requests.get(itemDto.getRequestId());
+                if (itemRequest == null) {
+                    throw new RequestNotFoundException("Request " + itemDto.getRequestId() + " not found");
+                }
+            }
+            Item item = ItemMapper.fromItemDto(itemDto, user, itemRequest);
+            item.setId(null);
+            items.add(item);
+        }
+        List<Item> saved = itemRepository.saveAll(items);
+        indexAfterCommit(saved);
+        outbox.append(saved.stream()
+                .map(item -> outbox.event(Outbox.ITEM, item.getId(), CREATED_EVENT, ItemMapper.toItemDto(item)))
+                .collect(Collectors.toList()));
+        return saved.size();
+    }
+
+    /**
+     * Searches must not find an item whose insert or update was rolled back, so the search engine is only told
+     * once the transaction has committed.
+     */
+    private void indexAfterCommit(List<Item> items) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    items.forEach(itemSearchEngine::index);
+                }
+            });
+        } else {
+            items.forEach(itemSearchEngine::index);
+        }
+    }
+
     private List<ItemDtoBooking> setBookingsAndComments(long userId, List<Item> items) {
         LocalDateTime now = LocalDateTime.now();
 
         List<Long> ids = items.stream()
                 .map(Item::getId)
                 .collect(Collectors.toList());
-        Map<Long, BookingDtoForItem> last = bookingRepository
-                .findBookingsLast(ids, now, userId, Sort.by(Sort.Direction.DESC, "start")).stream()
-                .map(BookingMapper::toBookingDtoForItem)
-                .collect(Collectors.toMap(BookingDtoForItem::getItemId, item -> item, (a, b) -> a));
-        Map<Long, BookingDtoForItem> next = bookingRepository
-                .findBookingsNext(ids, now, userId, Sort.by(Sort.Direction.DESC, "start")).stream()
-                .map(BookingMapper::toBookingDtoForItem)
-                .collect(Collectors.toMap(BookingDtoForItem::getItemId, item -> item, (a, b) -> b));
-        Map<Long, List<Comment>> comments = commentRepository.findByItemId_IdIn(ids).stream()
-                .collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
-
-        List<ItemDtoBooking> result = items.stream()
-                .map(ItemMapper::toItemDtoBooking)
+        // only the owner is shown the bookings of an item
+        List<Long> ownIds = items.stream()
+                .filter(item -> item.getOwner().getId() == userId)
+                .map(Item::getId)
                 .collect(Collectors.toList());
-        for (ItemDtoBooking item : result) {
-            item.setLastBooking(last.get(item.getId()));
-            item.setNextBooking(next.get(item.getId()));
-            item.getComments().addAll(comments.getOrDefault(item.getId(), List.of()).stream()
-                    .map(CommentMapper::toCommentDto).collect(Collectors.toList()));
-        }
-
-        return result;
+        Collection<ItemBookingProjection> projections = itemBookingProjector.find(ownIds, now).values();
+        return ItemMapper.toItemDtoBookings(items,
+                projections.stream()
+                        .map(ItemBookingProjection::getLastBooking)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toList()),
+                projections.stream()
+                        .map(ItemBookingProjection::getNextBooking)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toList()),
+                commentRepository.findByItemId_IdIn(ids));
     }
 }
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.item;
+
+import lombok.Value;
+
+@Value
+public class ItemSummary {
+    long id;
+    String name;
+    Boolean available;
+    long ownerId;
+}
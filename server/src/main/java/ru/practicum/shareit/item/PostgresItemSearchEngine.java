@@ -0,0 +1,20 @@
+package ru.practicum.shareit.item;
+
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "postgres", matchIfMissing = true)
+public class PostgresItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Item> search(String text, int from, int size) {
+        return itemRepository.searchItemsRanked(text, from, size);
+    }
+}
@@ -0,0 +1,118 @@
+package ru.practicum.shareit.item;
+
+import java.util.Arrays;
+
+/**
+ * Immutable sorted set of item ids stored as variable-length encoded gaps between consecutive ids.
+ */
+final class PostingList {
+    static final PostingList EMPTY = new PostingList(new byte[0], 0, 0);
+
+    private final byte[] data;
+    private final int size;
+    private final long last;
+
+    private PostingList(byte[] data, int size, long last) {
+        this.data = data;
+        this.size = size;
+        this.last = last;
+    }
+
+    static PostingList of(long[] sortedIds) {
+        byte[] buffer = new byte[sortedIds.length * 10];
+        int length = 0;
+        long previous = 0;
+        for (long id : sortedIds) {
+            length = writeGap(buffer, length, id - previous);
+            previous = id;
+        }
+        return new PostingList(Arrays.copyOf(buffer, length), sortedIds.length, previous);
+    }
+
+    int size() {
+        return size;
+    }
+
+    int byteSize() {
+        return data.length;
+    }
+
+    PostingList add(long id) {
+        if (size == 0 || id > last) {
+            byte[] buffer = Arrays.copyOf(data, data.length + 10);
+            int length = writeGap(buffer, data.length, id - last);
+            return new PostingList(Arrays.copyOf(buffer, length), size + 1, id);
+        }
+        long[] ids = toArray();
+        int pos = Arrays.binarySearch(ids, id);
+        if (pos >= 0) {
+            return this;
+        }
+        int insertAt = -pos - 1;
+        long[] result = new long[ids.length + 1];
+        System.arraycopy(ids, 0, result, 0, insertAt);
+        result[insertAt] = id;
+        System.arraycopy(ids, insertAt, result, insertAt + 1, ids.length - insertAt);
+        return of(result);
+    }
+
+    PostingList remove(long id) {
+        long[] ids = toArray();
+        int pos = Arrays.binarySearch(ids, id);
+        if (pos < 0) {
+            return this;
+        }
+        long[] result = new long[ids.length - 1];
+        System.arraycopy(ids, 0, result, 0, pos);
+        System.arraycopy(ids, pos + 1, result, pos, ids.length - pos - 1);
+        return of(result);
+    }
+
+    long[] toArray() {
+        long[] ids = new long[size];
+        long current = 0;
+        int offset = 0;
+        for (int i = 0; i < size; i++) {
+            long gap = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[offset++];
+                gap |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            current += gap;
+            ids[i] = current;
+        }
+        return ids;
+    }
+
+    static long[] intersect(long[] sortedIds, PostingList other) {
+        long[] otherIds = other.toArray();
+        long[] result = new long[Math.min(sortedIds.length, otherIds.length)];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < sortedIds.length && j < otherIds.length) {
+            if (sortedIds[i] < otherIds[j]) {
+                i++;
+            } else if (sortedIds[i] > otherIds[j]) {
+                j++;
+            } else {
+                result[n++] = sortedIds[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, n);
+    }
+
+    private static int writeGap(byte[] buffer, int offset, long gap) {
+        while ((gap & ~0x7FL) != 0) {
+            buffer[offset++] = (byte) ((gap & 0x7F) | 0x80);
+            gap >>>= 7;
+        }
+        buffer[offset++] = (byte) gap;
+        return offset;
+    }
+}
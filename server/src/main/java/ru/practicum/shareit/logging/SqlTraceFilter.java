@@ -0,0 +1,38 @@
+package ru.practicum.shareit.logging;
+
+import java.io.IOException;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.slf4j.MDC;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Turns on SQL and bind-parameter logging for a single request carrying {@value #HEADER}{@code : true}, so a slow
+ * call can be diagnosed in production without raising the Hibernate log levels for all traffic.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.logging.sql-trace-header", havingValue = "true", matchIfMissing = true)
+public class SqlTraceFilter extends OncePerRequestFilter {
+    public static final String HEADER = "X-Sql-Trace";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!"true".equalsIgnoreCase(request.getHeader(HEADER))) {
+            chain.doFilter(request, response);
+            return;
+        }
+        MDC.put(SqlTraceTurboFilter.MDC_KEY, "on");
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            MDC.remove(SqlTraceTurboFilter.MDC_KEY);
+        }
+    }
+}
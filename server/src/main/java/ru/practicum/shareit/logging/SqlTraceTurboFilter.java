@@ -0,0 +1,35 @@
+package ru.practicum.shareit.logging;
+
+import java.util.List;
+
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+
+/**
+ * Lets the Hibernate SQL and bind-parameter loggers through, whatever their level, while the current thread serves a
+ * request that asked for it with {@link SqlTraceFilter#HEADER}. Everything else is left to the configured levels.
+ */
+public class SqlTraceTurboFilter extends TurboFilter {
+    static final String MDC_KEY = "sqlTrace";
+
+    private static final List<String> LOGGERS = List.of("org.hibernate.SQL", "org.hibernate.type.descriptor.sql");
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (MDC.get(MDC_KEY) == null) {
+            return FilterReply.NEUTRAL;
+        }
+        String name = logger.getName();
+        for (String prefix : LOGGERS) {
+            if (name.startsWith(prefix)) {
+                return FilterReply.ACCEPT;
+            }
+        }
+        return FilterReply.NEUTRAL;
+    }
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.metrics;
+
+import java.util.Arrays;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.booking.BookingStatusPresentation;
+
+/**
+ * Times every public service method as {@value #METRIC} with a percentile histogram, tagged by service, operation,
+ * outcome and, for booking listings, the requested state. Unknown states are tagged {@code UNKNOWN} so client input
+ * cannot blow up the number of series; methods without a state are tagged {@code none}, as Prometheus needs the same
+ * tag keys on every series of a metric.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class ServiceMetricsAspect {
+    public static final String METRIC = "shareit.service";
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("execution(public * ru.practicum.shareit..*ServiceImpl.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(METRIC)
+                    .tag("service", signature.getDeclaringType().getSimpleName())
+                    .tag("operation", signature.getName())
+                    .tag("state", state(signature, joinPoint.getArgs()))
+                    .tag("exception", exception)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    private static String state(MethodSignature signature, Object[] args) {
+        String[] names = signature.getParameterNames();
+        int index = names == null ? -1 : Arrays.asList(names).indexOf("state");
+        if (index < 0 || !(args[index] instanceof String)) {
+            return "none";
+        }
+        String state = (String) args[index];
+        return Arrays.stream(BookingStatusPresentation.values()).anyMatch(s -> s.name().equals(state))
+                ? state : "UNKNOWN";
+    }
+}
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.metrics;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.cloud.sleuth.Tracer;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Opens a child span named {@code Service.method} around every public service method. It is ordered before the
+ * transaction and cache advisors, so the span also covers the commit; the JDBC statements run inside it show up as
+ * its children.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class ServiceTracingAspect {
+    private final Tracer tracer;
+
+    @Around("execution(public * ru.practicum.shareit..*ServiceImpl.*(..))")
+    public Object trace(ProceedingJoinPoint joinPoint) throws Throwable {
+        Span span = tracer.nextSpan()
+                .name(joinPoint.getSignature().getDeclaringType().getSimpleName() + "."
+                        + joinPoint.getSignature().getName())
+                .start();
+        try (Tracer.SpanInScope ignored = tracer.withSpan(span)) {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.outbox;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.RawValue;
+
+/**
+ * Appends events to a newline-delimited JSON file, one object per event with its payload inlined, and forces them
+ * to disk before the relay removes them from the outbox.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.outbox.sink", havingValue = "file", matchIfMissing = true)
+public class FileOutboxSink implements OutboxSink {
+    private final ObjectMapper objectMapper;
+    private final Path file;
+
+    public FileOutboxSink(ObjectMapper objectMapper, @Value("${shareit.outbox.file}") Path file) {
+        this.objectMapper = objectMapper;
+        this.file = file;
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxEvent> events) {
+        ByteArrayOutputStream lines = new ByteArrayOutputStream();
+        try {
+            for (OutboxEvent event : events) {
+                ObjectNode line = objectMapper.createObjectNode()
+                        .put("id", event.getId())
+                        .put("aggregateType", event.getAggregateType())
+                        .put("aggregateId", event.getAggregateId())
+                        .put("eventType", event.getEventType())
+                        .put("created", event.getCreated().toString());
+                line.putRawValue("payload", new RawValue(event.getPayload()));
+                objectMapper.writeValue(lines, line);
+                lines.write('\n');
+            }
+            try (FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append outbox events to " + file, e);
+        }
+    }
+}
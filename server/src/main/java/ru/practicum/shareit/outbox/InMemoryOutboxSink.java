@@ -0,0 +1,26 @@
+package ru.practicum.shareit.outbox;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "shareit.outbox.sink", havingValue = "memory")
+public class InMemoryOutboxSink implements OutboxSink {
+    private final List<OutboxEvent> events = new ArrayList<>();
+
+    @Override
+    public synchronized void publish(List<OutboxEvent> events) {
+        this.events.addAll(events);
+    }
+
+    public synchronized List<OutboxEvent> getEvents() {
+        return List.copyOf(events);
+    }
+
+    public synchronized void clear() {
+        events.clear();
+    }
+}
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.outbox;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Records changes as {@link OutboxEvent}s in the transaction that makes them, for {@link OutboxRelay} to deliver
+ * once committed.
+ */
+@Component
+@RequiredArgsConstructor
+public class Outbox {
+    public static final String BOOKING = "BOOKING";
+    public static final String ITEM = "ITEM";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    public OutboxEvent event(String aggregateType, long aggregateId, String eventType, Object payload) {
+        try {
+            return OutboxEvent.builder()
+                    .aggregateType(aggregateType)
+                    .aggregateId(aggregateId)
+                    .eventType(eventType)
+                    .payload(objectMapper.writeValueAsString(payload))
+                    .created(LocalDateTime.now())
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Could not serialize " + eventType + " of " + aggregateType, e);
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(OutboxEvent event) {
+        append(List.of(event));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(List<OutboxEvent> events) {
+        // the aggregates are written, and their rows locked, before the events are inserted, so an aggregate's events
+        // take their seq_no in the order their transactions commit
+        entityManager.flush();
+        outboxEventRepository.saveAll(events);
+    }
+}
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.outbox;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+/**
+ * A change written in the same transaction as the aggregate it describes and relayed once committed. The table's
+ * {@code seq_no} is taken from a database sequence when the row is inserted and orders the events of an aggregate;
+ * it is not mapped, so inserts keep their batched, generated ids.
+ */
+@Data
+@Builder
+@Entity
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@Table(name = "outbox_events")
+@AllArgsConstructor
+@NoArgsConstructor
+public class OutboxEvent {
+
+    @Id
+    @EqualsAndHashCode.Include
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_events_seq")
+    @SequenceGenerator(name = "outbox_events_seq", sequenceName = "outbox_events_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "aggregate_type")
+    private String aggregateType;
+
+    @Column(name = "aggregate_id")
+    private long aggregateId;
+
+    @Column(name = "event_type")
+    private String eventType;
+
+    private String payload;
+
+    private LocalDateTime created;
+}
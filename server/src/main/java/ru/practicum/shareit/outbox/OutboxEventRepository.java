@@ -0,0 +1,30 @@
+package ru.practicum.shareit.outbox;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    /**
+     * Locks the oldest event of up to {@code limit} aggregates, skipping aggregates another relay is working on.
+     */
+    @Query(value = "select o.* from outbox_events o " +
+            "where not exists (select 1 from outbox_events p " +
+            "where p.aggregate_type = o.aggregate_type and p.aggregate_id = o.aggregate_id and p.seq_no < o.seq_no) " +
+            "order by o.seq_no " +
+            "limit :limit " +
+            "for update skip locked",
+            nativeQuery = true)
+    List<OutboxEvent> lockAggregateHeads(@Param("limit") int limit);
+
+    @Query(value = "select o.* from outbox_events o " +
+            "where o.aggregate_id in :aggregateIds " +
+            "order by o.seq_no",
+            nativeQuery = true)
+    List<OutboxEvent> findByAggregateIdInOrderBySeqNo(@Param("aggregateIds") Collection<Long> aggregateIds);
+}
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.outbox;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Delivers committed outbox events to the {@link OutboxSink} at least once and in order within an aggregate. Each
+ * batch locks the oldest event of up to {@value #BATCH_SIZE} aggregates with {@code SKIP LOCKED}, so several relays
+ * share the work without two of them holding the same aggregate; the locked aggregates' events are published in
+ * order and deleted in the same transaction, and a failed publish rolls the batch back for the next pass.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+    static final int BATCH_SIZE = 500;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxSink sink;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter relayed;
+    private final Timer lag;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, OutboxSink sink,
+                       TransactionTemplate transactionTemplate, MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.sink = sink;
+        this.transactionTemplate = transactionTemplate;
+        relayed = Counter.builder("shareit.outbox.relayed")
+                .description("Outbox events delivered to the sink")
+                .register(meterRegistry);
+        lag = Timer.builder("shareit.outbox.lag")
+                .description("Time from writing an outbox event to delivering it")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.outbox.relay-interval}")
+    public void relay() {
+        int total = 0;
+        int batch;
+        do {
+            batch = relayBatch();
+            total += batch;
+        } while (batch > 0);
+        if (total > 0) {
+            log.debug("Relayed {} outbox events", total);
+        }
+    }
+
+    int relayBatch() {
+        List<OutboxEvent> events = transactionTemplate.execute(status -> {
+            List<OutboxEvent> heads = outboxEventRepository.lockAggregateHeads(BATCH_SIZE);
+            if (heads.isEmpty()) {
+                return List.<OutboxEvent>of();
+            }
+            Set<String> aggregates = heads.stream().map(OutboxRelay::aggregate).collect(Collectors.toSet());
+            List<OutboxEvent> locked = outboxEventRepository.findByAggregateIdInOrderBySeqNo(heads.stream()
+                            .map(OutboxEvent::getAggregateId)
+                            .collect(Collectors.toSet()))
+                    .stream()
+                    .filter(event -> aggregates.contains(aggregate(event)))
+                    .collect(Collectors.toList());
+            sink.publish(locked);
+            outboxEventRepository.deleteAllByIdInBatch(locked.stream()
+                    .map(OutboxEvent::getId)
+                    .collect(Collectors.toList()));
+            return locked;
+        });
+        LocalDateTime now = LocalDateTime.now();
+        events.forEach(event -> lag.record(Duration.between(event.getCreated(), now)));
+        relayed.increment(events.size());
+        return events.size();
+    }
+
+    private static String aggregate(OutboxEvent event) {
+        return event.getAggregateType() + ':' + event.getAggregateId();
+    }
+}
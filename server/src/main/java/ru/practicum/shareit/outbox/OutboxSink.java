@@ -0,0 +1,14 @@
+package ru.practicum.shareit.outbox;
+
+import java.util.List;
+
+/**
+ * Where relayed events go. Events arrive in order within an aggregate and may arrive again after a failure, so
+ * consumers deduplicate by event id.
+ */
+public interface OutboxSink {
+    /**
+     * Returns only once the events are stored durably; a failure leaves them in the outbox for the next pass.
+     */
+    void publish(List<OutboxEvent> events);
+}
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.pagination;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Writes an unpaged listing as NDJSON, one record per line, while the producer reads it. Nothing but the current
+ * record is held, and the ETag filter is told not to buffer the body, so the heap stays flat whatever the size.
+ */
+public final class NdjsonExport {
+    private NdjsonExport() {
+    }
+
+    public static StreamingResponseBody body(HttpServletRequest request, ObjectMapper objectMapper,
+            Consumer<Consumer<Object>> producer) {
+        ShallowEtagHeaderFilter.disableContentCaching(request);
+        ObjectWriter writer = objectMapper.writer();
+        return out -> {
+            boolean[] first = {true};
+            try {
+                producer.accept(record -> {
+                    try {
+                        out.write(writer.writeValueAsBytes(record));
+                        out.write('\n');
+                        if (first[0]) {
+                            // sends the headers early, so a client waits on rows rather than on the whole query
+                            out.flush();
+                            first[0] = false;
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+    }
+}
@@ -0,0 +1,73 @@
+package ru.practicum.shareit.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.http.ResponseEntity;
+
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import ru.practicum.shareit.exception.BadRequestException;
+
+/**
+ * Opaque keyset position: the sort key and id of the last row of a page. Pages are then read with
+ * {@code where (key, id) < (cursor.key, cursor.id)} instead of an OFFSET scan.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class PageCursor {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime start;
+    private final long id;
+
+    public static PageCursor of(long id) {
+        return new PageCursor(null, id);
+    }
+
+    public static PageCursor of(LocalDateTime start, long id) {
+        return new PageCursor(start, id);
+    }
+
+    public static PageCursor decode(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(SEPARATOR);
+            if (separator < 0) {
+                return of(Long.parseLong(decoded));
+            }
+            return of(LocalDateTime.parse(decoded.substring(0, separator)),
+                    Long.parseLong(decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid cursor: " + value);
+        }
+    }
+
+    public String encode() {
+        String raw = start == null ? String.valueOf(id) : start + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static <T> ResponseEntity<List<T>> toResponse(List<T> page, int size, Function<T, PageCursor> cursorOf) {
+        if (page.isEmpty() || page.size() < size) {
+            return ResponseEntity.ok(page);
+        }
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, cursorOf.apply(page.get(page.size() - 1)).encode())
+                .body(page);
+    }
+}
@@ -5,6 +5,7 @@ import java.util.List;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
 
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -16,6 +17,7 @@ import org.springframework.web.bind.annotation.RestController;
 
 import lombok.RequiredArgsConstructor;
 import ru.practicum.shareit.request.dto.ItemRequestDtoReq;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDtoRsp;
 
 @RestController
@@ -45,10 +47,12 @@ public class ItemRequestController {
     }
 
     @GetMapping("/all")
-    public List<ItemRequestDtoRsp> getRequestsList(
+    public ResponseEntity<List<ItemRequestDtoRsp>> getRequestsList(
             @RequestHeader("X-Sharer-User-Id") long userId,
             @RequestParam(defaultValue = "0") @PositiveOrZero int from,
-            @RequestParam(defaultValue = "10") @Positive int size) {
-        return itemRequestService.getRequests(userId, from, size);
+            @RequestParam(defaultValue = "10") @Positive int size,
+            @RequestParam(required = false) String cursor) {
+        return PageCursor.toResponse(itemRequestService.getRequests(userId, from, size, cursor), size,
+                request -> PageCursor.of(request.getId()));
     }
 }
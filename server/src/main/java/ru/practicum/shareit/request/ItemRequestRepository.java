@@ -13,6 +13,10 @@ public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long>
 
     @Query("select itemRequest " +
             "from ItemRequest itemRequest " +
-            "where itemRequest.requestor.id != ?1")
+            "where itemRequest.requestor.id != ?1 " +
+            "order by itemRequest.id")
     List<ItemRequest> findAllPageable(long userId, Pageable pageable);
+
+    List<ItemRequest> findAllByRequestorIdNotAndIdGreaterThanOrderByIdAsc(long userId, long afterId,
+            Pageable pageable);
 }
@@ -12,5 +12,5 @@ public interface ItemRequestService {
 
     ItemRequestDtoRsp getInfo(long userId, long requestId);
 
-    List<ItemRequestDtoRsp> getRequests(long userId, int from, int size);
+    List<ItemRequestDtoRsp> getRequests(long userId, int from, int size, String cursor);
 }
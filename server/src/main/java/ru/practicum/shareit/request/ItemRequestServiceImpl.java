@@ -13,6 +13,7 @@ import lombok.extern.slf4j.Slf4j;
 import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDtoReq;
 import ru.practicum.shareit.request.dto.ItemRequestDtoRsp;
 import ru.practicum.shareit.request.exception.RequestNotFoundException;
@@ -30,7 +31,8 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     @Override
     public ItemRequestDtoRsp create(long userId, ItemRequestDtoReq itemRequestDtoRQ) {
-        User user = userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("User not found"));
+        userRepository.findSummaryById(userId).orElseThrow(() -> new UserNotFoundException("User not found"));
+        User user = userRepository.getReferenceById(userId);
         itemRequestDtoRQ.setCreated(LocalDateTime.now());
         ItemRequest itemRequest = requestRepository.save(ItemRequestMapper.toItemRequest(itemRequestDtoRQ, user));
         log.info("Request created");
@@ -39,7 +41,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     @Override
     public List<ItemRequestDtoRsp> getAllInfo(long userId) {
-        userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("User not found"));
+        userRepository.findSummaryById(userId).orElseThrow(() -> new UserNotFoundException("User not found"));
         List<ItemRequestDtoRsp> responseList = requestRepository.findAllByRequestorId(userId).stream()
                 .map(ItemRequestMapper::toItemRequestDtoRsp)
                 .collect(Collectors.toList());
@@ -49,7 +51,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     @Override
     public ItemRequestDtoRsp getInfo(long userId, long requestId) {
-        userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("User not found"));
+        userRepository.findSummaryById(userId).orElseThrow(() -> new UserNotFoundException("User not found"));
         ItemRequest itemRequest = requestRepository.findById(requestId)
                 .orElseThrow(() -> new RequestNotFoundException("Request not found"));
         List<ItemDto> items = itemRepository.findByItemRequestId(requestId).stream()
@@ -61,10 +63,13 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     }
 
     @Override
-    public List<ItemRequestDtoRsp> getRequests(long userId, int from, int size) {
-        int page = from / size;
-        PageRequest pageRequest = PageRequest.of(page, size);
-        List<ItemRequestDtoRsp> responseList = requestRepository.findAllPageable(userId, pageRequest).stream()
+    public List<ItemRequestDtoRsp> getRequests(long userId, int from, int size, String cursor) {
+        PageCursor pageCursor = PageCursor.decode(cursor);
+        List<ItemRequest> requests = pageCursor == null
+                ? requestRepository.findAllPageable(userId, PageRequest.of(from / size, size))
+                : requestRepository.findAllByRequestorIdNotAndIdGreaterThanOrderByIdAsc(userId, pageCursor.getId(),
+                        PageRequest.of(0, size));
+        List<ItemRequestDtoRsp> responseList = requests.stream()
                 .map(ItemRequestMapper::toItemRequestDtoRsp)
                 .collect(Collectors.toList());
         setItemsToRequests(responseList);
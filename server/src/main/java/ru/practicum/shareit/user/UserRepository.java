@@ -1,9 +1,19 @@
 package ru.practicum.shareit.user;
 
+import java.util.Optional;
+
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import ru.practicum.shareit.CachingConfig;
+
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
-
+    @Cacheable(cacheNames = CachingConfig.USERS, unless = "#result == null")
+    @Query("select new ru.practicum.shareit.user.UserSummary(u.id, u.name) " +
+            "from User u " +
+            "where u.id = ?1")
+    Optional<UserSummary> findSummaryById(long id);
 }
@@ -2,11 +2,14 @@ package ru.practicum.shareit.user;
 
 import java.util.List;
 
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import ru.practicum.shareit.CachingConfig;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 
@@ -41,6 +44,7 @@ public class UserServiceImpl implements UserService {
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CachingConfig.USERS, key = "#id")
     public UserDto updateUser(long id, UserDto userDto) {
         log.info("Request to update User = {} with id = {}", userDto, id);
         return userRepository.findById(id)
@@ -56,6 +60,10 @@ public class UserServiceImpl implements UserService {
 
     @Override
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CachingConfig.USERS, key = "#id"),
+            @CacheEvict(cacheNames = CachingConfig.ITEMS, allEntries = true)
+    })
     public void deleteUser(long id) {
         userRepository.deleteById(id);
     }
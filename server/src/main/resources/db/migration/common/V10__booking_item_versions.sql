@@ -0,0 +1,2 @@
+ALTER TABLE public.bookings ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT 0;
+ALTER TABLE public.items ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT 0;
@@ -0,0 +1,23 @@
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_start
+    ON public.bookings (booker, start_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS ix_bookings_item_status_start
+    ON public.bookings (item, status, start_date);
+
+CREATE INDEX IF NOT EXISTS ix_bookings_item_start
+    ON public.bookings (item, start_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS ix_bookings_status_end
+    ON public.bookings (status, end_date);
+
+CREATE INDEX IF NOT EXISTS ix_items_owner_id
+    ON public.items (owner, id);
+
+CREATE INDEX IF NOT EXISTS ix_items_request
+    ON public.items (request);
+
+CREATE INDEX IF NOT EXISTS ix_comments_item
+    ON public.comments (item_id);
+
+CREATE INDEX IF NOT EXISTS ix_item_requests_requestor_created
+    ON public.item_requests (requestor, created DESC);
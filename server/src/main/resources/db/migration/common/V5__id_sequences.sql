@@ -0,0 +1,5 @@
+CREATE SEQUENCE IF NOT EXISTS public.users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS public.item_requests_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS public.items_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS public.bookings_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS public.comments_seq START WITH 1 INCREMENT BY 50;
@@ -0,0 +1,44 @@
+CREATE TABLE IF NOT EXISTS public.item_booking_projection
+(
+    item_id bigint NOT NULL,
+    last_booking_id bigint,
+    last_start timestamp without time zone,
+    next_booking_id bigint,
+    next_start timestamp without time zone,
+    CONSTRAINT pk_item_booking_projection PRIMARY KEY (item_id)
+);
+
+ALTER TABLE IF EXISTS public.item_booking_projection
+    ADD CONSTRAINT fk_item_booking_projection_to_items FOREIGN KEY (item_id)
+    REFERENCES public.items (id)
+    ON UPDATE CASCADE
+    ON DELETE CASCADE;
+
+ALTER TABLE IF EXISTS public.item_booking_projection
+    ADD CONSTRAINT fk_item_booking_projection_to_last_booking FOREIGN KEY (last_booking_id)
+    REFERENCES public.bookings (id)
+    ON UPDATE CASCADE
+    ON DELETE SET NULL;
+
+ALTER TABLE IF EXISTS public.item_booking_projection
+    ADD CONSTRAINT fk_item_booking_projection_to_next_booking FOREIGN KEY (next_booking_id)
+    REFERENCES public.bookings (id)
+    ON UPDATE CASCADE
+    ON DELETE SET NULL;
+
+CREATE INDEX IF NOT EXISTS ix_item_booking_projection_next_start
+    ON public.item_booking_projection (next_start);
+
+INSERT INTO public.item_booking_projection (item_id, last_booking_id, last_start, next_booking_id, next_start)
+SELECT p.item_id, p.last_booking_id, l.start_date, p.next_booking_id, n.start_date
+FROM (SELECT i.id AS item_id,
+             (SELECT b.id FROM public.bookings b
+              WHERE b.item = i.id AND b.status = 'APPROVED' AND b.start_date <= LOCALTIMESTAMP
+              ORDER BY b.start_date DESC, b.id DESC LIMIT 1) AS last_booking_id,
+             (SELECT b.id FROM public.bookings b
+              WHERE b.item = i.id AND b.status = 'APPROVED' AND b.start_date > LOCALTIMESTAMP
+              ORDER BY b.start_date, b.id LIMIT 1) AS next_booking_id
+      FROM public.items i
+      WHERE EXISTS (SELECT 1 FROM public.bookings b WHERE b.item = i.id AND b.status = 'APPROVED')) p
+LEFT JOIN public.bookings l ON l.id = p.last_booking_id
+LEFT JOIN public.bookings n ON n.id = p.next_booking_id;
@@ -0,0 +1,20 @@
+CREATE SEQUENCE IF NOT EXISTS public.outbox_events_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS public.outbox_events_seq_no_seq START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE IF NOT EXISTS public.outbox_events
+(
+    id bigint NOT NULL,
+    seq_no bigint NOT NULL,
+    aggregate_type character varying(20) NOT NULL,
+    aggregate_id bigint NOT NULL,
+    event_type character varying(40) NOT NULL,
+    payload character varying(8000) NOT NULL,
+    created timestamp without time zone NOT NULL,
+    CONSTRAINT pk_outbox_events PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS ix_outbox_events_seq_no
+    ON public.outbox_events (seq_no);
+
+CREATE INDEX IF NOT EXISTS ix_outbox_events_aggregate
+    ON public.outbox_events (aggregate_type, aggregate_id, seq_no);
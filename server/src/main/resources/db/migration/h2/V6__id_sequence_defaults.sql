@@ -0,0 +1,14 @@
+ALTER TABLE public.users ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE public.users ALTER COLUMN id SET DEFAULT NEXT VALUE FOR public.users_seq;
+
+ALTER TABLE public.item_requests ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE public.item_requests ALTER COLUMN id SET DEFAULT NEXT VALUE FOR public.item_requests_seq;
+
+ALTER TABLE public.items ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE public.items ALTER COLUMN id SET DEFAULT NEXT VALUE FOR public.items_seq;
+
+ALTER TABLE public.bookings ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE public.bookings ALTER COLUMN id SET DEFAULT NEXT VALUE FOR public.bookings_seq;
+
+ALTER TABLE public.comments ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE public.comments ALTER COLUMN id SET DEFAULT NEXT VALUE FOR public.comments_seq;
@@ -0,0 +1 @@
+ALTER TABLE public.outbox_events ALTER COLUMN seq_no SET DEFAULT NEXT VALUE FOR public.outbox_events_seq_no_seq;
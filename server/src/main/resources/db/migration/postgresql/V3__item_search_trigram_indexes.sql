@@ -0,0 +1,7 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS ix_items_name_trgm
+    ON public.items USING gin (lower(name) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS ix_items_description_trgm
+    ON public.items USING gin (lower(description) gin_trgm_ops);
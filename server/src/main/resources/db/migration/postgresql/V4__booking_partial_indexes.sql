@@ -0,0 +1,12 @@
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_waiting
+    ON public.bookings (booker, start_date DESC, id DESC)
+    WHERE status = 'WAITING';
+
+CREATE INDEX IF NOT EXISTS ix_bookings_item_waiting
+    ON public.bookings (item, start_date DESC, id DESC)
+    WHERE status = 'WAITING';
+
+CREATE INDEX IF NOT EXISTS ix_bookings_item_blocking
+    ON public.bookings (item, start_date)
+    INCLUDE (end_date)
+    WHERE status IN ('WAITING', 'APPROVED');
@@ -0,0 +1,24 @@
+ALTER TABLE public.users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE public.users ALTER COLUMN id SET DEFAULT nextval('public.users_seq');
+ALTER SEQUENCE public.users_seq OWNED BY public.users.id;
+SELECT setval('public.users_seq', COALESCE((SELECT MAX(id) FROM public.users), 0) + 1, false);
+
+ALTER TABLE public.item_requests ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE public.item_requests ALTER COLUMN id SET DEFAULT nextval('public.item_requests_seq');
+ALTER SEQUENCE public.item_requests_seq OWNED BY public.item_requests.id;
+SELECT setval('public.item_requests_seq', COALESCE((SELECT MAX(id) FROM public.item_requests), 0) + 1, false);
+
+ALTER TABLE public.items ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE public.items ALTER COLUMN id SET DEFAULT nextval('public.items_seq');
+ALTER SEQUENCE public.items_seq OWNED BY public.items.id;
+SELECT setval('public.items_seq', COALESCE((SELECT MAX(id) FROM public.items), 0) + 1, false);
+
+ALTER TABLE public.bookings ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE public.bookings ALTER COLUMN id SET DEFAULT nextval('public.bookings_seq');
+ALTER SEQUENCE public.bookings_seq OWNED BY public.bookings.id;
+SELECT setval('public.bookings_seq', COALESCE((SELECT MAX(id) FROM public.bookings), 0) + 1, false);
+
+ALTER TABLE public.comments ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE public.comments ALTER COLUMN id SET DEFAULT nextval('public.comments_seq');
+ALTER SEQUENCE public.comments_seq OWNED BY public.comments.id;
+SELECT setval('public.comments_seq', COALESCE((SELECT MAX(id) FROM public.comments), 0) + 1, false);
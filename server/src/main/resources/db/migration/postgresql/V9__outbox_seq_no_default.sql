@@ -0,0 +1,2 @@
+ALTER TABLE public.outbox_events ALTER COLUMN seq_no SET DEFAULT nextval('public.outbox_events_seq_no_seq');
+ALTER SEQUENCE public.outbox_events_seq_no_seq OWNED BY public.outbox_events.seq_no;
@@ -0,0 +1,195 @@
+package ru.practicum.shareit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.item.Comment;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemSearchEngine;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+/**
+ * Calls every endpoint of the booking, item and request controllers against pages of {@value #ROWS} rows that
+ * all reference different users, and fails when an endpoint prepares more SQL statements than its budget.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class EndpointStatementCountTest {
+    private static final int ROWS = 20;
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private ItemSearchEngine itemSearchEngine;
+
+    private Statistics statistics;
+    private User user;
+    private final List<User> others = new ArrayList<>();
+    private final List<Item> ownItems = new ArrayList<>();
+    private final List<Item> otherItems = new ArrayList<>();
+    private final List<ItemRequest> requests = new ArrayList<>();
+    private Booking waiting;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        LocalDateTime now = LocalDateTime.now();
+        user = userRepository.save(User.builder().name("user").email("user@mail.ru").build());
+        for (int i = 0; i < ROWS; i++) {
+            User other = userRepository.save(User.builder().name("other" + i).email("other" + i + "@mail.ru").build());
+            others.add(other);
+            ItemRequest request = itemRequestRepository.save(ItemRequest.builder()
+                    .description("request " + i)
+                    .requestor(user)
+                    .created(now.minusDays(1))
+                    .build());
+            requests.add(request);
+            Item own = itemRepository.save(Item.builder()
+                    .name("drill " + i)
+                    .description("own drill")
+                    .available(true)
+                    .owner(user)
+                    .build());
+            ownItems.add(own);
+            Item answer = itemRepository.save(Item.builder()
+                    .name("drill answer " + i)
+                    .description("other drill")
+                    .available(true)
+                    .owner(other)
+                    .request(request)
+                    .build());
+            otherItems.add(answer);
+            itemSearchEngine.index(own);
+            itemSearchEngine.index(answer);
+            bookingRepository.save(booking(own, other, now.minusDays(3), BookingStatus.APPROVED));
+            bookingRepository.save(booking(own, other, now.plusDays(3), BookingStatus.APPROVED));
+            bookingRepository.save(booking(answer, user, now.minusDays(3), BookingStatus.APPROVED));
+            commentRepository.save(Comment.builder()
+                    .text("comment " + i)
+                    .item(own)
+                    .author(other)
+                    .created(now.minusDays(1))
+                    .build());
+        }
+        waiting = bookingRepository.save(booking(ownItems.get(0), others.get(0), now.plusDays(10),
+                BookingStatus.WAITING));
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (String table : List.of("outbox_events", "comments", "bookings", "items", "item_requests", "users")) {
+            jdbcTemplate.update("delete from " + table);
+        }
+    }
+
+    @Test
+    void bookingEndpoints() throws Exception {
+        // every write also inserts an outbox event, and may fetch the next block of outbox ids
+        assertStatements(6, post("/bookings").contentType(MediaType.APPLICATION_JSON)
+                .header(USER_HEADER, user.getId())
+                .content("{\"itemId\": " + otherItems.get(1).getId() + ", \"start\": \""
+                        + LocalDateTime.now().plusDays(20) + "\", \"end\": \"" + LocalDateTime.now().plusDays(21)
+                        + "\"}"));
+        // approving also advances the item's last/next booking projection: one select and one write; it checks for
+        // approved overlaps first
+        assertStatements(7, patch("/bookings/" + waiting.getId()).param("approved", "true")
+                .header(USER_HEADER, user.getId()));
+        assertStatements(1, get("/bookings/" + waiting.getId()).header(USER_HEADER, user.getId()));
+        assertStatements(2, get("/bookings").param("size", String.valueOf(ROWS)).header(USER_HEADER, user.getId()));
+        assertStatements(2, get("/bookings/owner").param("size", String.valueOf(ROWS))
+                .header(USER_HEADER, user.getId()));
+    }
+
+    @Test
+    void itemEndpoints() throws Exception {
+        assertStatements(3, get("/items/" + ownItems.get(0).getId()).header(USER_HEADER, user.getId()));
+        assertStatements(3, get("/items").param("size", String.valueOf(ROWS)).header(USER_HEADER, user.getId()));
+        assertStatements(1, get("/items/search").param("text", "drill").param("size", String.valueOf(ROWS))
+                .header(USER_HEADER, user.getId()));
+        // item writes also insert an outbox event, and may fetch the next block of outbox ids
+        assertStatements(6, post("/items").contentType(MediaType.APPLICATION_JSON)
+                .header(USER_HEADER, user.getId())
+                .content("{\"name\": \"saw\", \"description\": \"saw\", \"available\": true, \"requestId\": "
+                        + requests.get(0).getId() + "}"));
+        assertStatements(3, patch("/items/" + ownItems.get(0).getId()).contentType(MediaType.APPLICATION_JSON)
+                .header(USER_HEADER, user.getId())
+                .content("{\"name\": \"hammer drill\"}"));
+        assertStatements(4, post("/items/" + otherItems.get(0).getId() + "/comment")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(USER_HEADER, user.getId())
+                .content("{\"text\": \"fine\"}"));
+    }
+
+    @Test
+    void requestEndpoints() throws Exception {
+        assertStatements(2, post("/requests").contentType(MediaType.APPLICATION_JSON)
+                .header(USER_HEADER, user.getId())
+                .content("{\"description\": \"need a ladder\"}"));
+        assertStatements(3, get("/requests").header(USER_HEADER, user.getId()));
+        assertStatements(3, get("/requests/" + requests.get(0).getId()).header(USER_HEADER, user.getId()));
+        assertStatements(2, get("/requests/all").param("size", String.valueOf(ROWS))
+                .header(USER_HEADER, others.get(0).getId()));
+    }
+
+    private void assertStatements(long budget, MockHttpServletRequestBuilder request) throws Exception {
+        statistics.clear();
+        mvc.perform(request).andExpect(status().is2xxSuccessful());
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= budget, "Expected at most " + budget + " statements, but was " + statements);
+    }
+
+    private static Booking booking(Item item, User booker, LocalDateTime start, BookingStatus status) {
+        return Booking.builder()
+                .item(item)
+                .booker(booker)
+                .start(start)
+                .end(start.plusDays(1))
+                .status(status)
+                .build();
+    }
+}
@@ -0,0 +1,165 @@
+package ru.practicum.shareit;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class EtagTest {
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+    private User booker;
+    private Item item;
+    private Booking booking;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder().name("user").email("etag@mail.ru").build());
+        booker = userRepository.save(User.builder().name("booker").email("booker@mail.ru").build());
+        item = itemRepository.save(Item.builder()
+                .name("drill")
+                .description("drill")
+                .available(true)
+                .owner(user)
+                .build());
+        booking = bookingRepository.save(Booking.builder()
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.WAITING)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (String table : List.of("outbox_events", "bookings", "items", "users")) {
+            jdbcTemplate.update("delete from " + table);
+        }
+    }
+
+    @Test
+    void get_whenIfNoneMatchesCurrent_thenNotModified() throws Exception {
+        String etag = mvc.perform(get("/users/{id}", user.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        assertTrue(etag.startsWith("\""));
+
+        mvc.perform(get("/users/{id}", user.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void get_whenChanged_thenNewEtag() throws Exception {
+        String etag = mvc.perform(get("/users/{id}", user.getId()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mvc.perform(patch("/users/{id}", user.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"renamed\"}"))
+                .andExpect(status().isOk());
+
+        String changed = mvc.perform(get("/users/{id}", user.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, changed);
+    }
+
+    @Test
+    void getItem_whenIfNoneMatchesVersion_thenNotModified() throws Exception {
+        String etag = mvc.perform(get("/items/{id}", item.getId()).header("X-Sharer-User-Id", user.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertTrue(etag.startsWith("\"item-" + item.getId() + "-"));
+
+        mvc.perform(get("/items/{id}", item.getId())
+                        .header("X-Sharer-User-Id", user.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        mvc.perform(patch("/items/{id}", item.getId())
+                        .header("X-Sharer-User-Id", user.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"hammer\"}"))
+                .andExpect(status().isOk());
+
+        mvc.perform(get("/items/{id}", item.getId())
+                        .header("X-Sharer-User-Id", user.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getBooking_whenBookerRenamed_thenNewEtag() throws Exception {
+        String etag = mvc.perform(get("/bookings/{id}", booking.getId()).header("X-Sharer-User-Id", user.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertTrue(etag.startsWith("\"booking-" + booking.getId() + "-"));
+
+        mvc.perform(get("/bookings/{id}", booking.getId())
+                        .header("X-Sharer-User-Id", booker.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        mvc.perform(patch("/users/{id}", booker.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"renamed\"}"))
+                .andExpect(status().isOk());
+
+        String changed = mvc.perform(get("/bookings/{id}", booking.getId())
+                        .header("X-Sharer-User-Id", user.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, changed);
+    }
+
+    @Test
+    void getBooking_whenOtherUserSendsEtag_thenNotFound() throws Exception {
+        User other = userRepository.save(User.builder().name("other").email("other@mail.ru").build());
+        String etag = mvc.perform(get("/bookings/{id}", booking.getId()).header("X-Sharer-User-Id", user.getId()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mvc.perform(get("/bookings/{id}", booking.getId())
+                        .header("X-Sharer-User-Id", other.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotFound());
+    }
+}
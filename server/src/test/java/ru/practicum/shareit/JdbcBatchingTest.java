@@ -0,0 +1,179 @@
+package ru.practicum.shareit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
+import ru.practicum.shareit.booking.dto.BookingDtoRequest;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResult;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+/**
+ * Counts the JDBC executions behind the batch create and import paths and fails when Hibernate sends one insert per
+ * row instead of {@code hibernate.jdbc.batch_size} rows at a time, including the outbox events written alongside.
+ */
+@SpringBootTest
+class JdbcBatchingTest {
+    private static final int ENTRIES = 120;
+    private static final InsertCounter BOOKING_INSERTS = new InsertCounter("insert into bookings");
+    private static final InsertCounter ITEM_INSERTS = new InsertCounter("insert into items");
+    private static final InsertCounter OUTBOX_INSERTS = new InsertCounter("insert into outbox_events");
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        for (String table : List.of("outbox_events", "bookings", "items", "item_requests", "users")) {
+            jdbcTemplate.update("delete from " + table);
+        }
+    }
+
+    @Test
+    void createBookings_thenInsertsSentInBatches() {
+        User owner = userRepository.save(User.builder().name("owner").email("owner@mail.ru").build());
+        User booker = userRepository.save(User.builder().name("booker").email("booker@mail.ru").build());
+        Item item = itemRepository.save(Item.builder()
+                .name("drill")
+                .description("drill")
+                .available(true)
+                .owner(owner)
+                .build());
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<BookingDtoRequest> requests = new ArrayList<>();
+        for (int i = 0; i < ENTRIES; i++) {
+            requests.add(BookingDtoRequest.builder()
+                    .start(start.plusHours(2L * i))
+                    .end(start.plusHours(2L * i + 1))
+                    .itemId(item.getId())
+                    .build());
+        }
+
+        BOOKING_INSERTS.reset();
+        OUTBOX_INSERTS.reset();
+        List<BookingBatchResult> results = bookingService.createBookings(booker.getId(), requests);
+
+        assertTrue(results.stream().allMatch(result -> result.getStatus() == 200));
+        assertEquals(ENTRIES, BOOKING_INSERTS.rows.get());
+        assertEquals(3, BOOKING_INSERTS.executions.get());
+        assertEquals(ENTRIES, OUTBOX_INSERTS.rows.get());
+        assertEquals(3, OUTBOX_INSERTS.executions.get());
+    }
+
+    @Test
+    void importItems_thenInsertsSentInBatchesWithRequestsResolved() {
+        User owner = userRepository.save(User.builder().name("owner").email("owner@mail.ru").build());
+        User requestor = userRepository.save(User.builder().name("requestor").email("requestor@mail.ru").build());
+        ItemRequest request = itemRequestRepository.save(ItemRequest.builder()
+                .description("need a drill")
+                .requestor(requestor)
+                .created(LocalDateTime.now())
+                .build());
+        List<ItemDto> items = new ArrayList<>();
+        for (int i = 0; i < ENTRIES; i++) {
+            items.add(ItemDto.builder()
+                    .name("drill " + i)
+                    .description("drill")
+                    .available(true)
+                    .requestId(i % 10 == 0 ? request.getId() : null)
+                    .build());
+        }
+
+        ITEM_INSERTS.reset();
+        ItemImportResult result = itemService.importItems(owner.getId(), items.iterator());
+
+        assertEquals(ENTRIES, result.getImported());
+        assertEquals(ENTRIES, ITEM_INSERTS.rows.get());
+        assertEquals(3, ITEM_INSERTS.executions.get());
+        assertEquals(ENTRIES / 10L, jdbcTemplate.queryForObject("select count(*) from items where request = ?",
+                Long.class, request.getId()));
+    }
+
+    @TestConfiguration
+    static class CountingDataSourceConfig {
+        @Bean
+        static BeanPostProcessor countingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource) {
+                        return ProxyDataSourceBuilder.create((DataSource) bean)
+                                .listener(BOOKING_INSERTS)
+                                .listener(ITEM_INSERTS)
+                                .listener(OUTBOX_INSERTS)
+                                .build();
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+
+    private static class InsertCounter implements QueryExecutionListener {
+        private final String prefix;
+        private final AtomicInteger executions = new AtomicInteger();
+        private final AtomicInteger rows = new AtomicInteger();
+
+        InsertCounter(String prefix) {
+            this.prefix = prefix;
+        }
+
+        void reset() {
+            executions.set(0);
+            rows.set(0);
+        }
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            for (QueryInfo query : queryInfoList) {
+                if (query.getQuery().toLowerCase(Locale.ROOT).startsWith(prefix)) {
+                    executions.incrementAndGet();
+                    rows.addAndGet(execInfo.isBatch() ? query.getParametersList().size() : 1);
+                }
+            }
+        }
+    }
+}
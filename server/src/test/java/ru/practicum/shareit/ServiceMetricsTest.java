@@ -0,0 +1,84 @@
+package ru.practicum.shareit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.search.Search;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.exception.ErrorHandler;
+import ru.practicum.shareit.metrics.ServiceMetricsAspect;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ServiceMetricsTest {
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder().name("user").email("metrics@mail.ru").build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from users");
+    }
+
+    @Test
+    void getBookings_thenTimedByState() {
+        long before = timerCount("getBookings", "PAST", "none");
+
+        bookingService.getBookings(user.getId(), "PAST", 0, 10, null);
+
+        assertEquals(before + 1, timerCount("getBookings", "PAST", "none"));
+    }
+
+    @Test
+    void getBookings_whenUnknownState_thenTaggedUnknownAndErrorCounted() throws Exception {
+        long before = timerCount("getBookings", "UNKNOWN", "BadRequestException");
+        double errors = errorCount("BadRequestException");
+
+        mvc.perform(get("/bookings").param("state", "SOMETHING").header("X-Sharer-User-Id", user.getId()))
+                .andExpect(status().isBadRequest());
+
+        assertEquals(before + 1, timerCount("getBookings", "UNKNOWN", "BadRequestException"));
+        assertEquals(errors + 1, errorCount("BadRequestException"));
+    }
+
+    private long timerCount(String operation, String state, String exception) {
+        Search search = meterRegistry.find(ServiceMetricsAspect.METRIC)
+                .tag("service", "BookingServiceImpl")
+                .tag("operation", operation)
+                .tag("state", state)
+                .tag("exception", exception);
+        return search.timer() == null ? 0 : search.timer().count();
+    }
+
+    private double errorCount(String exception) {
+        Search search = meterRegistry.find(ErrorHandler.METRIC).tag("exception", exception);
+        return search.counter() == null ? 0 : search.counter().count();
+    }
+}
@@ -0,0 +1,113 @@
+package ru.practicum.shareit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+@SpringBootTest
+class SummaryCacheTest {
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder().name("user").email("cached@mail.ru").build());
+        item = itemRepository.save(Item.builder()
+                .name("drill")
+                .description("drill")
+                .available(true)
+                .owner(user)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (String table : List.of("items", "users")) {
+            jdbcTemplate.update("delete from " + table);
+        }
+    }
+
+    @Test
+    void findSummaryById_whenRepeated_thenServedFromCache() {
+        double hits = cacheGets(CachingConfig.USERS, "hit");
+
+        userRepository.findSummaryById(user.getId());
+        userRepository.findSummaryById(user.getId());
+
+        assertEquals(hits + 1, cacheGets(CachingConfig.USERS, "hit"));
+    }
+
+    @Test
+    void updateUser_thenSummaryEvicted() {
+        userRepository.findSummaryById(user.getId());
+
+        userService.updateUser(user.getId(), UserDto.builder().name("renamed").build());
+
+        assertEquals("renamed", userRepository.findSummaryById(user.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void updateItem_thenSummaryEvicted() {
+        itemRepository.findSummaryById(item.getId());
+
+        itemService.updateItem(item.getId(), ItemDto.builder().available(false).build(), user.getId());
+
+        assertFalse(itemRepository.findSummaryById(item.getId()).orElseThrow().getAvailable());
+    }
+
+    @Test
+    void deleteUser_thenUserAndItemSummariesEvicted() {
+        userRepository.findSummaryById(user.getId());
+        itemRepository.findSummaryById(item.getId());
+
+        userService.deleteUser(user.getId());
+
+        assertFalse(userRepository.findSummaryById(user.getId()).isPresent());
+        assertFalse(itemRepository.findSummaryById(item.getId()).isPresent());
+    }
+
+    @Test
+    void findSummaryById_whenMissing_thenNotCached() {
+        long missing = user.getId() + 1000;
+        assertFalse(userRepository.findSummaryById(missing).isPresent());
+
+        jdbcTemplate.update("insert into users (id, name, email) values (?, 'late', 'late@mail.ru')", missing);
+
+        assertEquals("late", userRepository.findSummaryById(missing).orElseThrow().getName());
+    }
+
+    private double cacheGets(String cache, String result) {
+        return meterRegistry.get("cache.gets").tag("cache", cache).tag("result", result).functionCounter().count();
+    }
+}
@@ -0,0 +1,75 @@
+package ru.practicum.shareit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import ru.practicum.shareit.tracing.RecentSpansHandler;
+import ru.practicum.shareit.tracing.SpanRecord;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class TracingTest {
+    private static final String TRACE_ID = "463ac35c9f6413ad48485a3953bb6124";
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RecentSpansHandler recentSpansHandler;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder().name("user").email("tracing@mail.ru").build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from users");
+    }
+
+    @Test
+    void getBookings_whenTraceHeaders_thenServiceAndJdbcSpansJoinTrace() throws Exception {
+        mvc.perform(get("/bookings/owner").param("state", "CURRENT")
+                        .header("X-Sharer-User-Id", user.getId())
+                        .header("X-B3-TraceId", TRACE_ID)
+                        .header("X-B3-SpanId", "a2fb4a1d1a96d312")
+                        .header("X-B3-Sampled", "1"))
+                .andExpect(status().isOk());
+
+        List<SpanRecord> spans = recentSpansHandler.getSpans(TRACE_ID);
+        Map<String, SpanRecord> byId = spans.stream()
+                .collect(Collectors.toMap(SpanRecord::getSpanId, Function.identity()));
+        SpanRecord service = spans.stream()
+                .filter(span -> "BookingServiceImpl.getBookingFromOwner".equals(span.getName()))
+                .findFirst()
+                .orElseThrow();
+        SpanRecord server = byId.get(service.getParentId());
+        assertEquals("SERVER", server.getKind());
+        assertTrue(spans.stream()
+                .anyMatch(span -> service.getSpanId().equals(span.getParentId())
+                        && span.getTags().containsKey("jdbc.query")));
+    }
+}
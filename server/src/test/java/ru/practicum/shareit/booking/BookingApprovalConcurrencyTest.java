@@ -0,0 +1,115 @@
+package ru.practicum.shareit.booking;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import ru.practicum.shareit.booking.exception.BookingNotAvailableException;
+import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+/**
+ * Approves overlapping bookings of one item from many threads at once, each booking twice, and fails when more than
+ * one approval commits or a caller gets anything but a success or a refusal.
+ */
+@SpringBootTest
+class BookingApprovalConcurrencyTest {
+    private static final int BOOKINGS = 16;
+    private static final int THREADS = 2 * BOOKINGS;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        for (String table : List.of("outbox_events", "bookings", "items", "users")) {
+            jdbcTemplate.update("delete from " + table);
+        }
+    }
+
+    @Test
+    void updateBooking_whenOverlappingApprovalsRace_thenOneApproved() throws Exception {
+        User owner = userRepository.save(User.builder().name("owner").email("owner@mail.ru").build());
+        User booker = userRepository.save(User.builder().name("booker").email("booker@mail.ru").build());
+        Item item = itemRepository.save(Item.builder()
+                .name("drill")
+                .description("drill")
+                .available(true)
+                .owner(owner)
+                .build());
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            // written around the service, which would refuse to create overlapping bookings
+            bookings.add(Booking.builder()
+                    .item(item)
+                    .booker(booker)
+                    .start(start.plusMinutes(i))
+                    .end(start.plusHours(2).plusMinutes(i))
+                    .status(BookingStatus.WAITING)
+                    .build());
+        }
+        bookingRepository.saveAll(bookings);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startGate = new CountDownLatch(1);
+        AtomicInteger approved = new AtomicInteger();
+        AtomicInteger refused = new AtomicInteger();
+        List<Future<?>> calls = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                long bookingId = bookings.get(i % BOOKINGS).getId();
+                calls.add(executor.submit(() -> {
+                    startGate.await();
+                    try {
+                        bookingService.updateBooking(bookingId, owner.getId(), true);
+                        approved.incrementAndGet();
+                    } catch (BookingNotAvailableException | BadRequestException e) {
+                        refused.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            startGate.countDown();
+            for (Future<?> call : calls) {
+                call.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, approved.get());
+        assertEquals(THREADS - 1, refused.get());
+        assertEquals(1, jdbcTemplate.queryForObject("select count(*) from bookings where status = 'APPROVED'",
+                Integer.class));
+        assertTrue(bookingRepository.findAll().stream()
+                .filter(booking -> booking.getStatus() == BookingStatus.APPROVED)
+                .allMatch(booking -> booking.getVersion() == 1));
+    }
+}
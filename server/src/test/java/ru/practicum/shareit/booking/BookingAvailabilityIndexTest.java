@@ -0,0 +1,145 @@
+package ru.practicum.shareit.booking;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import ru.practicum.shareit.item.Item;
+
+@ExtendWith(MockitoExtension.class)
+class BookingAvailabilityIndexTest {
+    @Mock
+    BookingRepository bookingRepository;
+    BookingAvailabilityIndex index;
+
+    LocalDateTime base = LocalDateTime.now().plusDays(1);
+    Item item = Item.builder()
+            .id(1L)
+            .name("name")
+            .available(true)
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        index = new BookingAvailabilityIndex(bookingRepository, "striped");
+    }
+
+    @Test
+    void isAvailable_whenCold_thenAskDatabase() {
+        when(bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(anyLong(), any(), any(), any()))
+                .thenReturn(true);
+
+        assertFalse(index.isWarm());
+        assertFalse(index.isAvailable(1L, base, base.plusHours(1)));
+    }
+
+    @Test
+    void isAvailable_whenWarm_thenAnswerFromIndex() {
+        when(bookingRepository.findIntervals(any(), any()))
+                .thenReturn(List.of(new BookingInterval(10L, 1L, base, base.plusHours(2))));
+        index.warmUp();
+
+        assertTrue(index.isWarm());
+        assertFalse(index.isAvailable(1L, base.plusHours(1), base.plusHours(3)));
+        assertFalse(index.isAvailable(1L, base.minusHours(1), base.plusMinutes(1)));
+        assertTrue(index.isAvailable(1L, base.plusHours(2), base.plusHours(3)));
+        assertTrue(index.isAvailable(1L, base.minusHours(1), base));
+        assertTrue(index.isAvailable(2L, base, base.plusHours(1)));
+        verify(bookingRepository, never())
+                .existsByItemIdAndStatusInAndStartBeforeAndEndAfter(anyLong(), any(), any(), any());
+    }
+
+    @Test
+    void isAvailable_whenLongBookingCoversLaterOnes() {
+        when(bookingRepository.findIntervals(any(), any())).thenReturn(List.of(
+                new BookingInterval(1L, 1L, base, base.plusDays(10)),
+                new BookingInterval(2L, 1L, base.plusDays(1), base.plusDays(2)),
+                new BookingInterval(3L, 1L, base.plusDays(3), base.plusDays(4))));
+        index.warmUp();
+
+        assertFalse(index.isAvailable(1L, base.plusDays(5), base.plusDays(6)));
+        assertTrue(index.isAvailable(1L, base.plusDays(10), base.plusDays(11)));
+    }
+
+    @Test
+    void addAndRemove_thenIndexUpdated() {
+        when(bookingRepository.findIntervals(any(), any())).thenReturn(Collections.emptyList());
+        index.warmUp();
+        Booking booking = Booking.builder()
+                .id(5L)
+                .start(base)
+                .end(base.plusHours(1))
+                .item(item)
+                .status(BookingStatus.WAITING)
+                .build();
+
+        index.add(booking);
+        assertFalse(index.isAvailable(1L, base, base.plusMinutes(30)));
+
+        index.remove(booking);
+        assertTrue(index.isAvailable(1L, base, base.plusMinutes(30)));
+    }
+
+    @Test
+    void isAvailable_whenStartBeforeCoverage_thenAskDatabase() {
+        when(bookingRepository.findIntervals(any(), any())).thenReturn(Collections.emptyList());
+        index.warmUp();
+
+        assertTrue(index.isAvailable(1L, LocalDateTime.now().minusDays(1), LocalDateTime.now().minusHours(1)));
+        verify(bookingRepository).existsByItemIdAndStatusInAndStartBeforeAndEndAfter(anyLong(), any(), any(), any());
+    }
+
+    @Test
+    void evictEnded_thenEndedIntervalsDroppedAndEarlierStartsAskDatabase() {
+        when(bookingRepository.findIntervals(any(), any())).thenReturn(List.of(
+                new BookingInterval(1L, 1L, base, base.plusHours(2)),
+                new BookingInterval(2L, 1L, base.plusHours(3), base.plusDays(10)),
+                new BookingInterval(3L, 2L, base, base.plusHours(1))));
+        index.warmUp();
+
+        index.evictEnded(base.plusHours(2));
+
+        assertEquals(1, index.itemCount());
+        assertTrue(index.isAvailable(1L, base.plusHours(2), base.plusHours(3)));
+        assertFalse(index.isAvailable(1L, base.plusHours(5), base.plusHours(6)));
+        verify(bookingRepository, never())
+                .existsByItemIdAndStatusInAndStartBeforeAndEndAfter(anyLong(), any(), any(), any());
+
+        assertTrue(index.isAvailable(1L, base.plusHours(1), base.plusHours(3)));
+        verify(bookingRepository).existsByItemIdAndStatusInAndStartBeforeAndEndAfter(anyLong(), any(), any(), any());
+    }
+
+    @Test
+    void isAvailable_whenAdvisoryLocks_thenAlwaysAskDatabase() {
+        BookingAvailabilityIndex index = new BookingAvailabilityIndex(bookingRepository, "advisory");
+        index.warmUp();
+        index.add(Booking.builder()
+                .id(5L)
+                .start(base)
+                .end(base.plusHours(1))
+                .item(item)
+                .status(BookingStatus.WAITING)
+                .build());
+
+        assertFalse(index.isWarm());
+        assertEquals(0, index.itemCount());
+        assertTrue(index.isAvailable(1L, base, base.plusMinutes(30)));
+        verify(bookingRepository, never()).findIntervals(any(), any());
+        verify(bookingRepository).existsByItemIdAndStatusInAndStartBeforeAndEndAfter(anyLong(), any(), any(), any());
+    }
+}
@@ -1,42 +1,58 @@
 package ru.practicum.shareit.booking;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.function.Consumer;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.RequiredArgsConstructor;
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
 import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.pagination.PageCursor;
 
 @WebMvcTest(controllers = BookingController.class)
+@Import(SimpleMeterRegistry.class)
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 class BookingControllerTest {
     private final ObjectMapper objectMapper;
     private final MockMvc mvc;
     @MockBean
     BookingService bookingService;
+    @MockBean
+    BookingEventBus bookingEventBus;
 
     BookingDtoResponse.Booker user = new BookingDtoResponse.Booker(
             1L,
@@ -106,7 +122,7 @@ class BookingControllerTest {
 
     @Test
     void getByBookerTest() throws Exception {
-        when(bookingService.getBookings(anyLong(), anyString(), anyInt(), anyInt()))
+        when(bookingService.getBookings(anyLong(), anyString(), anyInt(), anyInt(), any()))
                 .thenReturn(Collections.singletonList(bookingDtoResponse));
 
         mvc.perform(get("/bookings")
@@ -117,12 +133,28 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$[0].item.id").value(1L))
                 .andExpect(jsonPath("$[0].item.name").value("name"))
                 .andExpect(jsonPath("$[0].booker.name").value("name"));
-        verify(bookingService, times(1)).getBookings(user.getId(), "ALL", 0, 10);
+        verify(bookingService, times(1)).getBookings(user.getId(), "ALL", 0, 10, null);
+    }
+
+    @Test
+    void getByBooker_whenPageFull_thenNextCursorHeader() throws Exception {
+        when(bookingService.getBookings(anyLong(), anyString(), anyInt(), anyInt(), any()))
+                .thenReturn(Collections.singletonList(bookingDtoResponse));
+        String cursor = PageCursor.of(bookingDtoResponse.getStart(), bookingDtoResponse.getId()).encode();
+
+        mvc.perform(get("/bookings")
+                .param("size", "1")
+                .param("cursor", "abc")
+                .accept(MediaType.APPLICATION_JSON)
+                .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().string(PageCursor.NEXT_CURSOR_HEADER, cursor));
+        verify(bookingService, times(1)).getBookings(user.getId(), "ALL", 0, 1, "abc");
     }
 
     @Test
     void getByOwnerTest() throws Exception {
-        when(bookingService.getBookingFromOwner(anyLong(), anyString(), anyInt(), anyInt()))
+        when(bookingService.getBookingFromOwner(anyLong(), anyString(), anyInt(), anyInt(), any()))
                 .thenReturn(Collections.singletonList(bookingDtoResponse));
 
         mvc.perform(get("/bookings/owner")
@@ -133,6 +165,53 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$[0].item.id").value(1L))
                 .andExpect(jsonPath("$[0].item.name").value("name"))
                 .andExpect(jsonPath("$[0].booker.name").value("name"));
-        verify(bookingService, times(1)).getBookingFromOwner(1L, "ALL", 0, 10);
+        verify(bookingService, times(1)).getBookingFromOwner(1L, "ALL", 0, 10, null);
+    }
+
+    @Test
+    void exportByOwnerTest() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<BookingDtoResponse> sink = invocation.getArgument(2);
+            sink.accept(bookingDtoResponse);
+            sink.accept(bookingDtoResponse);
+            return null;
+        }).when(bookingService).exportBookingFromOwner(anyLong(), anyString(), any());
+
+        MvcResult started = mvc.perform(get("/bookings/owner/export")
+                        .param("state", "FUTURE")
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(1L, objectMapper.readTree(lines[1]).path("item").path("id").asLong());
+        verify(bookingService).exportBookingFromOwner(eq(1L), eq("FUTURE"), any());
+    }
+
+    @Test
+    void streamEventsTest() throws Exception {
+        doAnswer(invocation -> {
+            SseEmitter emitter = invocation.getArgument(1);
+            emitter.send(SseEmitter.event().name(BookingEventBus.EVENT_NAME).data(bookingDtoResponse));
+            emitter.complete();
+            return null;
+        }).when(bookingEventBus).subscribe(anyLong(), any());
+
+        MvcResult started = mvc.perform(get("/bookings/events")
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(body.startsWith("event:booking\ndata:"));
+        verify(bookingEventBus).subscribe(eq(1L), any());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,120 @@
+package ru.practicum.shareit.booking;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+
+class BookingEventBusTest {
+    BookingEventBus eventBus = new BookingEventBus(4, 16);
+
+    BookingDtoResponse booking = BookingDtoResponse.builder()
+            .id(1L)
+            .start(LocalDateTime.now().plusHours(1))
+            .end(LocalDateTime.now().plusHours(2))
+            .item(new BookingDtoResponse.Item(1L, "item"))
+            .booker(new BookingDtoResponse.Booker(2L, "booker"))
+            .status(BookingStatus.APPROVED)
+            .build();
+
+    @AfterEach
+    void tearDown() {
+        eventBus.close();
+    }
+
+    @Test
+    void publish_thenOwnerAndBookerStreamsReceive() throws InterruptedException {
+        CountingEmitter owner = new CountingEmitter(1);
+        CountingEmitter secondOwnerStream = new CountingEmitter(1);
+        CountingEmitter booker = new CountingEmitter(1);
+        CountingEmitter stranger = new CountingEmitter(1);
+        eventBus.subscribe(1L, owner);
+        eventBus.subscribe(1L, secondOwnerStream);
+        eventBus.subscribe(2L, booker);
+        eventBus.subscribe(3L, stranger);
+
+        eventBus.publish(booking, 1L);
+
+        assertTrue(owner.sent.await(5, TimeUnit.SECONDS));
+        assertTrue(secondOwnerStream.sent.await(5, TimeUnit.SECONDS));
+        assertTrue(booker.sent.await(5, TimeUnit.SECONDS));
+        assertEquals(1, stranger.sent.getCount());
+    }
+
+    @Test
+    void publish_whenStreamFallsBehind_thenDropped() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        StalledEmitter stalled = new StalledEmitter(release);
+        CountingEmitter other = new CountingEmitter(BookingEventBus.BUFFER_SIZE + 2);
+        eventBus.subscribe(1L, stalled);
+        eventBus.subscribe(1L, other);
+
+        for (int i = 0; i < BookingEventBus.BUFFER_SIZE + 2; i++) {
+            eventBus.publish(booking, 1L);
+        }
+
+        assertEquals(1, eventBus.subscriberCount(1L));
+        assertTrue(other.sent.await(5, TimeUnit.SECONDS));
+        release.countDown();
+    }
+
+    @Test
+    void publish_whenWritersBusy_thenDropped() {
+        BookingEventBus eventBus = new BookingEventBus(1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            eventBus.subscribe(1L, new StalledEmitter(release));
+            eventBus.subscribe(3L, new CountingEmitter(1));
+            eventBus.subscribe(4L, new CountingEmitter(1));
+
+            // the only writer stalls on the first stream, the second waits in the queue, the third finds it full
+            eventBus.publish(booking, 1L);
+            eventBus.publish(booking, 3L);
+            eventBus.publish(booking, 4L);
+
+            assertEquals(1, eventBus.subscriberCount(3L));
+            assertEquals(0, eventBus.subscriberCount(4L));
+        } finally {
+            release.countDown();
+            eventBus.close();
+        }
+    }
+
+    private static class CountingEmitter extends SseEmitter {
+        final CountDownLatch sent;
+
+        CountingEmitter(int events) {
+            sent = new CountDownLatch(events);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            sent.countDown();
+        }
+    }
+
+    private static class StalledEmitter extends SseEmitter {
+        final CountDownLatch release;
+
+        StalledEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package ru.practicum.shareit.booking;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.spy;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.outbox.Outbox;
+import ru.practicum.shareit.outbox.OutboxEvent;
+import ru.practicum.shareit.outbox.OutboxEventRepository;
+import ru.practicum.shareit.user.User;
+
+@DataJpaTest
+@AutoConfigureTestDatabase
+@Import({BookingLifecycleScheduler.class, BookingAvailabilityIndex.class, Outbox.class, BookingEventBus.class,
+        BookingLifecycleSchedulerTest.Config.class})
+class BookingLifecycleSchedulerTest {
+    // the scheduler outlives a test method, so every test moves its wheel further on
+    private static long wheelClock = System.currentTimeMillis();
+
+    @Autowired
+    private TestEntityManager em;
+    @Autowired
+    private BookingLifecycleScheduler scheduler;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private BookingAvailabilityIndex availabilityIndex;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private Outbox outbox;
+    @Autowired
+    private BookingEventBus eventBus;
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    LocalDateTime now = LocalDateTime.now();
+    User owner = User.builder()
+            .name("owner")
+            .email("owner@user.ru")
+            .build();
+    User booker = User.builder()
+            .name("booker")
+            .email("booker@user.ru")
+            .build();
+    Item item = Item.builder()
+            .name("name")
+            .description("description")
+            .available(true)
+            .owner(owner)
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        em.persist(owner);
+        em.persist(booker);
+        em.persist(item);
+    }
+
+    @Test
+    void expireDue_whenWaitingBookingStarted_thenExpired() {
+        Booking started = persist(now.minusHours(1), BookingStatus.WAITING);
+        Booking upcoming = persist(now.plusDays(1), BookingStatus.WAITING);
+        Booking approved = persist(now.minusHours(1), BookingStatus.APPROVED);
+        em.flush();
+        scheduler.load();
+
+        assertEquals(1, scheduler.expireDue(nextTick()));
+        em.flush();
+        em.clear();
+
+        assertEquals(BookingStatus.EXPIRED, em.find(Booking.class, started.getId()).getStatus());
+        assertEquals(BookingStatus.WAITING, em.find(Booking.class, upcoming.getId()).getStatus());
+        assertEquals(BookingStatus.APPROVED, em.find(Booking.class, approved.getId()).getStatus());
+        List<OutboxEvent> events = outboxEventRepository.findByAggregateIdInOrderBySeqNo(List.of(started.getId()));
+        assertEquals(1, events.size());
+        assertEquals(Outbox.BOOKING, events.get(0).getAggregateType());
+        assertEquals("EXPIRED", events.get(0).getEventType());
+    }
+
+    @Test
+    void expireDue_whenDecidedBeforeStart_thenSkipped() {
+        Booking booking = persist(now.minusHours(1), BookingStatus.WAITING);
+        em.flush();
+        scheduler.load();
+        booking.setStatus(BookingStatus.REJECTED);
+        em.flush();
+
+        assertEquals(0, scheduler.expireDue(nextTick()));
+        em.clear();
+
+        assertEquals(BookingStatus.REJECTED, em.find(Booking.class, booking.getId()).getStatus());
+    }
+
+    @Test
+    void expireDue_whenBatchFails_thenRetriedOnNextTick() {
+        Booking booking = persist(now.minusHours(1), BookingStatus.WAITING);
+        em.flush();
+        TransactionTemplate failingOnce = spy(transactionTemplate);
+        doThrow(new CannotCreateTransactionException("Connection refused")).doCallRealMethod()
+                .when(failingOnce).execute(any());
+        BookingLifecycleScheduler scheduler = new BookingLifecycleScheduler(bookingRepository, availabilityIndex,
+                failingOnce, outbox, eventBus);
+        scheduler.load();
+
+        assertEquals(0, scheduler.expireDue(nextTick()));
+        assertEquals(1, scheduler.expireDue(nextTick()));
+        em.flush();
+        em.clear();
+
+        assertEquals(BookingStatus.EXPIRED, em.find(Booking.class, booking.getId()).getStatus());
+    }
+
+    @Test
+    void scheduleExpiry_whenTransactionNotCommitted_thenNotScheduled() {
+        Booking booking = persist(now.minusHours(1), BookingStatus.WAITING);
+        scheduler.scheduleExpiry(booking);
+        em.flush();
+
+        // the test transaction is rolled back, never committed
+        assertEquals(0, scheduler.expireDue(nextTick()));
+        em.clear();
+
+        assertEquals(BookingStatus.WAITING, em.find(Booking.class, booking.getId()).getStatus());
+    }
+
+    private static long nextTick() {
+        wheelClock += Duration.ofMinutes(1).toMillis();
+        return wheelClock;
+    }
+
+    private Booking persist(LocalDateTime start, BookingStatus status) {
+        return em.persist(Booking.builder()
+                .item(item)
+                .booker(booker)
+                .start(start)
+                .end(start.plusHours(2))
+                .status(status)
+                .build());
+    }
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper().findAndRegisterModules();
+        }
+    }
+}
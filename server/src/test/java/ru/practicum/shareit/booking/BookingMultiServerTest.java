@@ -0,0 +1,93 @@
+package ru.practicum.shareit.booking;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ru.practicum.shareit.booking.dto.BookingDtoRequest;
+import ru.practicum.shareit.booking.exception.BookingNotAvailableException;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.outbox.Outbox;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+/**
+ * Creates overlapping bookings of one item through two servers sharing one database, each with its own availability
+ * index, and fails when the second server accepts its booking. The advisory locks need PostgreSQL, so the lock
+ * manager is mocked: the test is about what the overlap check sees, not about the serialization.
+ */
+@SpringBootTest(properties = "shareit.item-locks.type=advisory")
+class BookingMultiServerTest {
+    @MockBean
+    private ItemLockManager itemLockManager;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private ItemBookingProjector itemBookingProjector;
+    @Autowired
+    private BookingLifecycleScheduler lifecycleScheduler;
+    @Autowired
+    private BookingEventBus eventBus;
+    @Autowired
+    private Outbox outbox;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        for (String table : List.of("outbox_events", "bookings", "items", "users")) {
+            jdbcTemplate.update("delete from " + table);
+        }
+    }
+
+    @Test
+    void createBooking_whenOtherServerBookedOverlapping_thenNotAvailable() {
+        User owner = userRepository.save(User.builder().name("owner").email("owner@mail.ru").build());
+        User booker = userRepository.save(User.builder().name("booker").email("booker@mail.ru").build());
+        Item item = itemRepository.save(Item.builder()
+                .name("drill")
+                .description("drill")
+                .available(true)
+                .owner(owner)
+                .build());
+        BookingAvailabilityIndex otherIndex = new BookingAvailabilityIndex(bookingRepository, "advisory");
+        otherIndex.warmUp();
+        BookingService otherServer = new BookingServiceImpl(bookingRepository, userRepository, itemRepository,
+                otherIndex, itemBookingProjector, lifecycleScheduler, eventBus, outbox, itemLockManager);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        bookingService.createBooking(booker.getId(), request(item, start, start.plusHours(2)));
+
+        assertThrows(BookingNotAvailableException.class, () -> transactionTemplate.execute(status ->
+                otherServer.createBooking(booker.getId(), request(item, start.plusHours(1), start.plusHours(3)))));
+        assertEquals(1, bookingRepository.count());
+    }
+
+    private static BookingDtoRequest request(Item item, LocalDateTime start, LocalDateTime end) {
+        return BookingDtoRequest.builder()
+                .itemId(item.getId())
+                .start(start)
+                .end(end)
+                .build();
+    }
+}
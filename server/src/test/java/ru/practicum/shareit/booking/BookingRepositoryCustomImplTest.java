@@ -0,0 +1,147 @@
+package ru.practicum.shareit.booking;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.pagination.PageCursor;
+import ru.practicum.shareit.user.User;
+
+@DataJpaTest
+@AutoConfigureTestDatabase
+class BookingRepositoryCustomImplTest {
+    @Autowired
+    private TestEntityManager em;
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    LocalDateTime now = LocalDateTime.of(2023, 5, 1, 12, 0);
+    User owner = User.builder()
+            .name("owner")
+            .email("owner@user.ru")
+            .build();
+    User booker = User.builder()
+            .name("booker")
+            .email("booker@user.ru")
+            .build();
+    Item item = Item.builder()
+            .name("name")
+            .description("description")
+            .available(true)
+            .owner(owner)
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        em.persist(owner);
+        em.persist(booker);
+        em.persist(item);
+    }
+
+    @Test
+    void findBookings_whenPagingByCursor_thenEveryBookingOnce() {
+        persist(now.plusDays(1));
+        persist(now.plusDays(2));
+        persist(now.plusDays(2));
+        persist(now.plusDays(3));
+        persist(now.minusDays(1));
+
+        List<BookingDtoResponse> first = bookingRepository.findBookings(booker.getId(), BookingRole.BOOKER,
+                BookingStatusPresentation.FUTURE, now, null, 0, 2);
+        BookingDtoResponse last = first.get(first.size() - 1);
+        List<BookingDtoResponse> second = bookingRepository.findBookings(booker.getId(), BookingRole.BOOKER,
+                BookingStatusPresentation.FUTURE, now, PageCursor.of(last.getStart(), last.getId()), 0, 2);
+
+        assertEquals(List.of(now.plusDays(3), now.plusDays(2)), starts(first));
+        assertEquals(List.of(now.plusDays(2), now.plusDays(1)), starts(second));
+        assertEquals(last.getStart(), second.get(0).getStart());
+        assertTrue(second.get(0).getId() < last.getId());
+    }
+
+    @Test
+    void findBookings_whenOffset_thenSamePagesAsCursor() {
+        persist(now.plusDays(1));
+        persist(now.plusDays(2));
+        persist(now.plusDays(3));
+
+        List<BookingDtoResponse> second = bookingRepository.findBookings(booker.getId(), BookingRole.BOOKER,
+                BookingStatusPresentation.ALL, now, null, 2, 2);
+
+        assertEquals(List.of(now.plusDays(1)), starts(second));
+    }
+
+    @Test
+    void findBookings_thenResponseProjected() {
+        Booking booking = persist(now.plusDays(1));
+
+        BookingDtoResponse response = bookingRepository.findBookings(owner.getId(), BookingRole.OWNER,
+                BookingStatusPresentation.WAITING, now, null, 0, 10).get(0);
+
+        assertEquals(booking.getId(), response.getId());
+        assertEquals(booking.getEnd(), response.getEnd());
+        assertEquals(BookingStatus.WAITING, response.getStatus());
+        assertEquals(new BookingDtoResponse.Item(item.getId(), item.getName()), response.getItem());
+        assertEquals(new BookingDtoResponse.Booker(booker.getId(), booker.getName()), response.getBooker());
+    }
+
+    @Test
+    void findBookings_whenStateOrRoleDoNotMatch_thenEmpty() {
+        persist(now.plusDays(1));
+
+        assertEquals(1, bookingRepository.findBookings(owner.getId(), BookingRole.OWNER,
+                BookingStatusPresentation.ALL, now, null, 0, 10).size());
+        assertEquals(0, bookingRepository.findBookings(owner.getId(), BookingRole.BOOKER,
+                BookingStatusPresentation.ALL, now, null, 0, 10).size());
+        assertEquals(0, bookingRepository.findBookings(booker.getId(), BookingRole.BOOKER,
+                BookingStatusPresentation.PAST, now, null, 0, 10).size());
+        assertEquals(0, bookingRepository.findBookings(booker.getId(), BookingRole.BOOKER,
+                BookingStatusPresentation.REJECTED, now, null, 0, 10).size());
+        assertEquals(1, bookingRepository.findBookings(booker.getId(), BookingRole.BOOKER,
+                BookingStatusPresentation.CURRENT, now.plusDays(1).plusMinutes(30), null, 0, 10).size());
+    }
+
+    @Test
+    void streamBookings_thenAllPagesInPageOrder() {
+        persist(now.plusDays(1));
+        persist(now.plusDays(2));
+        persist(now.plusDays(3));
+        persist(now.minusDays(1));
+
+        List<BookingDtoResponse> streamed;
+        try (Stream<BookingDtoResponse> bookings = bookingRepository.streamBookings(owner.getId(), BookingRole.OWNER,
+                BookingStatusPresentation.FUTURE, now, 2)) {
+            streamed = bookings.collect(Collectors.toList());
+        }
+
+        assertEquals(List.of(now.plusDays(3), now.plusDays(2), now.plusDays(1)), starts(streamed));
+        assertEquals(bookingRepository.findBookings(owner.getId(), BookingRole.OWNER,
+                BookingStatusPresentation.FUTURE, now, null, 0, 10), streamed);
+    }
+
+    private Booking persist(LocalDateTime start) {
+        return em.persist(Booking.builder()
+                .start(start)
+                .end(start.plusHours(1))
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.WAITING)
+                .build());
+    }
+
+    private static List<LocalDateTime> starts(List<BookingDtoResponse> bookings) {
+        return bookings.stream().map(BookingDtoResponse::getStart).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.booking;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import ru.practicum.shareit.pagination.PageCursor;
+
+/**
+ * Runs every {@link BookingRepository} query, captures the SQL Hibernate sends and checks with {@code EXPLAIN}
+ * that no table is read by a full scan.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ru.practicum.shareit.booking.BookingRepositoryIndexTest$Recorder")
+@AutoConfigureTestDatabase
+class BookingRepositoryIndexTest {
+    private static final List<String> STATEMENTS = new ArrayList<>();
+
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    LocalDateTime now = LocalDateTime.now();
+    Sort sort = Sort.by(Sort.Direction.DESC, "start");
+
+    @BeforeEach
+    void setUp() {
+        STATEMENTS.clear();
+    }
+
+    @Test
+    void listQueries_useIndexes() {
+        for (BookingRole role : BookingRole.values()) {
+            for (BookingStatusPresentation state : BookingStatusPresentation.values()) {
+                assertIndexed(r -> r.findBookings(1L, role, state, now, null, 20, 10));
+                assertEquals(1, STATEMENTS.size());
+                assertIndexed(r -> r.findBookings(1L, role, state, now, PageCursor.of(now, 10L), 0, 10));
+                assertEquals(1, STATEMENTS.size());
+            }
+        }
+    }
+
+    @Test
+    void itemQueries_useIndexes() {
+        assertIndexed(r -> r.findByBookerIdAndItemIdAndEndBefore(1L, 1L, now, sort));
+        assertIndexed(r -> r.findBookingsLast(List.of(1L, 2L), now, 1L, sort));
+        assertIndexed(r -> r.findBookingsNext(List.of(1L, 2L), now, 1L, sort));
+    }
+
+    @Test
+    void availabilityQueries_useIndexes() {
+        assertIndexed(r -> r.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(1L,
+                BookingAvailabilityIndex.BLOCKING_STATUSES, now.plusHours(1), now));
+        assertIndexed(r -> r.findIntervals(BookingAvailabilityIndex.BLOCKING_STATUSES, now));
+    }
+
+    private void assertIndexed(Consumer<BookingRepository> query) {
+        STATEMENTS.clear();
+        query.accept(bookingRepository);
+        assertFalse(STATEMENTS.isEmpty());
+        for (String sql : STATEMENTS) {
+            String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class));
+            assertTrue(plan.contains("/* PUBLIC."), plan);
+            assertFalse(plan.contains("tableScan"), plan);
+        }
+    }
+
+    public static class Recorder implements StatementInspector {
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -1,18 +1,20 @@
 package ru.practicum.shareit.booking;
 
-import static org.junit.Assert.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
-import org.junit.Test;
+import org.junit.jupiter.api.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.test.context.junit4.SpringRunner;
 
@@ -54,7 +56,6 @@ public class BookingRepositoryTest {
             .booker(booker)
             .status(BookingStatus.WAITING)
             .build();
-    PageRequest pageRequest = PageRequest.ofSize(1);
     Sort sort = Sort.by(Sort.Direction.DESC, "start");
 
     @Test
@@ -62,28 +63,6 @@ public class BookingRepositoryTest {
         assertNotNull(em);
     }
 
-    @Test
-    public void testFindAllByBookerIdOrderByStartDesc() {
-        em.persist(itemOwner);
-        em.persist(booker);
-        em.persist(item);
-        em.persist(booking);
-
-        List<Booking> bookings = bookingRepository.findAllByBookerIdOrderByStartDesc(booker.getId(), pageRequest);
-        assertEquals(booking, bookings.get(0));
-    }
-
-    @Test
-    public void testFindByItemOwnerId() {
-        em.persist(itemOwner);
-        em.persist(booker);
-        em.persist(item);
-        em.persist(booking);
-
-        List<Booking> bookings = bookingRepository.findByItemOwnerId(itemOwner.getId(), sort, pageRequest);
-        assertEquals(booking, bookings.get(0));
-    }
-
     @Test
     public void testFindByBookerIdAndItemIdAndEndBefore() {
         em.persist(itemOwner);
@@ -92,105 +71,20 @@ public class BookingRepositoryTest {
         em.persist(booking);
 
         List<Booking> bookings = bookingRepository.findByBookerIdAndItemIdAndEndBefore(booker.getId(), item.getId(),
-                booking.getEnd(), sort);
-        assertEquals(booking, bookings.get(0));
-    }
-
-    @Test
-    public void testFindByBookerCurrent() {
-        em.persist(itemOwner);
-        em.persist(booker);
-        em.persist(item);
-        em.persist(booking);
-
-        List<Booking> bookings = bookingRepository.findByBookerCurrent(booker.getId(),
-                booking.getEnd().minusMinutes(30), sort, pageRequest);
-        assertEquals(booking, bookings.get(0));
-    }
-
-    @Test
-    public void testFindByBookerPast() {
-        em.persist(itemOwner);
-        em.persist(booker);
-        em.persist(item);
-        em.persist(booking);
-
-        List<Booking> bookings = bookingRepository.findByBookerPast(booker.getId(),
-                booking.getEnd().plusMinutes(30), sort, pageRequest);
-        assertEquals(booking, bookings.get(0));
-    }
-
-    @Test
-    public void testFindByBookerFuture() {
-        em.persist(itemOwner);
-        em.persist(booker);
-        em.persist(item);
-        em.persist(booking);
-
-        List<Booking> bookings = bookingRepository.findByBookerFuture(booker.getId(),
-                booking.getStart().minusMinutes(30), sort, pageRequest);
+                booking.getEnd().plusMinutes(1), sort);
         assertEquals(booking, bookings.get(0));
     }
 
     @Test
-    public void testFindByBookerAndStatus() {
+    public void testFindByBookerIdAndItemIdAndEndBefore_whenNotEnded() {
         em.persist(itemOwner);
         em.persist(booker);
         em.persist(item);
         em.persist(booking);
 
-        List<Booking> bookings = bookingRepository.findByBookerAndStatus(booker.getId(), booking.getStatus(), sort,
-                pageRequest);
-        assertEquals(booking, bookings.get(0));
-    }
-
-    @Test
-    public void testFindByItemOwnerCurrent() {
-        em.persist(itemOwner);
-        em.persist(booker);
-        em.persist(item);
-        em.persist(booking);
-
-        List<Booking> bookings = bookingRepository.findByItemOwnerCurrent(itemOwner.getId(),
-                booking.getEnd().minusMinutes(30), sort, pageRequest);
-        assertEquals(booking, bookings.get(0));
-    }
-
-    @Test
-    public void testFindByItemOwnerPast() {
-        em.persist(itemOwner);
-        em.persist(booker);
-        em.persist(item);
-        em.persist(booking);
-
-        List<Booking> bookings = bookingRepository.findByItemOwnerPast(itemOwner.getId(),
-                booking.getEnd().plusMinutes(30), sort, pageRequest);
-        assertEquals(booking, bookings.get(0));
-    }
-
-    @Test
-    public void testFindByItemOwnerFuture() {
-        em.persist(itemOwner);
-        em.persist(booker);
-        em.persist(item);
-        em.persist(booking);
-
-        List<Booking> bookings = bookingRepository.findByItemOwnerFuture(itemOwner.getId(),
-                booking.getStart().minusMinutes(30), sort, pageRequest);
-        assertEquals(booking, bookings.get(0));
-    }
-
-    @Test
-    public void testFindByItemOwnerAndStatus() {
-        em.persist(itemOwner);
-        em.persist(booker);
-        em.persist(item);
-        em.persist(booking);
-
-        List<Booking> bookings = bookingRepository.findByItemOwnerAndStatus(itemOwner.getId(), booking.getStatus(),
-                sort,
-                pageRequest);
-        assertEquals(booking, bookings.get(0));
+        List<Booking> bookings = bookingRepository.findByBookerIdAndItemIdAndEndBefore(booker.getId(), item.getId(),
+                booking.getEnd().minusMinutes(1), sort);
+        assertTrue(bookings.isEmpty());
     }
 
     @Test
@@ -220,4 +114,27 @@ public class BookingRepositoryTest {
                 booking.getStart().minusMinutes(30), item.getOwner().getId(), sort);
         assertEquals(booking, bookings.get(0));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testFindForUpdateByIdInAndStatus_thenOrderedById() {
+        em.persist(itemOwner);
+        em.persist(booker);
+        em.persist(item);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ids.add(em.persist(Booking.builder()
+                    .start(booking.getStart().plusDays(i))
+                    .end(booking.getEnd().plusDays(i))
+                    .item(item)
+                    .booker(booker)
+                    .status(BookingStatus.WAITING)
+                    .build()).getId());
+        }
+        em.flush();
+        em.clear();
+
+        List<Booking> bookings = bookingRepository.findForUpdateByIdInAndStatus(
+                List.of(ids.get(2), ids.get(0), ids.get(1)), BookingStatus.WAITING);
+        assertEquals(ids, bookings.stream().map(Booking::getId).collect(Collectors.toList()));
+    }
+}
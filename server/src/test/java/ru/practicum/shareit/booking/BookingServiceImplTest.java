@@ -4,8 +4,11 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
-import static org.mockito.Mockito.times;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -13,6 +16,7 @@ import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -20,6 +24,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
 import ru.practicum.shareit.booking.dto.BookingDtoResponse;
 import ru.practicum.shareit.booking.exception.BookingNotAvailableException;
@@ -28,9 +33,14 @@ import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.exceptions.ItemNotFoundException;
+import ru.practicum.shareit.outbox.Outbox;
+import ru.practicum.shareit.outbox.OutboxEvent;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
+import ru.practicum.shareit.item.ItemSummary;
+import ru.practicum.shareit.user.UserSummary;
 
 @ExtendWith(MockitoExtension.class)
 class BookingServiceImplTest {
@@ -40,6 +50,18 @@ class BookingServiceImplTest {
     BookingRepository bookingRepository;
     @Mock
     ItemRepository itemRepository;
+    @Mock
+    BookingAvailabilityIndex availabilityIndex;
+    @Mock
+    ItemBookingProjector itemBookingProjector;
+    @Mock
+    BookingLifecycleScheduler lifecycleScheduler;
+    @Mock
+    BookingEventBus eventBus;
+    @Mock
+    Outbox outbox;
+    @Mock
+    ItemLockManager itemLockManager;
     @InjectMocks
     BookingServiceImpl bookingService;
 
@@ -71,7 +93,7 @@ class BookingServiceImplTest {
 
     @Test
     void create_whenItemNotFound() {
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(itemRepository.findSummaryById(anyLong())).thenReturn(Optional.empty());
 
         ItemNotFoundException ex = assertThrows(ItemNotFoundException.class,
                 () -> bookingService.createBooking(1L, bookingDtoCreate));
@@ -80,8 +102,8 @@ class BookingServiceImplTest {
 
     @Test
     void create_whenUserNotFound() {
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.ofNullable(item));
-        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(itemRepository.findSummaryById(anyLong())).thenReturn(summaryOf(item));
+        when(userRepository.findSummaryById(anyLong())).thenReturn(Optional.empty());
 
         UserNotFoundException ex = assertThrows(UserNotFoundException.class,
                 () -> bookingService.createBooking(1L, bookingDtoCreate));
@@ -90,8 +112,8 @@ class BookingServiceImplTest {
 
     @Test
     void create_whenOwnerTryingToBookHisItem() {
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.ofNullable(item));
-        when(userRepository.findById(anyLong())).thenReturn(Optional.ofNullable(user2));
+        when(itemRepository.findSummaryById(anyLong())).thenReturn(summaryOf(item));
+        when(userRepository.findSummaryById(anyLong())).thenReturn(summaryOf(user2));
 
         UserNotFoundException ex = assertThrows(UserNotFoundException.class,
                 () -> bookingService.createBooking(1L, bookingDtoCreate));
@@ -105,8 +127,8 @@ class BookingServiceImplTest {
         itemTest.setAvailable(false);
         bookingDtoCreate.setItemId(49L);
 
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.ofNullable(item));
-        when(userRepository.findById(anyLong())).thenReturn(Optional.ofNullable(user2));
+        when(itemRepository.findSummaryById(anyLong())).thenReturn(summaryOf(item));
+        when(userRepository.findSummaryById(anyLong())).thenReturn(summaryOf(user2));
 
         BookingNotAvailableException ex = assertThrows(BookingNotAvailableException.class,
                 () -> bookingService.createBooking(4L, bookingDtoCreate));
@@ -115,8 +137,8 @@ class BookingServiceImplTest {
 
     @Test
     void changeStatus_whenBookingNotFound() {
-        when(bookingRepository.findById(anyLong())).thenReturn(Optional.empty());
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(bookingRepository.findWithItemAndBookerById(anyLong())).thenReturn(Optional.empty());
+        when(userRepository.findSummaryById(anyLong())).thenReturn(summaryOf(user));
         BookingNotFoundException ex = assertThrows(BookingNotFoundException.class,
                 () -> bookingService.updateBooking(1L, 1L, true));
         assertEquals("Booking not found", ex.getMessage());
@@ -125,10 +147,10 @@ class BookingServiceImplTest {
     @Test
     void changeStatus_whenBooking_REJECTED() {
         Booking booking = BookingMapper.toBooking(bookingDtoCreate, item, user);
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userRepository.findSummaryById(anyLong())).thenReturn(summaryOf(user));
 
         booking.setStatus(BookingStatus.REJECTED);
-        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
+        when(bookingRepository.findWithItemAndBookerById(anyLong())).thenReturn(Optional.of(booking));
 
         BadRequestException ex = assertThrows(BadRequestException.class,
                 () -> bookingService.updateBooking(1L, 1L, true));
@@ -138,20 +160,50 @@ class BookingServiceImplTest {
     @Test
     void changeStatus_whenBooking_APPROVED() {
         Booking booking = BookingMapper.toBooking(bookingDtoCreate, item, user);
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userRepository.findSummaryById(anyLong())).thenReturn(summaryOf(user));
 
         booking.setStatus(BookingStatus.APPROVED);
-        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
+        when(bookingRepository.findWithItemAndBookerById(anyLong())).thenReturn(Optional.of(booking));
 
         BadRequestException ex = assertThrows(BadRequestException.class,
                 () -> bookingService.updateBooking(1L, 1L, true));
         assertEquals("This booking can't changed status", ex.getMessage());
     }
 
+    @Test
+    void changeStatus_whenDecidedConcurrently_thenNotOverwritten() {
+        Booking booking = BookingMapper.toBooking(bookingDtoCreate, item, user2);
+        booking.setStatus(BookingStatus.WAITING);
+        when(userRepository.findSummaryById(anyLong())).thenReturn(summaryOf(user));
+        when(bookingRepository.findWithItemAndBookerById(anyLong())).thenReturn(Optional.of(booking));
+        when(bookingRepository.updateStatus(1L, BookingStatus.WAITING, BookingStatus.REJECTED)).thenReturn(0);
+
+        BadRequestException ex = assertThrows(BadRequestException.class,
+                () -> bookingService.updateBooking(1L, 1L, false));
+        assertEquals("This booking can't changed status", ex.getMessage());
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    void changeStatus_whenOverlapsApprovedBooking_thenNotApproved() {
+        Booking booking = BookingMapper.toBooking(bookingDtoCreate, item, user2);
+        booking.setStatus(BookingStatus.WAITING);
+        when(userRepository.findSummaryById(anyLong())).thenReturn(summaryOf(user));
+        when(bookingRepository.findWithItemAndBookerById(anyLong())).thenReturn(Optional.of(booking));
+        when(bookingRepository.updateStatus(1L, BookingStatus.WAITING, BookingStatus.APPROVED)).thenReturn(1);
+        when(bookingRepository.findIntervalsOverlapping(any(), eq(BookingStatus.APPROVED), any(), any()))
+                .thenReturn(List.of(new BookingInterval(7L, 1L, booking.getStart(), booking.getEnd())));
+
+        assertThrows(BookingNotAvailableException.class, () -> bookingService.updateBooking(1L, 1L, true));
+        verify(itemLockManager).lock(Set.of(1L));
+        verify(itemBookingProjector, never()).approved(any(), any());
+        verify(outbox, never()).append(any(OutboxEvent.class));
+    }
+
     @Test
     void getBookingInfo_whenOwner_thenReturnInfo() {
         Booking booking = BookingMapper.toBooking(bookingDtoCreate, item, user);
-        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
+        when(bookingRepository.findWithItemAndBookerById(anyLong())).thenReturn(Optional.of(booking));
 
         BookingDtoResponse rsp = bookingService.getBooking(user.getId(), booking.getId());
         assertNotNull(rsp);
@@ -161,7 +213,7 @@ class BookingServiceImplTest {
     @Test
     void getBookingInfo_whenNotOwner() {
         Booking booking = BookingMapper.toBooking(bookingDtoCreate, item, user);
-        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
+        when(bookingRepository.findWithItemAndBookerById(anyLong())).thenReturn(Optional.of(booking));
 
         UserNotFoundException ex = assertThrows(UserNotFoundException.class,
                 () -> bookingService.getBooking(booking.getId(), 999L));
@@ -170,7 +222,7 @@ class BookingServiceImplTest {
 
     @Test
     void getBookingInfo_whenBookingNotFound() {
-        when(bookingRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(bookingRepository.findWithItemAndBookerById(anyLong())).thenReturn(Optional.empty());
 
         BookingNotFoundException ex = assertThrows(BookingNotFoundException.class,
                 () -> bookingService.getBooking(1L, 1L));
@@ -178,148 +230,73 @@ class BookingServiceImplTest {
     }
 
     @Test
-    void getByBooker_whenBookerAllState() {
-        Booking booking = BookingMapper.toBooking(bookingDtoCreate, item, user);
-        when(userRepository.findById(anyLong())).thenReturn(Optional.ofNullable(user));
-        when(bookingRepository.findByItemOwnerId(anyLong(), any(), any()))
-                .thenReturn(Collections.singletonList(booking));
-        System.out.println(booking);
-        List<BookingDtoResponse> resp = bookingService.getBookingFromOwner(user.getId(), "ALL", 0, 20);
-        assertEquals(booking.getItem().getName(), resp.get(0).getItem().getName());
-        verify(bookingRepository, times(1)).findByItemOwnerId(anyLong(), any(), any());
+    void getByBooker_whenAnyState_thenQueryAsBooker() {
+        BookingDtoResponse response = BookingMapper.toBookingDtoResponse(BookingMapper.toBooking(bookingDtoCreate,
+                item, user));
+        when(userRepository.findSummaryById(anyLong())).thenReturn(summaryOf(user));
+        when(bookingRepository.findBookings(anyLong(), any(), any(), any(), any(), anyInt(), anyInt()))
+                .thenReturn(Collections.singletonList(response));
+
+        for (BookingStatusPresentation state : BookingStatusPresentation.values()) {
+            List<BookingDtoResponse> resp = bookingService.getBookings(user.getId(), state.name(), 40, 20, null);
+
+            assertEquals(item.getName(), resp.get(0).getItem().getName());
+            verify(bookingRepository).findBookings(eq(user.getId()), eq(BookingRole.BOOKER), eq(state), any(),
+                    isNull(), eq(40), eq(20));
+        }
     }
 
     @Test
-    void getByBooker_whenBookerCurrentState() {
-        Booking booking = BookingMapper.toBooking(bookingDtoCreate, item, user);
-        when(userRepository.findById(anyLong())).thenReturn(Optional.ofNullable(user));
-        when(bookingRepository.findByBookerCurrent(anyLong(), any(), any(), any()))
-                .thenReturn(Collections.singletonList(booking));
-        List<BookingDtoResponse> resp = bookingService.getBookings(user.getId(), "CURRENT", 0, 20);
-        assertEquals(booking.getItem().getName(), resp.get(0).getItem().getName());
-        verify(bookingRepository, times(1)).findByBookerCurrent(anyLong(), any(), any(), any());
+    void getByOwner_whenAnyState_thenQueryAsOwner() {
+        BookingDtoResponse response = BookingMapper.toBookingDtoResponse(BookingMapper.toBooking(bookingDtoCreate,
+                item, user));
+        when(userRepository.findSummaryById(anyLong())).thenReturn(summaryOf(user));
+        when(bookingRepository.findBookings(anyLong(), any(), any(), any(), any(), anyInt(), anyInt()))
+                .thenReturn(Collections.singletonList(response));
+
+        for (BookingStatusPresentation state : BookingStatusPresentation.values()) {
+            List<BookingDtoResponse> resp = bookingService.getBookingFromOwner(user.getId(), state.name(), 0, 20,
+                    null);
+
+            assertEquals(item.getName(), resp.get(0).getItem().getName());
+            verify(bookingRepository).findBookings(eq(user.getId()), eq(BookingRole.OWNER), eq(state), any(),
+                    isNull(), eq(0), eq(20));
+        }
     }
 
     @Test
-    void getByBooker_whenBookerPastState() {
-        Booking booking = BookingMapper.toBooking(bookingDtoCreate, item, user);
-        when(userRepository.findById(anyLong())).thenReturn(Optional.ofNullable(user));
-        when(bookingRepository.findByBookerPast(anyLong(), any(), any(), any()))
-                .thenReturn(Collections.singletonList(booking));
-        List<BookingDtoResponse> resp = bookingService.getBookings(user.getId(), "PAST", 0, 20);
-        assertEquals(booking.getItem().getName(), resp.get(0).getItem().getName());
-        verify(bookingRepository, times(1)).findByBookerPast(anyLong(), any(), any(), any());
-    }
+    void getByBooker_whenCursor_thenSeekAfterIt() {
+        LocalDateTime start = LocalDateTime.of(2023, 5, 1, 12, 0);
+        when(userRepository.findSummaryById(anyLong())).thenReturn(summaryOf(user));
 
-    @Test
-    void getByBooker_whenBookerFutureState() {
-        Booking booking = BookingMapper.toBooking(bookingDtoCreate, item, user);
-        when(userRepository.findById(anyLong())).thenReturn(Optional.ofNullable(user));
-        when(bookingRepository.findByBookerFuture(anyLong(), any(), any(), any()))
-                .thenReturn(Collections.singletonList(booking));
-        List<BookingDtoResponse> resp = bookingService.getBookings(user.getId(), "FUTURE", 0, 20);
-        assertEquals(booking.getItem().getName(), resp.get(0).getItem().getName());
-        verify(bookingRepository, times(1)).findByBookerFuture(anyLong(), any(), any(), any());
-    }
+        bookingService.getBookings(user.getId(), "PAST", 0, 20, PageCursor.of(start, 7L).encode());
 
-    @Test
-    void getByBooker_whenBookerWaitingStatus() {
-        Booking booking = BookingMapper.toBooking(bookingDtoCreate, item, user);
-        when(userRepository.findById(anyLong())).thenReturn(Optional.ofNullable(user));
-        when(bookingRepository.findByBookerAndStatus(anyLong(), any(), any(), any()))
-                .thenReturn(Collections.singletonList(booking));
-        List<BookingDtoResponse> resp = bookingService.getBookings(user.getId(), "WAITING", 0, 20);
-        assertEquals(booking.getItem().getName(), resp.get(0).getItem().getName());
-        verify(bookingRepository, times(1)).findByBookerAndStatus(anyLong(), any(), any(), any());
+        verify(bookingRepository).findBookings(eq(user.getId()), eq(BookingRole.BOOKER),
+                eq(BookingStatusPresentation.PAST), any(), eq(PageCursor.of(start, 7L)), eq(0), eq(20));
     }
 
     @Test
-    void getByBooker_whenBookerRejectedStatus() {
-        Booking booking = BookingMapper.toBooking(bookingDtoCreate, item, user);
-        when(userRepository.findById(anyLong())).thenReturn(Optional.ofNullable(user));
-        when(bookingRepository.findByBookerAndStatus(anyLong(), any(), any(), any()))
-                .thenReturn(Collections.singletonList(booking));
-        List<BookingDtoResponse> resp = bookingService.getBookings(user.getId(), "REJECTED", 0, 20);
-        assertEquals(booking.getItem().getName(), resp.get(0).getItem().getName());
-        verify(bookingRepository, times(1)).findByBookerAndStatus(anyLong(), any(), any(), any());
-    }
+    void getByOwner_whenCursorWithoutStart_thenBadRequest() {
+        when(userRepository.findSummaryById(anyLong())).thenReturn(summaryOf(user));
+        String cursor = PageCursor.of(7L).encode();
 
-    @Test
-    void getByOwner_whenBookerCurrentState() {
-        Booking booking = BookingMapper.toBooking(bookingDtoCreate, item, user);
-        when(userRepository.findById(anyLong())).thenReturn(Optional.ofNullable(user));
-        when(bookingRepository.findByItemOwnerCurrent(anyLong(), any(), any(),
-                any()))
-                .thenReturn(Collections.singletonList(booking));
-        List<BookingDtoResponse> resp = bookingService.getBookingFromOwner(user.getId(), "CURRENT", 0, 20);
-        assertEquals(booking.getItem().getName(), resp.get(0).getItem().getName());
-        verify(bookingRepository, times(1)).findByItemOwnerCurrent(anyLong(), any(),
-                any(), any());
-    }
-
-    @Test
-    void getByOwner_whenBookerPastState() {
-        Booking booking = BookingMapper.toBooking(bookingDtoCreate, item, user);
-        when(userRepository.findById(anyLong())).thenReturn(Optional.ofNullable(user));
-        when(bookingRepository.findByItemOwnerPast(anyLong(), any(), any(), any()))
-                .thenReturn(Collections.singletonList(booking));
-        List<BookingDtoResponse> resp = bookingService.getBookingFromOwner(user.getId(), "PAST", 0, 20);
-        assertEquals(booking.getItem().getName(), resp.get(0).getItem().getName());
-        verify(bookingRepository, times(1)).findByItemOwnerPast(anyLong(), any(),
-                any(), any());
-    }
-
-    @Test
-    void getByOwner_whenBookerFutureState() {
-        Booking booking = BookingMapper.toBooking(bookingDtoCreate, item, user);
-        when(userRepository.findById(anyLong())).thenReturn(Optional.ofNullable(user));
-        when(bookingRepository.findByItemOwnerFuture(anyLong(), any(), any(), any()))
-                .thenReturn(Collections.singletonList(booking));
-        List<BookingDtoResponse> resp = bookingService.getBookingFromOwner(user.getId(), "FUTURE", 0, 20);
-        assertEquals(booking.getItem().getName(), resp.get(0).getItem().getName());
-        verify(bookingRepository, times(1)).findByItemOwnerFuture(anyLong(), any(),
-                any(), any());
-    }
-
-    @Test
-    void getByOwner_whenBookerWaitingStatus() {
-        Booking booking = BookingMapper.toBooking(bookingDtoCreate, item, user);
-        when(userRepository.findById(anyLong())).thenReturn(Optional.ofNullable(user));
-        when(bookingRepository.findByItemOwnerAndStatus(anyLong(), any(), any(),
-                any()))
-                .thenReturn(Collections.singletonList(booking));
-        List<BookingDtoResponse> resp = bookingService.getBookingFromOwner(user.getId(), "WAITING", 0, 20);
-        assertEquals(booking.getItem().getName(), resp.get(0).getItem().getName());
-        verify(bookingRepository, times(1)).findByItemOwnerAndStatus(anyLong(),
-                any(), any(), any());
-    }
-
-    @Test
-    void getByOwner_whenBookerRejectedStatus() {
-        Booking booking = BookingMapper.toBooking(bookingDtoCreate, item, user);
-        when(userRepository.findById(anyLong())).thenReturn(Optional.ofNullable(user));
-        when(bookingRepository.findByItemOwnerAndStatus(anyLong(), any(), any(),
-                any()))
-                .thenReturn(Collections.singletonList(booking));
-        List<BookingDtoResponse> resp = bookingService.getBookingFromOwner(user.getId(), "REJECTED", 0, 20);
-        assertEquals(booking.getItem().getName(), resp.get(0).getItem().getName());
-        verify(bookingRepository, times(1)).findByItemOwnerAndStatus(anyLong(),
-                any(), any(), any());
+        assertThrows(BadRequestException.class,
+                () -> bookingService.getBookingFromOwner(user.getId(), "ALL", 0, 20, cursor));
     }
 
     @Test
     void getByOwner_whenBookerNotFound() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(userRepository.findSummaryById(anyLong())).thenReturn(Optional.empty());
 
         UserNotFoundException ex = assertThrows(UserNotFoundException.class,
-                () -> bookingService.getBookingFromOwner(user.getId(), "ALL", 0, 20));
+                () -> bookingService.getBookingFromOwner(user.getId(), "ALL", 0, 20, null));
         assertEquals("User not found", ex.getMessage());
     }
 
     @Test
     void getByOwner_whenUnsupportedStatus() {
         BadRequestException ex = assertThrows(BadRequestException.class,
-                () -> bookingService.getBookingFromOwner(user.getId(), "UNKNOWNSTATE", 0, 20));
+                () -> bookingService.getBookingFromOwner(user.getId(), "UNKNOWNSTATE", 0, 20, null));
         assertEquals("Unknown state: UNKNOWNSTATE", ex.getMessage());
     }
 
@@ -328,11 +305,82 @@ class BookingServiceImplTest {
         Booking booking = BookingMapper.toBooking(bookingDtoCreate, item, user);
         BookingMapper.toBookingDtoForItem(booking);
         BookingDtoResponse bDto = BookingMapper.toBookingDtoResponse(booking);
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.ofNullable(item));
-        when(userRepository.findById(anyLong())).thenReturn(Optional.ofNullable(user2));
+        when(itemRepository.findSummaryById(anyLong())).thenReturn(summaryOf(item));
+        when(userRepository.findSummaryById(anyLong())).thenReturn(summaryOf(user2));
+        when(availabilityIndex.isAvailable(anyLong(), any(), any())).thenReturn(true);
         when(bookingRepository.save(any())).thenReturn(booking);
         bookingService.createBooking(2L, bookingDtoCreate);
         assertEquals(bDto.getId(), bookingDtoCreate.getId());
         verify(bookingRepository).save(any());
+        verify(availabilityIndex).add(booking);
+        verify(itemLockManager).lock(List.of(1L));
+    }
+
+    @Test
+    void create_whenItemAlreadyBooked() {
+        when(itemRepository.findSummaryById(anyLong())).thenReturn(summaryOf(item));
+        when(userRepository.findSummaryById(anyLong())).thenReturn(summaryOf(user2));
+        when(availabilityIndex.isAvailable(anyLong(), any(), any())).thenReturn(false);
+
+        BookingNotAvailableException ex = assertThrows(BookingNotAvailableException.class,
+                () -> bookingService.createBooking(2L, bookingDtoCreate));
+        assertEquals("Item is already booked for these dates", ex.getMessage());
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    void createBatch_whenEntriesMixed_thenResultPerEntry() {
+        BookingDtoRequest overlapping = BookingDtoRequest.builder()
+                .start(bookingDtoCreate.getStart().plusMinutes(30))
+                .end(bookingDtoCreate.getEnd().plusMinutes(30))
+                .itemId(1L)
+                .build();
+        BookingDtoRequest unknownItem = BookingDtoRequest.builder()
+                .start(bookingDtoCreate.getStart())
+                .end(bookingDtoCreate.getEnd())
+                .itemId(99L)
+                .build();
+        when(userRepository.findSummaryById(2L)).thenReturn(summaryOf(user2));
+        when(itemRepository.findSummariesByIdIn(any())).thenReturn(List.of(summaryOf(item).get()));
+        when(availabilityIndex.isAvailable(anyLong(), any(), any())).thenReturn(true);
+        when(bookingRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<BookingBatchResult> results = bookingService.createBookings(2L,
+                List.of(bookingDtoCreate, overlapping, unknownItem));
+
+        assertEquals(3, results.size());
+        assertEquals(200, results.get(0).getStatus());
+        assertNotNull(results.get(0).getBooking());
+        assertEquals(400, results.get(1).getStatus());
+        assertEquals("BookingNotAvailable", results.get(1).getError().getError());
+        assertEquals(404, results.get(2).getStatus());
+        assertEquals("ItemNotFound", results.get(2).getError().getError());
+        verify(availabilityIndex).add(any());
+        verify(lifecycleScheduler).scheduleExpiry(any());
+    }
+
+    @Test
+    void updateBatch_whenOneMissing_thenOthersDecided() {
+        Booking booking = BookingMapper.toBooking(bookingDtoCreate, item, user2);
+        booking.setStatus(BookingStatus.WAITING);
+        when(userRepository.findSummaryById(1L)).thenReturn(summaryOf(user));
+        when(bookingRepository.findAllWithItemAndBookerByIdIn(any())).thenReturn(List.of(booking));
+
+        List<BookingBatchResult> results = bookingService.updateBookings(List.of(1L, 5L), 1L, true);
+
+        assertEquals(BookingStatus.APPROVED, results.get(0).getBooking().getStatus());
+        assertEquals(404, results.get(1).getStatus());
+        verify(bookingRepository).saveAll(List.of(booking));
+        verify(itemBookingProjector).approved(eq(List.of(booking)), any());
+        verify(eventBus).publish(results.get(0).getBooking(), 1L);
+        verify(outbox).event(Outbox.BOOKING, booking.getId(), "APPROVED", results.get(0).getBooking());
+    }
+
+    private static Optional<ItemSummary> summaryOf(Item item) {
+        return Optional.of(new ItemSummary(item.getId(), item.getName(), item.getAvailable(), item.getOwner().getId()));
+    }
+
+    private static Optional<UserSummary> summaryOf(User user) {
+        return Optional.of(new UserSummary(user.getId(), user.getName()));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,117 @@
+package ru.practicum.shareit.booking;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+/**
+ * Approves a booking while the roll-forward job recomputes the same, stale projection, and fails when the
+ * roll-forward writes back a row computed before the approval.
+ */
+@SpringBootTest
+class ItemBookingProjectorConcurrencyTest {
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemBookingProjector projector;
+    @Autowired
+    private ItemBookingProjectionRepository projectionRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        for (String table : List.of("outbox_events", "item_booking_projection", "bookings", "items", "users")) {
+            jdbcTemplate.update("delete from " + table);
+        }
+    }
+
+    @Test
+    void approveAndRollForward_whenConcurrent_thenApprovalKept() throws Exception {
+        User owner = userRepository.save(User.builder().name("owner").email("owner@mail.ru").build());
+        User booker = userRepository.save(User.builder().name("booker").email("booker@mail.ru").build());
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                LocalDateTime now = LocalDateTime.now();
+                Item item = itemRepository.save(Item.builder()
+                        .name("drill")
+                        .description("drill")
+                        .available(true)
+                        .owner(owner)
+                        .build());
+                Booking started = bookingRepository.save(booking(item, booker, now.minusHours(1),
+                        BookingStatus.APPROVED));
+                Booking upcoming = bookingRepository.save(booking(item, booker, now.plusDays(1),
+                        BookingStatus.WAITING));
+                // the projection still points at the booking that has started since
+                projectionRepository.save(ItemBookingProjection.builder()
+                        .itemId(item.getId())
+                        .nextBooking(started)
+                        .nextStart(started.getStart())
+                        .build());
+
+                CyclicBarrier barrier = new CyclicBarrier(2);
+                CompletableFuture<Void> approve = CompletableFuture.runAsync(() -> {
+                    await(barrier);
+                    bookingService.updateBooking(upcoming.getId(), owner.getId(), true);
+                }, executor);
+                CompletableFuture<Void> rollForward = CompletableFuture.runAsync(() -> {
+                    await(barrier);
+                    projector.rollForward();
+                }, executor);
+                CompletableFuture.allOf(approve, rollForward).get(30, TimeUnit.SECONDS);
+
+                ItemBookingProjection projection = projectionRepository
+                        .findWithBookingsByItemIdIn(List.of(item.getId())).get(0);
+                assertEquals(started.getId(), projection.getLastBooking().getId());
+                assertEquals(upcoming.getId(), projection.getNextBooking().getId());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Booking booking(Item item, User booker, LocalDateTime start, BookingStatus status) {
+        return Booking.builder()
+                .item(item)
+                .booker(booker)
+                .start(start)
+                .end(start.plusHours(2))
+                .status(status)
+                .build();
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
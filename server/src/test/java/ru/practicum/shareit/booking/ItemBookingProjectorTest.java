@@ -0,0 +1,136 @@
+package ru.practicum.shareit.booking;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.user.User;
+
+@DataJpaTest
+@AutoConfigureTestDatabase
+@Import({ItemBookingProjector.class, StripedItemLockManager.class, SimpleMeterRegistry.class})
+class ItemBookingProjectorTest {
+    @Autowired
+    private TestEntityManager em;
+    @Autowired
+    private ItemBookingProjector projector;
+    @Autowired
+    private ItemBookingProjectionRepository projectionRepository;
+
+    LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    User owner = User.builder()
+            .name("owner")
+            .email("owner@user.ru")
+            .build();
+    User booker = User.builder()
+            .name("booker")
+            .email("booker@user.ru")
+            .build();
+    Item item = Item.builder()
+            .name("name")
+            .description("description")
+            .available(true)
+            .owner(owner)
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        em.persist(owner);
+        em.persist(booker);
+        em.persist(item);
+    }
+
+    @Test
+    void approved_thenLatestStartedAndEarliestUpcoming() {
+        Booking older = persist(now.minusDays(5), BookingStatus.APPROVED);
+        Booking started = persist(now.minusDays(2), BookingStatus.APPROVED);
+        Booking later = persist(now.plusDays(6), BookingStatus.APPROVED);
+        Booking upcoming = persist(now.plusDays(3), BookingStatus.APPROVED);
+
+        projector.approved(List.of(started, older, later, upcoming), now);
+        em.flush();
+        em.clear();
+        ItemBookingProjection projection = projector.find(List.of(item.getId()), now).get(item.getId());
+
+        assertEquals(started.getId(), projection.getLastBooking().getId());
+        assertEquals(upcoming.getId(), projection.getNextBooking().getId());
+        assertEquals(upcoming.getStart(), projection.getNextStart());
+    }
+
+    @Test
+    void find_whenNextStarted_thenRecomputed() {
+        Booking started = persist(now.minusHours(1), BookingStatus.APPROVED);
+        Booking upcoming = persist(now.plusDays(1), BookingStatus.APPROVED);
+        persistStale(started);
+
+        ItemBookingProjection projection = projector.find(List.of(item.getId()), now).get(item.getId());
+
+        assertEquals(started.getId(), projection.getLastBooking().getId());
+        assertEquals(upcoming.getId(), projection.getNextBooking().getId());
+    }
+
+    @Test
+    void rollForward_whenNextStarted_thenRowAdvanced() {
+        Booking started = persist(now.minusHours(1), BookingStatus.APPROVED);
+        persist(now.plusDays(1), BookingStatus.WAITING);
+        persistStale(started);
+
+        projector.rollForward();
+        em.flush();
+        em.clear();
+        ItemBookingProjection projection = projectionRepository.findById(item.getId()).orElseThrow();
+
+        assertEquals(started.getId(), projection.getLastBooking().getId());
+        assertEquals(started.getStart(), projection.getLastStart());
+        assertNull(projection.getNextBooking());
+        assertNull(projection.getNextStart());
+    }
+
+    @Test
+    void rebuild_thenOnlyApprovedBookingsProjected() {
+        Booking started = persist(now.minusDays(1), BookingStatus.APPROVED);
+        persist(now.minusHours(1), BookingStatus.REJECTED);
+        Booking upcoming = persist(now.plusDays(1), BookingStatus.APPROVED);
+        em.flush();
+
+        assertEquals(1, projector.rebuild());
+        em.clear();
+        ItemBookingProjection projection = projectionRepository.findById(item.getId()).orElseThrow();
+
+        assertEquals(started.getId(), projection.getLastBooking().getId());
+        assertEquals(upcoming.getId(), projection.getNextBooking().getId());
+    }
+
+    private void persistStale(Booking next) {
+        em.persist(ItemBookingProjection.builder()
+                .itemId(item.getId())
+                .nextBooking(next)
+                .nextStart(next.getStart())
+                .build());
+        em.flush();
+        em.clear();
+    }
+
+    private Booking persist(LocalDateTime start, BookingStatus status) {
+        return em.persist(Booking.builder()
+                .item(item)
+                .booker(booker)
+                .start(start)
+                .end(start.plusHours(2))
+                .status(status)
+                .build());
+    }
+}
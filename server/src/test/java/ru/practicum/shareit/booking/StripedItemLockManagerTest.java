@@ -0,0 +1,95 @@
+package ru.practicum.shareit.booking;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ru.practicum.shareit.booking.exception.ItemLockTimeoutException;
+
+class StripedItemLockManagerTest {
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    StripedItemLockManager lockManager = new StripedItemLockManager(16, Duration.ofMillis(100), meterRegistry);
+
+    @BeforeEach
+    void setUp() {
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void lock_whenItemLockedByOtherTransaction_thenTimesOut() throws Exception {
+        lockManager.lock(List.of(1L));
+
+        assertThrows(ItemLockTimeoutException.class, () -> inOtherTransaction(List.of(1L)));
+        assertEquals(1, meterRegistry.counter(StripedItemLockManager.CONTENDED_METRIC,
+                "stripe", String.valueOf(lockManager.stripe(1L))).count());
+    }
+
+    @Test
+    void lock_whenOtherItems_thenNotBlocked() throws Exception {
+        lockManager.lock(List.of(1L, 2L));
+
+        inOtherTransaction(List.of(3L, 4L));
+    }
+
+    @Test
+    void lock_whenTransactionCompleted_thenReleased() throws Exception {
+        lockManager.lock(List.of(1L));
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        inOtherTransaction(List.of(1L));
+    }
+
+    @Test
+    void lock_whenNoTransaction_thenThrows() {
+        TransactionSynchronizationManager.clearSynchronization();
+        try {
+            assertThrows(IllegalStateException.class, () -> lockManager.lock(List.of(1L)));
+        } finally {
+            TransactionSynchronizationManager.initSynchronization();
+        }
+    }
+
+    @Test
+    void create_whenStripesNotPowerOfTwo_thenThrow() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new StripedItemLockManager(10, Duration.ofMillis(100), meterRegistry));
+    }
+
+    private void inOtherTransaction(List<Long> itemIds) throws Exception {
+        try {
+            CompletableFuture.runAsync(() -> {
+                TransactionSynchronizationManager.initSynchronization();
+                try {
+                    lockManager.lock(itemIds);
+                    TransactionSynchronizationManager.getSynchronizations()
+                            .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+                } finally {
+                    TransactionSynchronizationManager.clearSynchronization();
+                }
+            }).get(5, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
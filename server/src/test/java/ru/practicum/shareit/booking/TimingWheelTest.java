@@ -0,0 +1,59 @@
+package ru.practicum.shareit.booking;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class TimingWheelTest {
+    private static final long START = 1_000_000L;
+
+    TimingWheel wheel = new TimingWheel(Duration.ofSeconds(1), 8, START);
+
+    @Test
+    void advance_whenDeadlineNotReached_thenNothingDue() {
+        wheel.schedule(1L, START + 2_500);
+
+        assertTrue(wheel.advance(START + 2_999).isEmpty());
+        assertEquals(List.of(1L), wheel.advance(START + 3_000));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void advance_whenDeadlineBeyondOneTurn_thenDueOnLaterTurn() {
+        wheel.schedule(1L, START + 10_000);
+
+        assertTrue(wheel.advance(START + 9_000).isEmpty());
+        assertEquals(List.of(1L), wheel.advance(START + 10_000));
+    }
+
+    @Test
+    void advance_whenPausedForSeveralTurns_thenEveryPassedDeadlineDue() {
+        wheel.schedule(1L, START + 3_000);
+        wheel.schedule(2L, START + 12_000);
+        wheel.schedule(3L, START + 40_000);
+
+        List<Long> due = wheel.advance(START + 30_000);
+
+        assertEquals(2, due.size());
+        assertTrue(due.containsAll(List.of(1L, 2L)));
+        assertEquals(List.of(3L), wheel.advance(START + 40_000));
+    }
+
+    @Test
+    void schedule_whenDeadlinePassed_thenDueOnNextTick() {
+        wheel.advance(START + 5_000);
+        wheel.schedule(1L, START);
+
+        assertEquals(List.of(1L), wheel.advance(START + 6_000));
+    }
+
+    @Test
+    void create_whenSizeNotPowerOfTwo_thenThrow() {
+        assertThrows(IllegalArgumentException.class, () -> new TimingWheel(Duration.ofSeconds(1), 10, START));
+    }
+}
@@ -0,0 +1,68 @@
+package ru.practicum.shareit.dataset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:dataset",
+        "shareit.dataset.users=50",
+        "shareit.dataset.items-per-owner=3",
+        "shareit.dataset.bookings-per-item=10"
+})
+@ActiveProfiles({"test", "dataset"})
+class DatasetGeneratorTest {
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void run_thenRowsLoaded() {
+        assertEquals(50, count("select count(*) from users"));
+        assertEquals(30, count("select count(*) from items"));
+        assertEquals(300, count("select count(*) from bookings"));
+        assertEquals(0, count("select count(*) from items i where not exists "
+                + "(select 1 from users u where u.id = i.owner)"));
+        assertEquals(0, count("select count(*) from bookings b join items i on i.id = b.item "
+                + "where b.booker = i.owner"));
+    }
+
+    @Test
+    void run_thenBookingsOfItemDoNotOverlap() {
+        assertEquals(0, count("select count(*) from bookings a join bookings b on a.item = b.item and a.id < b.id "
+                + "and a.start_date < b.end_date and b.start_date < a.end_date"));
+    }
+
+    @Test
+    void run_thenIdentityRestartedPastGeneratedIds() {
+        jdbcTemplate.update("insert into users (name, email) values ('late', 'late@mail.ru')");
+        long id = count("select id from users where email = 'late@mail.ru'");
+        jdbcTemplate.update("delete from users where id = ?", id);
+
+        assertEquals(51, id);
+    }
+
+    @Test
+    void zipfSampler_thenFirstRanksMostPopular() {
+        ZipfSampler sampler = new ZipfSampler(100, 1.0);
+        Random random = new Random(1);
+        int[] counts = new int[100];
+        for (int i = 0; i < 100_000; i++) {
+            counts[sampler.next(random)]++;
+        }
+
+        assertTrue(counts[0] > counts[1]);
+        assertTrue(counts[1] > counts[10]);
+        assertTrue(counts[0] > 10 * counts[99]);
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
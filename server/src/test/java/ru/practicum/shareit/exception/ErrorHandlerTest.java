@@ -15,21 +15,28 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.RequiredArgsConstructor;
 import ru.practicum.shareit.booking.exception.BookingNotAvailableException;
 import ru.practicum.shareit.booking.exception.BookingNotFoundException;
 import ru.practicum.shareit.request.exception.RequestNotFoundException;
 import ru.practicum.shareit.user.UserController;
+import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserService;
 import ru.practicum.shareit.user.exception.UserAlreadyExistsException;
 
 @WebMvcTest(controllers = UserController.class)
+@Import(SimpleMeterRegistry.class)
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 public class ErrorHandlerTest {
     private final MockMvc mvc;
+    private final MeterRegistry meterRegistry;
     @MockBean
     UserService userService;
 
@@ -72,6 +79,22 @@ public class ErrorHandlerTest {
                         Objects.requireNonNull(result.getResolvedException()).getMessage()));
     }
 
+    @Test
+    void handleConcurrentUpdate() throws Exception {
+        when(userService.getUser(1L)).thenThrow(new ObjectOptimisticLockingFailureException(User.class, 1L));
+        double counted = meterRegistry.counter(ErrorHandler.METRIC,
+                "exception", ObjectOptimisticLockingFailureException.class.getSimpleName()).count();
+
+        mvc.perform(get("/users/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isConflict())
+                .andExpect(result -> assertTrue(
+                        result.getResolvedException() instanceof ObjectOptimisticLockingFailureException));
+        assertEquals(counted + 1, meterRegistry.counter(ErrorHandler.METRIC,
+                "exception", ObjectOptimisticLockingFailureException.class.getSimpleName()).count());
+    }
+
     @Test
     void handleBookingNotAvailable() throws Exception {
         when(userService.getUser(1L)).thenThrow(new BookingNotAvailableException("BookingNotAvailableException"));
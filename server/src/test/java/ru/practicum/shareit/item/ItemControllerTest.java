@@ -13,7 +13,10 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Objects;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -21,22 +24,26 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.RequiredArgsConstructor;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoBooking;
+import ru.practicum.shareit.item.dto.ItemImportResult;
 import ru.practicum.shareit.item.exceptions.ItemNotFoundException;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.dto.UserDto;
 
 @WebMvcTest(controllers = ItemController.class)
+@Import(SimpleMeterRegistry.class)
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 class ItemControllerTest {
     private final ObjectMapper objectMapper;
@@ -106,7 +113,8 @@ class ItemControllerTest {
         Item item = ItemMapper.fromItemDto(testItemDto, user, null);
         ItemDtoBooking itemDtoBooking = ItemMapper.toItemDtoBooking(item);
 
-        when(itemService.getItemsByUser(anyLong(), anyInt(), anyInt())).thenReturn(Collections.singletonList(itemDtoBooking));
+        when(itemService.getItemsByUser(anyLong(), anyInt(), anyInt(), any()))
+                .thenReturn(Collections.singletonList(itemDtoBooking));
 
         mvc.perform(get("/items")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -183,7 +191,8 @@ class ItemControllerTest {
 
     @Test
     void searchItemTest() throws Exception {
-        when(itemService.searchItems(anyString(), anyInt(), anyInt())).thenReturn(Collections.singletonList(testItemDto));
+        when(itemService.searchItems(anyString(), anyInt(), anyInt()))
+                .thenReturn(Collections.singletonList(testItemDto));
 
         mvc.perform(get("/items/search?text=дрель")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -215,4 +224,23 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$.text").value("Test"))
                 .andExpect(jsonPath("$.authorName").value(commentDto.getAuthorName()));
     }
-}
\ No newline at end of file
+
+    @Test
+    void importItems_whenNdjson_thenRecordsPassedInOrder() throws Exception {
+        List<String> names = new ArrayList<>();
+        when(itemService.importItems(anyLong(), any())).thenAnswer(invocation -> {
+            Iterator<ItemDto> items = invocation.getArgument(1);
+            items.forEachRemaining(item -> names.add(item.getName()));
+            return new ItemImportResult(names.size());
+        });
+
+        mvc.perform(post("/items/import")
+                        .header("X-Sharer-User-Id", 1L)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(objectMapper.writeValueAsString(testItemDto) + "\n"
+                                + objectMapper.writeValueAsString(updatedItemDto) + "\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2));
+        assertEquals(List.of("name", "updated"), names);
+    }
+}
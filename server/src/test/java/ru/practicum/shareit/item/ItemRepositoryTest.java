@@ -66,18 +66,6 @@ public class ItemRepositoryTest {
         assertEquals(item, items.get(1));
     }
 
-    @Test
-    void searchByTextTest() {
-        em.persist(user);
-        em.persist(item2);
-        em.persist(item);
-        PageRequest p = PageRequest.of(0, 20);
-
-        List<Item> items = itemRepository.searchItems("first", p);
-        assertEquals(1, items.size());
-        assertEquals("name1", items.get(0).getName());
-    }
-
     @Test
     void searchByRequestsIdTest() {
         ItemRequest itemRequest = ItemRequest.builder()
@@ -0,0 +1,110 @@
+package ru.practicum.shareit.item;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.pagination.PageCursor;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ItemSearchCursorTest {
+    private static final int PAGE_SIZE = 2;
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private ObjectMapper mapper;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Long> matchingIds = new ArrayList<>();
+    private final List<Long> nameMatchIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        User owner = userRepository.save(User.builder().name("owner").email("cursor@mail.ru").build());
+        create(owner, "old tripod", "theodolite stand");
+        create(owner, "theodolite", "survey instrument");
+        create(owner, "level", "not a match");
+        create(owner, "laser", "digital theodolite");
+        create(owner, "theodolite pro", "survey instrument");
+        create(owner, "tape", "theodolite accessory");
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (String table : List.of("items", "users")) {
+            jdbcTemplate.update("delete from " + table);
+        }
+    }
+
+    @Test
+    void searchItems_whenCursor_thenBadRequest() throws Exception {
+        mvc.perform(get("/items/search")
+                        .param("text", "theodolite")
+                        .param("size", String.valueOf(PAGE_SIZE))
+                        .param("cursor", ""))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void searchItems_whenPagedByOffset_thenRankedWithoutCursor() throws Exception {
+        List<Long> seen = new ArrayList<>();
+        for (int from = 0; from < matchingIds.size(); from += PAGE_SIZE) {
+            MvcResult result = mvc.perform(get("/items/search")
+                            .param("text", "theodolite")
+                            .param("from", String.valueOf(from))
+                            .param("size", String.valueOf(PAGE_SIZE)))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            mapper.readTree(result.getResponse().getContentAsString())
+                    .forEach(item -> seen.add(item.get("id").asLong()));
+            assertNull(result.getResponse().getHeader(PageCursor.NEXT_CURSOR_HEADER));
+        }
+
+        // items matching by name rank before items matching by description only
+        assertEquals(Set.copyOf(matchingIds), Set.copyOf(seen));
+        assertEquals(matchingIds.size(), seen.size());
+        assertTrue(seen.subList(0, nameMatchIds.size()).containsAll(nameMatchIds));
+    }
+
+    private void create(User owner, String name, String description) {
+        ItemDto created = itemService.createItem(owner.getId(), ItemDto.builder()
+                .name(name)
+                .description(description)
+                .available(true)
+                .build());
+        if ((name + " " + description).contains("theodolite")) {
+            matchingIds.add(created.getId());
+        }
+        if (name.contains("theodolite")) {
+            nameMatchIds.add(created.getId());
+        }
+    }
+}
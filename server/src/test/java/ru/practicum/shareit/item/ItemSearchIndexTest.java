@@ -0,0 +1,108 @@
+package ru.practicum.shareit.item;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class ItemSearchIndexTest {
+    ItemSearchIndex index = new ItemSearchIndex();
+
+    Item drill = Item.builder()
+            .id(1L)
+            .name("Дрель")
+            .description("Простая дрель")
+            .available(true)
+            .build();
+    Item cordlessDrill = Item.builder()
+            .id(2L)
+            .name("Аккумуляторная дрель")
+            .description("Аккумуляторная дрель + аккумулятор")
+            .available(true)
+            .build();
+    Item screwdriver = Item.builder()
+            .id(3L)
+            .name("Отвертка")
+            .description("Аккумуляторная отвертка")
+            .available(true)
+            .build();
+
+    @Test
+    void search_whenSubstringMatches_thenRankedByNameMatch() {
+        index.put(screwdriver);
+        index.put(cordlessDrill);
+        index.put(drill);
+
+        assertEquals(List.of(1L, 2L), index.search("дрЕль"));
+        assertEquals(List.of(2L, 3L), index.search("аккУМУляторная"));
+        assertEquals(List.of(2L, 3L), index.search("умулят"));
+    }
+
+    @Test
+    void search_whenQueryShorterThanGram_thenScanAll() {
+        index.put(drill);
+        index.put(screwdriver);
+
+        assertEquals(List.of(1L, 3L), index.search("р"));
+    }
+
+    @Test
+    void put_whenItemUpdated_thenOldTermsRemoved() {
+        index.put(drill);
+        index.put(Item.builder()
+                .id(1L)
+                .name("Молоток")
+                .description("Тяжелый")
+                .available(true)
+                .build());
+
+        assertTrue(index.search("дрель").isEmpty());
+        assertEquals(List.of(1L), index.search("молоток"));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void search_whenItemNotAvailable_thenSkipped() {
+        drill.setAvailable(false);
+        index.put(drill);
+
+        assertTrue(index.search("дрель").isEmpty());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void put_whenAvailableFlips_thenPostingsFollow() {
+        index.put(drill);
+        index.put(cordlessDrill);
+        cordlessDrill.setAvailable(false);
+        index.put(cordlessDrill);
+
+        assertEquals(List.of(1L), index.search("дрель"));
+
+        cordlessDrill.setAvailable(true);
+        index.put(cordlessDrill);
+
+        assertEquals(List.of(1L, 2L), index.search("дрель"));
+    }
+
+    @Test
+    void search_whenQuerySpansTokens_thenMatchedAsSubstring() {
+        index.put(drill);
+        index.put(cordlessDrill);
+
+        assertEquals(List.of(1L), index.search("стая др"));
+        assertEquals(List.of(2L), index.search("дрель + акк"));
+    }
+
+    @Test
+    void estimatedBytes_whenItemsIndexed_thenReported() {
+        index.put(drill);
+        index.put(cordlessDrill);
+
+        assertTrue(index.termCount() > 0);
+        assertTrue(index.postingBytes() > 0);
+        assertTrue(index.estimatedBytes() > index.postingBytes());
+    }
+}
@@ -5,8 +5,10 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -23,19 +25,24 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.ItemBookingProjector;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.exceptions.ItemNotFoundException;
+import ru.practicum.shareit.outbox.Outbox;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
+import ru.practicum.shareit.user.UserSummary;
 
 @ExtendWith(MockitoExtension.class)
 class ItemServiceImplTest {
@@ -48,7 +55,13 @@ class ItemServiceImplTest {
     @Mock
     BookingRepository bookingRepository;
     @Mock
+    ItemBookingProjector itemBookingProjector;
+    @Mock
     ItemRequestRepository itemRequestRepository;
+    @Mock
+    ItemSearchEngine itemSearchEngine;
+    @Mock
+    Outbox outbox;
     @InjectMocks
     ItemServiceImpl itemService;
     @Captor
@@ -58,7 +71,7 @@ class ItemServiceImplTest {
     void findAllTest() {
         when(itemRepository.findAllByOwnerIdOrderByIdAsc(anyLong(), any()))
                 .thenReturn(Collections.emptyList());
-        assertTrue(itemService.getItemsByUser(1L, 0, 20).isEmpty());
+        assertTrue(itemService.getItemsByUser(1L, 0, 20, null).isEmpty());
     }
 
     @Test
@@ -97,7 +110,7 @@ class ItemServiceImplTest {
                 .owner(user)
                 .request(itemRequest)
                 .build();
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userRepository.findSummaryById(1L)).thenReturn(Optional.of(new UserSummary(1L, user.getName())));
         when(itemRepository.save(item)).thenReturn(item);
         when(itemRequestRepository.findById(anyLong())).thenReturn(Optional.of(itemRequest));
 
@@ -105,11 +118,31 @@ class ItemServiceImplTest {
 
         assertEquals(itemDto, actualItemDto);
         verify(itemRepository).save(item);
+        verify(outbox).event(Outbox.ITEM, 1L, "CREATED", actualItemDto);
+    }
+
+    @Test
+    void create_whenInTransaction_thenIndexedAfterCommit() {
+        User user = User.builder().id(1L).name("user").email("email@email.ru").build();
+        ItemDto itemDto = ItemDto.builder().name("name").description("description").available(true).build();
+        Item item = Item.builder().id(1L).name("name").description("description").available(true).owner(user).build();
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(itemRepository.save(any())).thenReturn(item);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            itemService.createItem(1L, itemDto);
+            verify(itemSearchEngine, never()).index(any());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(itemSearchEngine).index(item);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
     }
 
     @Test
     void create_whenUserNotFound() {
-        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+        when(userRepository.findSummaryById(1L)).thenReturn(Optional.empty());
 
         ItemDto itemDto = ItemDto.builder()
                 .id(1L)
@@ -190,8 +223,7 @@ class ItemServiceImplTest {
                 .owner(user)
                 .request(null)
                 .build();
-        when(itemRepository.searchItems(anyString(),
-                any())).thenReturn(Collections.singletonList(item));
+        when(itemSearchEngine.search(anyString(), anyInt(), anyInt())).thenReturn(Collections.singletonList(item));
 
         List<ItemDto> actual = itemService.searchItems("item", 0, 20);
         assertEquals(1, actual.size());
@@ -200,8 +232,7 @@ class ItemServiceImplTest {
 
     @Test
     void searchItem_whenTextIsBlank() {
-        when(itemRepository.searchItems(anyString(),
-                any())).thenReturn(Collections.emptyList());
+        when(itemSearchEngine.search(anyString(), anyInt(), anyInt())).thenReturn(Collections.emptyList());
 
         List<ItemDto> actual = itemService.searchItems("item", 0, 20);
         assertTrue(actual.isEmpty());
@@ -228,15 +259,16 @@ class ItemServiceImplTest {
                 LocalDateTime.now().minusHours(1),
                 item,
                 user,
-                BookingStatus.APPROVED);
+                BookingStatus.APPROVED,
+                0L);
         CommentDto commentDto = CommentDto.builder()
                 .id(1L)
                 .text("Хорошая дрель")
                 .authorName(user.getName())
                 .build();
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(userRepository.findSummaryById(1L)).thenReturn(summaryOf(user));
+        when(itemRepository.findSummaryById(1L)).thenReturn(summaryOf(item));
         when(bookingRepository.findByBookerIdAndItemIdAndEndBefore(anyLong(),
                 anyLong(), any(), any()))
                 .thenReturn(List.of(booking));
@@ -272,8 +304,8 @@ class ItemServiceImplTest {
                 .authorName(user.getName())
                 .build();
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(userRepository.findSummaryById(1L)).thenReturn(summaryOf(user));
+        when(itemRepository.findSummaryById(1L)).thenReturn(summaryOf(item));
         when(bookingRepository.findByBookerIdAndItemIdAndEndBefore(anyLong(),
                 anyLong(), any(), any()))
                 .thenReturn(new ArrayList<>());
@@ -282,4 +314,12 @@ class ItemServiceImplTest {
                 () -> itemService.createComment(item.getId(), commentDto, user.getId()));
         assertEquals("This user can't comment on this", ex.getMessage());
     }
-}
\ No newline at end of file
+
+    private static Optional<ItemSummary> summaryOf(Item item) {
+        return Optional.of(new ItemSummary(item.getId(), item.getName(), item.getAvailable(), item.getOwner().getId()));
+    }
+
+    private static Optional<UserSummary> summaryOf(User user) {
+        return Optional.of(new UserSummary(user.getId(), user.getName()));
+    }
+}
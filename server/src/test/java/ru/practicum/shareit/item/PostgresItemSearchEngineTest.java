@@ -0,0 +1,94 @@
+package ru.practicum.shareit.item;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import ru.practicum.shareit.user.User;
+
+/**
+ * Runs the ranked search against PostgreSQL with the Flyway migrations applied, as {@code similarity()} and the
+ * trigram indexes exist nowhere else. Skipped where Docker is not available.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Import(PostgresItemSearchEngine.class)
+class PostgresItemSearchEngineTest {
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:14.6-alpine");
+
+    @Autowired
+    private TestEntityManager em;
+    @Autowired
+    private PostgresItemSearchEngine searchEngine;
+
+    User owner = User.builder()
+            .name("owner")
+            .email("owner@user.ru")
+            .build();
+    Item screwdriver = item("Screwdriver", "Cordless screwdriver", true);
+    Item cordlessDrill = item("Cordless drill", "Cordless drill and battery", true);
+    Item drill = item("Drill", "Simple drill", true);
+    Item hiddenDrill = item("Drill", "Unavailable drill", false);
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.driverClassName", POSTGRES::getDriverClassName);
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("shareit.search.engine", () -> "postgres");
+    }
+
+    @BeforeEach
+    void setUp() {
+        em.persist(owner);
+        em.persist(screwdriver);
+        em.persist(cordlessDrill);
+        em.persist(drill);
+        em.persist(hiddenDrill);
+        em.flush();
+    }
+
+    @Test
+    void search_whenNameMatches_thenRankedBySimilarityBeforeDescriptionMatches() {
+        assertEquals(List.of(drill.getId(), cordlessDrill.getId()), ids(searchEngine.search("dRill", 0, 10)));
+        assertEquals(List.of(cordlessDrill.getId(), screwdriver.getId()),
+                ids(searchEngine.search("CORDless", 0, 10)));
+    }
+
+    @Test
+    void search_whenPaged_thenOffsetApplied() {
+        assertEquals(List.of(cordlessDrill.getId()), ids(searchEngine.search("drill", 1, 1)));
+    }
+
+    private Item item(String name, String description, boolean available) {
+        return Item.builder()
+                .name(name)
+                .description(description)
+                .available(available)
+                .owner(owner)
+                .build();
+    }
+
+    private static List<Long> ids(List<Item> items) {
+        return items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.item;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+
+class PostingListTest {
+
+    @Test
+    void add_whenIdsOutOfOrder_thenKeptSorted() {
+        PostingList list = PostingList.EMPTY.add(300L).add(5L).add(1_000_000L).add(42L).add(42L);
+
+        assertArrayEquals(new long[]{5L, 42L, 300L, 1_000_000L}, list.toArray());
+        assertEquals(4, list.size());
+    }
+
+    @Test
+    void of_whenIdsDense_thenOneBytePerGap() {
+        PostingList list = PostingList.of(new long[]{1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L});
+
+        assertEquals(8, list.byteSize());
+    }
+
+    @Test
+    void remove_whenIdPresent_thenRemoved() {
+        PostingList list = PostingList.of(new long[]{1L, 10L, 100L});
+
+        assertArrayEquals(new long[]{1L, 100L}, list.remove(10L).toArray());
+        assertSame(list, list.remove(7L));
+    }
+
+    @Test
+    void intersect_thenCommonIdsReturned() {
+        PostingList list = PostingList.of(new long[]{2L, 4L, 6L, 8L, 10L});
+
+        assertArrayEquals(new long[]{4L, 10L}, PostingList.intersect(new long[]{1L, 4L, 7L, 10L}, list));
+    }
+}
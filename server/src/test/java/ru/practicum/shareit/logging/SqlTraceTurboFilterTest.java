@@ -0,0 +1,49 @@
+package ru.practicum.shareit.logging;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.core.spi.FilterReply;
+
+class SqlTraceTurboFilterTest {
+    private final SqlTraceTurboFilter filter = new SqlTraceTurboFilter();
+    private final Logger sql = (Logger) LoggerFactory.getLogger("org.hibernate.SQL");
+    private final Logger binder = (Logger) LoggerFactory.getLogger("org.hibernate.type.descriptor.sql.BasicBinder");
+    private final Logger other = (Logger) LoggerFactory.getLogger("org.hibernate.engine");
+
+    @AfterEach
+    void tearDown() {
+        MDC.remove(SqlTraceTurboFilter.MDC_KEY);
+    }
+
+    @Test
+    void decide_whenNotRequested_thenNeutral() {
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, sql, Level.DEBUG, null, null, null));
+    }
+
+    @Test
+    void decide_whenRequested_thenOnlySqlLoggersAccepted() {
+        MDC.put(SqlTraceTurboFilter.MDC_KEY, "on");
+
+        assertEquals(FilterReply.ACCEPT, filter.decide(null, sql, Level.DEBUG, null, null, null));
+        assertEquals(FilterReply.ACCEPT, filter.decide(null, binder, Level.TRACE, null, null, null));
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, other, Level.TRACE, null, null, null));
+    }
+
+    @Test
+    void hibernateSqlLogger_whenNotRequested_thenDisabled() {
+        assertFalse(binder.isTraceEnabled());
+
+        MDC.put(SqlTraceTurboFilter.MDC_KEY, "on");
+
+        assertTrue(binder.isTraceEnabled());
+    }
+}
@@ -0,0 +1,91 @@
+package ru.practicum.shareit.outbox;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DataJpaTest
+@AutoConfigureTestDatabase
+@Import({Outbox.class, OutboxRelay.class, InMemoryOutboxSink.class, OutboxRelayTest.Config.class})
+class OutboxRelayTest {
+    @Autowired
+    private TestEntityManager em;
+    @Autowired
+    private Outbox outbox;
+    @Autowired
+    private OutboxRelay relay;
+    @Autowired
+    private InMemoryOutboxSink sink;
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        sink.clear();
+    }
+
+    @Test
+    void relayBatch_thenEventsDeliveredInOrderPerAggregateAndRemoved() {
+        outbox.append(outbox.event(Outbox.BOOKING, 1L, "CREATED", Map.of("status", "WAITING")));
+        outbox.append(outbox.event(Outbox.ITEM, 1L, "CREATED", Map.of("name", "drill")));
+        outbox.append(List.of(
+                outbox.event(Outbox.BOOKING, 1L, "APPROVED", Map.of("status", "APPROVED")),
+                outbox.event(Outbox.BOOKING, 2L, "CREATED", Map.of("status", "WAITING"))));
+        em.flush();
+        double relayed = meterRegistry.counter("shareit.outbox.relayed").count();
+
+        assertEquals(4, relay.relayBatch());
+        em.clear();
+
+        assertEquals(List.of("CREATED", "APPROVED"), eventTypes(Outbox.BOOKING, 1L));
+        assertEquals(List.of("CREATED"), eventTypes(Outbox.ITEM, 1L));
+        assertEquals("{\"status\":\"APPROVED\"}", sink.getEvents().stream()
+                .filter(event -> event.getEventType().equals("APPROVED"))
+                .findFirst()
+                .orElseThrow()
+                .getPayload());
+        assertEquals(0, outboxEventRepository.count());
+        assertEquals(relayed + 4, meterRegistry.counter("shareit.outbox.relayed").count());
+        assertEquals(0, relay.relayBatch());
+    }
+
+    private List<String> eventTypes(String aggregateType, long aggregateId) {
+        return sink.getEvents().stream()
+                .filter(event -> event.getAggregateType().equals(aggregateType)
+                        && event.getAggregateId() == aggregateId)
+                .map(OutboxEvent::getEventType)
+                .collect(Collectors.toList());
+    }
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper().findAndRegisterModules();
+        }
+    }
+}
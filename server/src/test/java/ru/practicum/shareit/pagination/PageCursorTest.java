@@ -0,0 +1,51 @@
+package ru.practicum.shareit.pagination;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import ru.practicum.shareit.exception.BadRequestException;
+
+class PageCursorTest {
+    @Test
+    void encodeDecode_thenSameCursor() {
+        PageCursor withStart = PageCursor.of(LocalDateTime.of(2023, 5, 1, 12, 30, 15), 42L);
+        PageCursor idOnly = PageCursor.of(42L);
+
+        assertEquals(withStart, PageCursor.decode(withStart.encode()));
+        assertEquals(idOnly, PageCursor.decode(idOnly.encode()));
+    }
+
+    @Test
+    void decode_whenBlank_thenNull() {
+        assertNull(PageCursor.decode(null));
+        assertNull(PageCursor.decode(" "));
+    }
+
+    @Test
+    void decode_whenGarbage_thenBadRequest() {
+        assertThrows(BadRequestException.class, () -> PageCursor.decode("not a cursor"));
+        assertThrows(BadRequestException.class, () -> PageCursor.decode(PageCursor.of(1L).encode() + "x"));
+    }
+
+    @Test
+    void toResponse_whenPageFull_thenNextCursorOfLastRow() {
+        ResponseEntity<List<Long>> response = PageCursor.toResponse(List.of(3L, 5L), 2, PageCursor::of);
+
+        assertEquals(PageCursor.of(5L).encode(), response.getHeaders().getFirst(PageCursor.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void toResponse_whenLastPage_thenNoCursor() {
+        ResponseEntity<List<Long>> response = PageCursor.toResponse(List.of(3L), 2, PageCursor::of);
+
+        assertFalse(response.getHeaders().containsKey(PageCursor.NEXT_CURSOR_HEADER));
+    }
+}
@@ -11,9 +11,12 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -26,6 +29,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = ItemRequestController.class)
+@Import(SimpleMeterRegistry.class)
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 class ItemRequestControllerTest {
     private final ObjectMapper objectMapper;
@@ -78,7 +82,8 @@ class ItemRequestControllerTest {
     void getRequestsInfoTest() throws Exception {
         ItemRequest itemRequest = ItemRequestMapper.toItemRequest(itemRequestDtoReq, user);
         ItemRequestDtoRsp rsp = ItemRequestMapper.toItemRequestDtoRsp(itemRequest);
-        when(itemRequestService.getRequests(anyLong(), anyInt(), anyInt())).thenReturn(Collections.singletonList(rsp));
+        when(itemRequestService.getRequests(anyLong(), anyInt(), anyInt(), any()))
+                .thenReturn(Collections.singletonList(rsp));
 
         mvc.perform(get("/requests")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -106,7 +111,8 @@ class ItemRequestControllerTest {
     void getRequestsListTest() throws Exception {
         ItemRequest itemRequest = ItemRequestMapper.toItemRequest(itemRequestDtoReq, user);
         ItemRequestDtoRsp rsp = ItemRequestMapper.toItemRequestDtoRsp(itemRequest);
-        when(itemRequestService.getRequests(anyLong(), anyInt(), anyInt())).thenReturn(Collections.singletonList(rsp));
+        when(itemRequestService.getRequests(anyLong(), anyInt(), anyInt(), any()))
+                .thenReturn(Collections.singletonList(rsp));
 
         mvc.perform(get("/requests/all")
                 .contentType(MediaType.APPLICATION_JSON)
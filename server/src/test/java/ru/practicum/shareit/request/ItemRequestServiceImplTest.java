@@ -32,6 +32,7 @@ import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.exception.UserAlreadyExistsException;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
+import ru.practicum.shareit.user.UserSummary;
 
 @ExtendWith(MockitoExtension.class)
 class ItemRequestServiceImplTest {
@@ -81,7 +82,7 @@ class ItemRequestServiceImplTest {
 
     @Test
     void create_whenUserFound_thenSaved() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.ofNullable(user));
+        when(userRepository.findSummaryById(anyLong())).thenReturn(summaryOf(user));
         ItemRequest itemRequest = ItemRequestMapper.toItemRequest(itemRequestDtoReq, user);
         when(requestRepository.save(any())).thenReturn(itemRequest);
         ItemRequestDtoRsp actual = itemRequestService.create(user.getId(), itemRequestDtoReq);
@@ -92,7 +93,7 @@ class ItemRequestServiceImplTest {
 
     @Test
     void create_whenUserNotFound() {
-        when(userRepository.findById(anyLong())).thenThrow(new UserNotFoundException("User not found"));
+        when(userRepository.findSummaryById(anyLong())).thenThrow(new UserNotFoundException("User not found"));
 
         UserNotFoundException ex = assertThrows(UserNotFoundException.class,
                 () -> itemRequestService.create(1L, itemRequestDtoReq));
@@ -101,7 +102,7 @@ class ItemRequestServiceImplTest {
 
     @Test
     void getRequestsInfo_whenUserFound_thenReturnRequestsList() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.ofNullable(user));
+        when(userRepository.findSummaryById(anyLong())).thenReturn(summaryOf(user));
 
         List<ItemRequestDtoRsp> responseList = itemRequestService.getAllInfo(user.getId());
         assertTrue(responseList.isEmpty());
@@ -110,7 +111,7 @@ class ItemRequestServiceImplTest {
 
     @Test
     void getRequestsInfo_whenUserNotFound() {
-        when(userRepository.findById(anyLong())).thenThrow(new UserAlreadyExistsException("User not found"));
+        when(userRepository.findSummaryById(anyLong())).thenThrow(new UserAlreadyExistsException("User not found"));
 
         UserAlreadyExistsException ex = assertThrows(UserAlreadyExistsException.class, () -> itemRequestService.getAllInfo(1L));
         assertEquals("User not found", ex.getMessage());
@@ -118,7 +119,7 @@ class ItemRequestServiceImplTest {
 
     @Test
     void getRequestInfo_whenUserAndRequestFound_thenReturnRequestsList() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.ofNullable(user));
+        when(userRepository.findSummaryById(anyLong())).thenReturn(summaryOf(user));
         ItemRequest itemRequest = ItemRequestMapper.toItemRequest(itemRequestDtoReq, user);
         when(requestRepository.findById(anyLong())).thenReturn(Optional.of(itemRequest));
         item.setRequest(itemRequest);
@@ -133,7 +134,7 @@ class ItemRequestServiceImplTest {
 
     @Test
     void getRequestInfo_whenRequestNotFound() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.ofNullable(user));
+        when(userRepository.findSummaryById(anyLong())).thenReturn(summaryOf(user));
         when(requestRepository.findById(anyLong())).thenThrow(new RequestNotFoundException("Request not found"));
 
         RequestNotFoundException ex = assertThrows(RequestNotFoundException.class,
@@ -146,8 +147,12 @@ class ItemRequestServiceImplTest {
         ItemRequest itemRequest = ItemRequestMapper.toItemRequest(itemRequestDtoReq, user);
         when(requestRepository.findAllPageable(anyLong(), any())).thenReturn(Collections.singletonList(itemRequest));
 
-        List<ItemRequestDtoRsp> items = itemRequestService.getRequests(1L, 0, 20);
+        List<ItemRequestDtoRsp> items = itemRequestService.getRequests(1L, 0, 20, null);
         assertEquals(1, items.size());
         verify(requestRepository).findAllPageable(anyLong(), any());
     }
-}
\ No newline at end of file
+
+    private static Optional<UserSummary> summaryOf(User user) {
+        return Optional.of(new UserSummary(user.getId(), user.getName()));
+    }
+}
@@ -0,0 +1,64 @@
+package ru.practicum.shareit.tracing;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Appends finished spans to a file, one JSON object per line. Meant for local runs: every span is written and
+ * flushed under a lock on the request thread.
+ */
+@Slf4j
+public class FileSpanHandler extends SpanHandler implements AutoCloseable {
+    private final ObjectMapper objectMapper;
+    private final BufferedWriter writer;
+
+    public FileSpanHandler(Path file, ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        try {
+            this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public boolean end(TraceContext context, MutableSpan span, Cause cause) {
+        if (cause != Cause.FINISHED) {
+            return true;
+        }
+        try {
+            String line = objectMapper.writeValueAsString(SpanRecord.of(context, span));
+            synchronized (writer) {
+                writer.write(line);
+                writer.newLine();
+                writer.flush();
+            }
+        } catch (JsonProcessingException e) {
+            log.warn("Span {} not written: {}", context.spanIdString(), e.getMessage());
+        } catch (IOException e) {
+            log.warn("Span file not writable: {}", e.getMessage());
+        }
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (writer) {
+            writer.close();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.tracing;
+
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.springframework.lang.Nullable;
+
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+
+/**
+ * Keeps the last {@code capacity} finished spans in memory for the {@code spans} actuator endpoint.
+ */
+public class RecentSpansHandler extends SpanHandler {
+    private final int capacity;
+    private final Deque<SpanRecord> spans = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    public RecentSpansHandler(int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public boolean end(TraceContext context, MutableSpan span, Cause cause) {
+        if (cause != Cause.FINISHED) {
+            return true;
+        }
+        spans.addLast(SpanRecord.of(context, span));
+        if (size.incrementAndGet() > capacity && spans.pollFirst() != null) {
+            size.decrementAndGet();
+        }
+        return true;
+    }
+
+    /**
+     * Spans of one trace, or all kept spans when {@code traceId} is null, in start order.
+     */
+    public List<SpanRecord> getSpans(@Nullable String traceId) {
+        return spans.stream()
+                .filter(span -> traceId == null || span.getTraceId().equals(traceId))
+                .sorted(Comparator.comparingLong(SpanRecord::getStartMicros))
+                .collect(Collectors.toList());
+    }
+}
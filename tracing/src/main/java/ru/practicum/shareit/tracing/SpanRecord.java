@@ -0,0 +1,38 @@
+package ru.practicum.shareit.tracing;
+
+import java.util.Map;
+
+import brave.handler.MutableSpan;
+import brave.propagation.TraceContext;
+import lombok.Value;
+
+/**
+ * Finished span as the local exporters keep it; times are epoch microseconds.
+ */
+@Value
+public class SpanRecord {
+    String traceId;
+    String spanId;
+    String parentId;
+    String service;
+    String name;
+    String kind;
+    long startMicros;
+    long durationMicros;
+    Map<String, String> tags;
+    String error;
+
+    static SpanRecord of(TraceContext context, MutableSpan span) {
+        return new SpanRecord(
+                context.traceIdString(),
+                context.spanIdString(),
+                context.parentIdString(),
+                span.localServiceName(),
+                span.name(),
+                span.kind() == null ? null : span.kind().name(),
+                span.startTimestamp(),
+                span.finishTimestamp() - span.startTimestamp(),
+                Map.copyOf(span.tags()),
+                span.error() == null ? null : span.error().toString());
+    }
+}
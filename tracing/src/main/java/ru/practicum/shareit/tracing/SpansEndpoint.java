@@ -0,0 +1,24 @@
+package ru.practicum.shareit.tracing;
+
+import java.util.List;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * {@code GET /actuator/spans?traceId=...} lists the recent spans of a trace in start order, giving the latency
+ * breakdown of one request without a tracing backend.
+ */
+@Endpoint(id = "spans")
+@RequiredArgsConstructor
+public class SpansEndpoint {
+    private final RecentSpansHandler recentSpansHandler;
+
+    @ReadOperation
+    public List<SpanRecord> spans(@Nullable String traceId) {
+        return recentSpansHandler.getSpans(traceId);
+    }
+}
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.tracing;
+
+import java.nio.file.Path;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Local span exporters. Sleuth reports finished spans to every {@code SpanHandler} bean, so another exporter, such
+ * as Zipkin, is plugged in by adding its handler or starter.
+ */
+@Configuration
+public class TracingConfig {
+    @Configuration
+    @ConditionalOnProperty(name = "shareit.tracing.recent.enabled", havingValue = "true", matchIfMissing = true)
+    static class RecentSpans {
+        @Bean
+        public RecentSpansHandler recentSpansHandler(@Value("${shareit.tracing.recent.capacity:10000}") int capacity) {
+            return new RecentSpansHandler(capacity);
+        }
+
+        @Bean
+        public SpansEndpoint spansEndpoint(RecentSpansHandler recentSpansHandler) {
+            return new SpansEndpoint(recentSpansHandler);
+        }
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "shareit.tracing.file")
+    public FileSpanHandler fileSpanHandler(@Value("${shareit.tracing.file}") Path file, ObjectMapper objectMapper) {
+        return new FileSpanHandler(file, objectMapper);
+    }
+}